@@ -0,0 +1,82 @@
+-- Benchmark of the reservation overlap predicate at a million reservations.
+--
+-- Compares the plans of the old three way predicate
+--     start BETWEEN :start AND :end OR end BETWEEN :start AND :end OR (start < :start AND end > :end)
+-- and the canonical predicate
+--     start < :end AND end > :start
+-- before and after the composite (area, start, end) index is added.
+--
+-- Everything is made in a separate schema, which is dropped at the end, so the script can be run
+-- against any PostgreSQL 13+ database:
+--     psql -d <database> -f benchmark/reservation_overlap.sql
+--
+-- Expected result: without the index both predicates scan the whole table (about 150 ms on
+-- PostgreSQL 14). With the index, the canonical predicate is a single index scan on
+-- (area, start) with the end checked within the index (under 0.1 ms). The old predicate needs a
+-- BitmapOr of three index scans for the same answer, at two to three times the cost.
+
+DROP SCHEMA IF EXISTS overlap_bench CASCADE;
+CREATE SCHEMA overlap_bench;
+
+CREATE TABLE overlap_bench.reservation (
+	reservation_uuid uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+	area_area_id uuid NOT NULL,
+	start_date_time timestamp(6) NOT NULL,
+	end_date_time timestamp(6) NOT NULL
+);
+
+-- 1000 areas with 1000 reservations each, one hour every day
+INSERT INTO overlap_bench.reservation (area_area_id, start_date_time, end_date_time)
+SELECT area.id, day, day + interval '1 hour'
+FROM (SELECT md5('area' || n)::uuid AS id FROM generate_series(1, 1000) n) area
+CROSS JOIN generate_series(
+	timestamp '2025-01-01 09:00',
+	timestamp '2025-01-01 09:00' + interval '999 days',
+	interval '1 day'
+) day;
+
+ANALYZE overlap_bench.reservation;
+
+-- Without the index
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT COUNT(res) = 0
+FROM overlap_bench.reservation res
+WHERE res.area_area_id = md5('area500')::uuid
+AND (
+	res.start_date_time BETWEEN '2026-03-01 09:30' AND '2026-03-01 11:00'
+	OR res.end_date_time BETWEEN '2026-03-01 09:30' AND '2026-03-01 11:00'
+	OR (res.start_date_time < '2026-03-01 09:30' AND res.end_date_time > '2026-03-01 11:00')
+);
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT COUNT(res) = 0
+FROM overlap_bench.reservation res
+WHERE res.area_area_id = md5('area500')::uuid
+AND res.start_date_time < '2026-03-01 11:00'
+AND res.end_date_time > '2026-03-01 09:30';
+
+-- With the index of the reservation entity
+
+CREATE INDEX reservation_area_time_idx
+	ON overlap_bench.reservation (area_area_id, start_date_time, end_date_time);
+ANALYZE overlap_bench.reservation;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT COUNT(res) = 0
+FROM overlap_bench.reservation res
+WHERE res.area_area_id = md5('area500')::uuid
+AND (
+	res.start_date_time BETWEEN '2026-03-01 09:30' AND '2026-03-01 11:00'
+	OR res.end_date_time BETWEEN '2026-03-01 09:30' AND '2026-03-01 11:00'
+	OR (res.start_date_time < '2026-03-01 09:30' AND res.end_date_time > '2026-03-01 11:00')
+);
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT COUNT(res) = 0
+FROM overlap_bench.reservation res
+WHERE res.area_area_id = md5('area500')::uuid
+AND res.start_date_time < '2026-03-01 11:00'
+AND res.end_date_time > '2026-03-01 09:30';
+
+DROP SCHEMA overlap_bench CASCADE;
@@ -2,11 +2,13 @@ package no.ntnu.idata2900.group3.chairspace;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main.
  */
 @SpringBootApplication
+@EnableScheduling
 public class Main {
 
 	/**
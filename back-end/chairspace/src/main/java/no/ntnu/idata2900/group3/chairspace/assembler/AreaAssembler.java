@@ -3,8 +3,11 @@ package no.ntnu.idata2900.group3.chairspace.assembler;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import no.ntnu.idata2900.group3.chairspace.cache.BreadcrumbCache;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleArea;
 import no.ntnu.idata2900.group3.chairspace.dto.SimplePlan;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation;
@@ -12,7 +15,6 @@ import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservationList;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
 import no.ntnu.idata2900.group3.chairspace.entity.AreaFeature;
 import no.ntnu.idata2900.group3.chairspace.entity.AreaType;
-import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
 import no.ntnu.idata2900.group3.chairspace.entity.User;
 import no.ntnu.idata2900.group3.chairspace.exceptions.AdminCountException;
 import no.ntnu.idata2900.group3.chairspace.exceptions.ElementNotFoundException;
@@ -21,6 +23,10 @@ import no.ntnu.idata2900.group3.chairspace.service.AreaService;
 import no.ntnu.idata2900.group3.chairspace.service.PlanService;
 import no.ntnu.idata2900.group3.chairspace.service.ReservationService;
 import no.ntnu.idata2900.group3.chairspace.service.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Component;
 
 /**
@@ -34,6 +40,7 @@ public class AreaAssembler {
 	private final ReservationAssembler reservationAssembler;
 	private final PlanService planService;
 	private final PlanAssembler planAssembler;
+	private final BreadcrumbCache breadcrumbCache;
 
 	/**
 	 * Creates a new Area Assembler.
@@ -44,6 +51,7 @@ public class AreaAssembler {
 	 * @param reservationAssembler autowired reservation assembler
 	 * @param planService autowired plan service
 	 * @param planAssembler autowired plan assembler
+	 * @param breadcrumbCache autowired breadcrumb cache
 	 */
 	public AreaAssembler(
 		AreaService areaService,
@@ -51,7 +59,8 @@ public class AreaAssembler {
 		ReservationService reservationService,
 		ReservationAssembler reservationAssembler,
 		PlanService planService,
-		PlanAssembler planAssembler
+		PlanAssembler planAssembler,
+		BreadcrumbCache breadcrumbCache
 	) {
 		this.areaService = areaService;
 		this.userService = userService;
@@ -59,6 +68,7 @@ public class AreaAssembler {
 		this.reservationAssembler = reservationAssembler;
 		this.planService = planService;
 		this.planAssembler = planAssembler;
+		this.breadcrumbCache = breadcrumbCache;
 	}
 
 	/**
@@ -66,7 +76,8 @@ public class AreaAssembler {
 	 *
 	 * @param area the simple area to assemble from
 	 * @return the assembled domain area
-	 * @throws AdminCountException if the input simple area has no admins
+	 * @throws AdminCountException if the input simple area has no admins, and its super area has
+	 *     none either
 	 * @throws InvalidArgumentCheckedException if the input simple area has fields that are invalid
 	 *     for a domain area.
 	 * @throws ElementNotFoundException if any ID in the process refers to a non-existent entity.
@@ -87,6 +98,7 @@ public class AreaAssembler {
 			.id(area.id())
 			.isPlanControlled(area.isPlanControlled());
 
+		requireAdministrators(administrators, superArea);
 		return areaBuilder.build();
 	}
 
@@ -132,6 +144,7 @@ public class AreaAssembler {
 			.reservable(reservable)
 			.id(existingId);
 
+		requireAdministrators(administrators, superArea);
 		return areaBuilder.build();
 	}
 
@@ -142,7 +155,7 @@ public class AreaAssembler {
 	 * @return the area represented by a simple area object
 	 */
 	public SimpleArea toSimpleArea(Area area) {
-		SimpleArea.Builder builder = SimpleArea.Builder.fromArea(area)
+		SimpleArea.Builder builder = simpleAreaBuilder(area)
 			.planControlled(area.isPlanControlled());
 
 		if (area.isPlanControlled()) {
@@ -165,10 +178,13 @@ public class AreaAssembler {
 		LocalDateTime start,
 		LocalDateTime end
 	) {
-		List<SimpleReservation> reservations = getReservationsForArea(area.getId(), start, end)
-			.stream()
-			.map(reservationAssembler::toSimple)
-			.toList();
+		List<SimpleReservation> reservations = reservationService
+			.getSimpleReservationsForAreaBetween(
+				area.getId(),
+				start,
+				end,
+				userService.getSessionUserId()
+			);
 
 		SimpleReservationList simpleReservationList = new SimpleReservationList(
 			start,
@@ -176,7 +192,7 @@ public class AreaAssembler {
 			reservations
 		);
 
-		SimpleArea.Builder builder = SimpleArea.Builder.fromArea(area)
+		SimpleArea.Builder builder = simpleAreaBuilder(area)
 			.reservations(simpleReservationList)
 			.planControlled(area.isPlanControlled());
 
@@ -187,6 +203,102 @@ public class AreaAssembler {
 		return builder.build();
 	}
 
+	/**
+	 * Converts a page of domain areas to simple areas, and includes the areas' reservations.
+	 *
+	 * <p>
+	 * Works like {@link #toSimpleAreaWithReservations}, but loads the reservations and plans of
+	 * every area on the page with one query each, and looks up the session user only once.
+	 *
+	 * @param areas the page of areas to simplify
+	 * @param start the time start of the search
+	 * @param end the time end of the search
+	 * @return the page of areas represented by simple area objects
+	 */
+	public Page<SimpleArea> toSimpleAreasWithReservations(
+		Page<Area> areas,
+		LocalDateTime start,
+		LocalDateTime end
+	) {
+		List<SimpleArea> simpleAreas =
+			toSimpleAreasWithReservations(areas.getContent(), start, end);
+		return new PageImpl<>(simpleAreas, areas.getPageable(), areas.getTotalElements());
+	}
+
+	/**
+	 * Converts a slice of domain areas to simple areas, and includes the areas' reservations.
+	 * Works like {@link #toSimpleAreasWithReservations(Page, LocalDateTime, LocalDateTime)}, for
+	 * listings that do not know their total amount of areas.
+	 *
+	 * @param areas the slice of areas to simplify
+	 * @param start the time start of the search
+	 * @param end the time end of the search
+	 * @return the slice of areas represented by simple area objects
+	 */
+	public Slice<SimpleArea> toSimpleAreasWithReservations(
+		Slice<Area> areas,
+		LocalDateTime start,
+		LocalDateTime end
+	) {
+		List<SimpleArea> simpleAreas =
+			toSimpleAreasWithReservations(areas.getContent(), start, end);
+		return new SliceImpl<>(simpleAreas, areas.getPageable(), areas.hasNext());
+	}
+
+	/**
+	 * Converts a list of domain areas to simple areas, and includes the areas' reservations.
+	 *
+	 * @param areas the areas to simplify
+	 * @param start the time start of the search
+	 * @param end the time end of the search
+	 * @return the areas represented by simple area objects, in the same order
+	 * @see #toSimpleAreasWithReservations(Page, LocalDateTime, LocalDateTime)
+	 */
+	public List<SimpleArea> toSimpleAreasWithReservations(
+		List<Area> areas,
+		LocalDateTime start,
+		LocalDateTime end
+	) {
+		List<UUID> areaIds = areas.stream().map(Area::getId).toList();
+		List<UUID> planControlledIds = areas.stream()
+			.filter(Area::isPlanControlled)
+			.map(Area::getId)
+			.toList();
+
+		Map<UUID, List<SimpleReservation>> reservationsByArea = reservationService
+			.getSimpleReservationsForAreasBetween(
+				areaIds,
+				start,
+				end,
+				userService.getSessionUserId()
+			)
+			.stream()
+			.collect(Collectors.groupingBy(SimpleReservation::areaId));
+		Map<UUID, List<SimplePlan>> plansByArea = planService
+			.getAllPlansByAreas(planControlledIds)
+			.stream()
+			.collect(Collectors.groupingBy(
+				plan -> plan.getArea().getId(),
+				Collectors.mapping(planAssembler::toSimple, Collectors.toList())
+			));
+
+		return areas.stream().map(area -> {
+			SimpleArea.Builder builder = simpleAreaBuilder(area)
+				.reservations(new SimpleReservationList(
+					start,
+					end,
+					reservationsByArea.getOrDefault(area.getId(), List.of())
+				))
+				.planControlled(area.isPlanControlled());
+
+			if (area.isPlanControlled()) {
+				builder.simplePlans(plansByArea.getOrDefault(area.getId(), List.of()));
+			}
+
+			return builder.build();
+		}).toList();
+	}
+
 	/**
 	 * Creates an extremely simple representation of a super area.
 	 *
@@ -201,6 +313,22 @@ public class AreaAssembler {
 			.build();
 	}
 
+	/**
+	 * Creates a simple area builder prefilled from an area. The super areas are taken from the
+	 * breadcrumb cache and the administrators from the administrator index, so no super areas
+	 * are loaded from the database.
+	 *
+	 * @param area the area to project
+	 * @return a builder containing properties from area
+	 */
+	private SimpleArea.Builder simpleAreaBuilder(Area area) {
+		return SimpleArea.Builder.fromArea(
+			area,
+			breadcrumbCache.get(area.getId()),
+			areaService.getAdministratorIds(area.getId())
+		);
+	}
+
 	/**
 	 * Returns {@code primary} as long as it is not null, and {@code fallback} otherwise.
 	 *
@@ -242,6 +370,17 @@ public class AreaAssembler {
 		return area;
 	}
 
+	// An area without administrators of its own inherits them from its super areas. They are
+	// looked up in the administrator index, so the super areas above are never loaded
+	private void requireAdministrators(Set<User> administrators, Area superArea)
+		throws AdminCountException {
+		boolean inheritsNone = superArea == null
+			|| areaService.getAdministratorIds(superArea.getId()).isEmpty();
+		if (administrators.isEmpty() && inheritsNone) {
+			throw new AdminCountException("Cannot create area without administrator");
+		}
+	}
+
 	private Set<User> unpackAdministrators(SimpleArea simpleArea) throws ElementNotFoundException {
 		Set<User> admins = new HashSet<>();
 
@@ -260,12 +399,6 @@ public class AreaAssembler {
 		return admins;
 	}
 
-	private List<Reservation> getReservationsForArea(
-		UUID areaId, LocalDateTime start, LocalDateTime end
-	) {
-		return reservationService.getReservationsForAreaBetween(areaId, start, end);
-	}
-
 	private List<SimplePlan> getPlansForArea(UUID areaId) {
 		return planService.getPlansByArea(areaId)
 			.stream()
@@ -37,7 +37,18 @@ public class ReservationAssembler {
 	 * @return the simple representation of the input reservation
 	 */
 	public SimpleReservation toSimple(Reservation reservation) {
-		User sessionUser = userService.getSessionUser();
+		return toSimple(reservation, userService.getSessionUser());
+	}
+
+	/**
+	 * Projects a reservation to a simple reservation, for the given session user.
+	 * Lets callers converting many reservations look up the session user only once.
+	 *
+	 * @param reservation the reservation to project
+	 * @param sessionUser the user of the current session, or null if there is none
+	 * @return the simple representation of the input reservation
+	 */
+	public SimpleReservation toSimple(Reservation reservation, User sessionUser) {
 		SimpleReservation.Builder builder = SimpleReservation.Builder.fromReservation(reservation);
 
 		if (sessionUser != null) {
@@ -0,0 +1,112 @@
+package no.ntnu.idata2900.group3.chairspace.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleArea;
+import no.ntnu.idata2900.group3.chairspace.index.AreaTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A cache of the breadcrumbs of areas, keyed on the id of the area.
+ *
+ * <p>
+ * The breadcrumbs of an area are its super areas, from the top of the hierarchy down, as the
+ * simple areas sent along with every area. They are built once from the {@link AreaTree} and
+ * then shared by every response, so listing areas never walks the hierarchy.
+ *
+ * <p>
+ * The breadcrumbs of an area only change when the name, type or super area of one of its super
+ * areas changes. Writes to an area must {@link #invalidate} it, which also drops the breadcrumbs
+ * of every area below it. Entries are evicted when the cache is full, least recently used first.
+ */
+@Component
+public class BreadcrumbCache {
+	private final AreaTree areaTree;
+	private final Map<UUID, List<SimpleArea>> entries;
+	private final int maxEntries;
+	/** Counts invalidations, so breadcrumbs built before an invalidation are not cached. */
+	private long generation = 0;
+
+	/**
+	 * Creates a new breadcrumb cache.
+	 *
+	 * @param areaTree autowired area tree
+	 * @param maxEntries the maximum amount of areas with cached breadcrumbs
+	 */
+	public BreadcrumbCache(
+		AreaTree areaTree,
+		@Value("${breadcrumb.cache.max-entries:10000}") int maxEntries
+	) {
+		this.areaTree = areaTree;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, List<SimpleArea>> eldest) {
+				return size() > BreadcrumbCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Gets the breadcrumbs of an area, building them if they are not cached.
+	 *
+	 * @param areaId the id of the area
+	 * @return the super areas of the area, from the top of the hierarchy down
+	 */
+	public List<SimpleArea> get(UUID areaId) {
+		long built;
+		synchronized (entries) {
+			List<SimpleArea> breadcrumbs = entries.get(areaId);
+			if (breadcrumbs != null) {
+				return breadcrumbs;
+			}
+			built = generation;
+		}
+		// Breadcrumbs are built outside the lock, so other requests are not held up
+		List<SimpleArea> breadcrumbs = areaTree.getBreadcrumbs(areaId)
+			.stream()
+			.map(node -> new SimpleArea.Builder()
+				.id(node.id())
+				.name(node.name())
+				.areaType(node.areaType())
+				.build())
+			.toList();
+		if (maxEntries > 0) {
+			synchronized (entries) {
+				if (built == generation) {
+					entries.put(areaId, breadcrumbs);
+				}
+			}
+		}
+		return breadcrumbs;
+	}
+
+	/**
+	 * Drops the breadcrumbs of an area and of every area below it. Used when an area is written,
+	 * as that may change the breadcrumbs of the areas below it.
+	 *
+	 * @param areaId the id of the written area
+	 */
+	public void invalidate(UUID areaId) {
+		List<UUID> subAreaIds = areaTree.getSubAreaIds(areaId);
+		synchronized (entries) {
+			generation++;
+			entries.remove(areaId);
+			subAreaIds.forEach(entries::remove);
+		}
+	}
+
+	/**
+	 * Drops every cached breadcrumb. Used when areas or area types change in ways that are not
+	 * tracked one by one.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			generation++;
+			entries.clear();
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package no.ntnu.idata2900.group3.chairspace.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A cache of search results, keyed on the normalized search parameters.
+ *
+ * <p>
+ * An entry holds the ordered search candidates, and the available areas found among them so far.
+ * Searches only check as many candidates as needed to fill a page, so an entry grows as later
+ * pages of the same search are requested.
+ *
+ * <p>
+ * Entries are evicted when the cache is full, least recently used first, and when they grow too
+ * old. Writes only invalidate the entries they can affect, see {@link #invalidate} and
+ * {@link #invalidateWindow}. An entry is added to the cache before its first availability check,
+ * so a write that happens while a search is running always reaches the entry.
+ */
+@Component
+public class SearchCache {
+	/**
+	 * The precision of search windows. Windows are shrunk to the whole slots within them, so a
+	 * free gap found in the snapped window is always free in the requested window as well.
+	 */
+	public static final ChronoUnit SLOT = ChronoUnit.MINUTES;
+
+	private final Map<Key, Entry> entries;
+	private final int maxEntries;
+	private final Duration maxAge;
+
+	/**
+	 * Creates a new search cache.
+	 *
+	 * @param maxEntries the maximum amount of cached searches
+	 * @param maxAge the maximum age of a cached search
+	 */
+	public SearchCache(
+		@Value("${search.cache.max-entries:1000}") int maxEntries,
+		@Value("${search.cache.max-age:PT5M}") Duration maxAge
+	) {
+		this.maxEntries = maxEntries;
+		this.maxAge = maxAge;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > SearchCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Snaps the start of a window to the start of the first whole slot within the window.
+	 *
+	 * @param start the start of the window
+	 * @return the start of the slot the time is in, or of the next slot if it is within a slot
+	 */
+	public static LocalDateTime snapStart(LocalDateTime start) {
+		LocalDateTime snapped = start.truncatedTo(SLOT);
+		return snapped.equals(start) ? snapped : snapped.plus(1, SLOT);
+	}
+
+	/**
+	 * Snaps the end of a window to the end of the last whole slot within the window, but never
+	 * before the snapped start.
+	 *
+	 * @param start the start of the window
+	 * @param end the end of the window
+	 * @return the start of the slot the end is in, at the earliest the snapped start
+	 */
+	public static LocalDateTime snapEnd(LocalDateTime start, LocalDateTime end) {
+		LocalDateTime snapped = end.truncatedTo(SLOT);
+		LocalDateTime snappedStart = snapStart(start);
+		return snapped.isBefore(snappedStart) ? snappedStart : snapped;
+	}
+
+	/**
+	 * Gets the cached entry of a search, creating it if there is none or it is too old.
+	 *
+	 * @param key the search to get the entry of
+	 * @param candidates supplies the ordered candidates of the search if a new entry is created
+	 * @return the entry of the search
+	 */
+	public Entry get(Key key, Supplier<List<UUID>> candidates) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && !entry.isExpired(maxAge)) {
+				return entry;
+			}
+		}
+		// Candidates are found outside the lock, so other searches are not held up
+		Entry entry = new Entry(key, candidates.get());
+		if (maxEntries > 0) {
+			synchronized (entries) {
+				entries.put(key, entry);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Invalidates the cached searches whose window overlaps the given time, and whose candidates
+	 * include the given area. Used when a reservation is written.
+	 *
+	 * @param areaId the area that changed
+	 * @param start the start of the time that changed
+	 * @param end the end of the time that changed
+	 */
+	public void invalidate(UUID areaId, LocalDateTime start, LocalDateTime end) {
+		removeIf(entry -> entry.overlaps(start, end) && entry.candidateSet.contains(areaId));
+	}
+
+	/**
+	 * Invalidates every cached search whose window overlaps the given time. Used when the set of
+	 * candidates may change for that time, such as when a plan is written.
+	 *
+	 * @param start the start of the time that changed
+	 * @param end the end of the time that changed
+	 */
+	public void invalidateWindow(LocalDateTime start, LocalDateTime end) {
+		removeIf(entry -> entry.overlaps(start, end));
+	}
+
+	/**
+	 * Invalidates every cached search. Used when areas change, as that may change the candidates
+	 * of any search.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	private void removeIf(Predicate<Entry> predicate) {
+		synchronized (entries) {
+			Iterator<Entry> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				Entry entry = iterator.next();
+				if (entry.isExpired(maxAge) || predicate.test(entry)) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The normalized parameters of a search.
+	 *
+	 * @param capacity the minimum capacity, or null if any capacity matches
+	 * @param superAreaId the area to search within, or null to search everywhere
+	 * @param areaType the type of area, or null if any type matches
+	 * @param features the names of the required features, sorted
+	 * @param start the start of the search window, snapped to the first whole slot
+	 * @param end the end of the search window, snapped to the end of the last whole slot
+	 * @param duration the minimum length of a free gap
+	 */
+	public record Key(
+		Integer capacity,
+		UUID superAreaId,
+		String areaType,
+		List<String> features,
+		LocalDateTime start,
+		LocalDateTime end,
+		Duration duration
+	) {
+		/**
+		 * Creates a normalized key, so equal searches get equal keys.
+		 *
+		 * @param capacity the minimum capacity
+		 * @param superAreaId the area to search within
+		 * @param areaType the type of area
+		 * @param features the names of the required features
+		 * @param start the start of the search window
+		 * @param end the end of the search window
+		 * @param duration the minimum length of a free gap
+		 * @return the normalized key
+		 */
+		public static Key of(
+			Integer capacity,
+			UUID superAreaId,
+			String areaType,
+			Collection<String> features,
+			LocalDateTime start,
+			LocalDateTime end,
+			Duration duration
+		) {
+			return new Key(
+				capacity == null || capacity <= 0 ? null : capacity,
+				superAreaId,
+				areaType,
+				features == null ? List.of() : new HashSet<>(features).stream().sorted().toList(),
+				snapStart(start),
+				snapEnd(start, end),
+				duration
+			);
+		}
+	}
+
+	/**
+	 * The cached result of a single search.
+	 *
+	 * <p>
+	 * The progress of an entry must only be read or extended while synchronized on the entry.
+	 */
+	public static final class Entry {
+		private final Key key;
+		private final List<UUID> candidates;
+		private final Set<UUID> candidateSet;
+		private final List<UUID> matches = new ArrayList<>();
+		private final Instant created = Instant.now();
+		private int checked;
+
+		private Entry(Key key, List<UUID> candidates) {
+			this.key = key;
+			this.candidates = List.copyOf(candidates);
+			this.candidateSet = Set.copyOf(candidates);
+		}
+
+		/**
+		 * Returns the ordered candidates of the search.
+		 *
+		 * @return the candidates of the search
+		 */
+		public List<UUID> getCandidates() {
+			return candidates;
+		}
+
+		/**
+		 * Returns the amount of candidates that have been checked, from the start of the
+		 * candidates.
+		 *
+		 * @return the amount of checked candidates
+		 */
+		public int getChecked() {
+			return checked;
+		}
+
+		/**
+		 * Returns the available areas found so far, in the order of the candidates.
+		 *
+		 * @return the available areas found so far
+		 */
+		public List<UUID> getMatches() {
+			return matches;
+		}
+
+		/**
+		 * Records that more candidates have been checked.
+		 *
+		 * @param checkedUpTo the amount of candidates checked, from the start of the candidates
+		 * @param found the available areas among the newly checked candidates, in order
+		 */
+		public void addChecked(int checkedUpTo, List<UUID> found) {
+			checked = checkedUpTo;
+			matches.addAll(found);
+		}
+
+		private boolean isExpired(Duration maxAge) {
+			return created.plus(maxAge).isBefore(Instant.now());
+		}
+
+		private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+			return key.start().isBefore(end) && start.isBefore(key.end());
+		}
+	}
+}
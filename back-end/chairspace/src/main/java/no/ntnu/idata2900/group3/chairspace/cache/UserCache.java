@@ -0,0 +1,145 @@
+package no.ntnu.idata2900.group3.chairspace.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleUser;
+import no.ntnu.idata2900.group3.chairspace.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A cache of users, keyed on the external id given by the identity provider.
+ *
+ * <p>
+ * Every request made by a logged in user needs to find the user from the external id of the
+ * login. The cache keeps the id of the user together with a snapshot of its data, so most
+ * requests do not have to look the user up at all.
+ *
+ * <p>
+ * Entries are evicted when the cache is full, least recently used first, and when they grow too
+ * old. Writes to a user must {@link #put} or {@link #invalidate} it, so the snapshot is never
+ * older than the last write made by this instance of the application.
+ */
+@Component
+public class UserCache {
+	private final Map<String, Entry> entries;
+	private final int maxEntries;
+	private final Duration maxAge;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a new user cache.
+	 *
+	 * @param maxEntries the maximum amount of cached users
+	 * @param maxAge the maximum age of a cached user
+	 */
+	public UserCache(
+		@Value("${user.cache.max-entries:10000}") int maxEntries,
+		@Value("${user.cache.max-age:PT10M}") Duration maxAge
+	) {
+		this.maxEntries = maxEntries;
+		this.maxAge = maxAge;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				boolean full = size() > UserCache.this.maxEntries;
+				if (full) {
+					evictions.increment();
+				}
+				return full;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached snapshot of a user.
+	 *
+	 * @param externalId the external id of the user
+	 * @return the snapshot of the user, or null if it is not cached or too old
+	 */
+	public SimpleUser get(String externalId) {
+		synchronized (entries) {
+			Entry entry = entries.get(externalId);
+			if (entry != null && entry.isExpired(maxAge)) {
+				entries.remove(externalId);
+				evictions.increment();
+				entry = null;
+			}
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			return entry.user();
+		}
+	}
+
+	/**
+	 * Caches a snapshot of a user, replacing any older snapshot. Users without an external id are
+	 * not cached, as they can never log in.
+	 *
+	 * @param user the user to cache
+	 * @return the snapshot of the user
+	 */
+	public SimpleUser put(User user) {
+		SimpleUser snapshot = new SimpleUser(
+			user.getId(),
+			user.getExternalId(),
+			user.getName(),
+			user.getEmail(),
+			user.isAdmin()
+		);
+		if (maxEntries > 0 && user.getExternalId() != null && user.getId() != null) {
+			synchronized (entries) {
+				entries.put(user.getExternalId(), new Entry(snapshot, Instant.now()));
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Removes a user from the cache, so it is looked up again the next time it is needed.
+	 *
+	 * @param userId the id of the user to remove
+	 */
+	public void invalidate(UUID userId) {
+		synchronized (entries) {
+			entries.values().removeIf(entry -> entry.user().userId().equals(userId));
+		}
+	}
+
+	/**
+	 * Gets the statistics of the cache, counted since the application started.
+	 *
+	 * @return the statistics of the cache
+	 */
+	public Stats getStats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+	}
+
+	/**
+	 * The statistics of the cache.
+	 *
+	 * @param hits the amount of lookups that found a user
+	 * @param misses the amount of lookups that did not find a user
+	 * @param evictions the amount of users removed because the cache was full or they were too old
+	 * @param size the amount of users in the cache
+	 */
+	public record Stats(long hits, long misses, long evictions, int size) {}
+
+	private record Entry(SimpleUser user, Instant created) {
+		private boolean isExpired(Duration maxAge) {
+			return created.plus(maxAge).isBefore(Instant.now());
+		}
+	}
+}
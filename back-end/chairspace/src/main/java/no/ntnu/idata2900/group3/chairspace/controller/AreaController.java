@@ -8,6 +8,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.assembler.AreaAssembler;
+import no.ntnu.idata2900.group3.chairspace.dto.AreaPurgeProgress;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleArea;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
 import no.ntnu.idata2900.group3.chairspace.exceptions.ElementNotFoundException;
@@ -83,7 +86,7 @@ public class AreaController extends PermissionManager {
 		@Parameter(description = "Id of area to get") @PathVariable UUID id
 	) {
 		this.hasPermissionToGet();
-		Area area = this.areaService.get(id);
+		Area area = this.areaService.getDetail(id);
 
 		if (area == null) {
 			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -131,6 +134,46 @@ public class AreaController extends PermissionManager {
 		return new ResponseEntity<>(simpleAreas, HttpStatus.OK);
 	}
 
+	/**
+	 * Returns all areas, paginated by cursor. Unlike {@link #getAll}, no count query is run, and
+	 * deep pages are as fast as the first.
+	 *
+	 * @param cursor the cursor of the previous page, or null for the first page
+	 * @param size the amount of areas per page
+	 * @return 200 OK with a page of areas sorted by name
+	 * @throws ResponseStatusException 400 bad request if the cursor is malformed
+	 */
+	@GetMapping("/cursor")
+	@Operation(
+		summary = "Returns all areas",
+		description = "Returns all areas sorted by name, paginated by cursor."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "returns the requested page of all areas"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "The cursor is malformed"
+			)
+	})
+	public ResponseEntity<CursorPage<SimpleArea>> getAllByCursor(
+		@Parameter(description = "The cursor of the previous page. First page if not included")
+		@RequestParam(required = false) String cursor,
+		@Parameter(description = "Number of items included on the page")
+		@RequestParam(required = false) Integer size
+	) {
+		this.hasPermissionToGetAll();
+		CursorPage<Area> areas;
+		try {
+			areas = areaService.getAllAfter(Cursor.decode(cursor), size);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is malformed");
+		}
+		return new ResponseEntity<>(areas.map(areaAssembler::toSimpleArea), HttpStatus.OK);
+	}
+
 	/**
 	 * Returns a list of areas that contain reservations, specifically for the homepage.
 	 *
@@ -161,9 +204,8 @@ public class AreaController extends PermissionManager {
 
 		this.hasPermissionToGetAll();
 		Page<Area> areas = areaService.getAllPaged(page);
-		Page<SimpleArea> simpleAreas = areas.map(
-			area -> areaAssembler.toSimpleAreaWithReservations(area, start, end)
-		);
+		Page<SimpleArea> simpleAreas =
+			areaAssembler.toSimpleAreasWithReservations(areas, start, end);
 		return new ResponseEntity<>(simpleAreas, HttpStatus.OK);
 	}
 
@@ -274,7 +316,8 @@ public class AreaController extends PermissionManager {
 	@DeleteMapping("/{id}")
 	@Operation(
 		summary = "Deletes an area",
-		description = "Deletes a area based on the provided id"
+		description = "Deletes a area based on the provided id, together with its sub areas and"
+			+ " all of their reservations, series and plans"
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
@@ -289,16 +332,90 @@ public class AreaController extends PermissionManager {
 			responseCode = "403",
 			description = "User has insufficient permissions to delete entities"
 			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "No area with the given id was found"
+			),
 	})
 	public ResponseEntity<String> delete(
 		@Parameter(description = "Id of the area to delete")
 		@PathVariable UUID id
 	) {
 		this.hasPermissionToDelete();
-		areaService.delete(id);
+		if (!areaService.delete(id)) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 
+	/**
+	 * Starts deleting an area and everything below it in the background. Meant for large
+	 * subtrees, such as whole buildings, that would take too long to delete in a single request.
+	 *
+	 * @param id the id of the area to delete
+	 * @return 202 ACCEPTED with the progress of the purge
+	 */
+	@PostMapping("/{id}/purge")
+	@Operation(
+		summary = "Deletes an area and all of its sub areas in the background",
+		description = "Deletes the area, its sub areas at any depth, and all of their"
+			+ " reservations, series and plans. Returns the progress of the purge, which can be"
+			+ " followed at /area/purge/{purgeId}"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "202",
+			description = "The purge was started"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "No area with the given id was found"
+			)
+	})
+	public ResponseEntity<AreaPurgeProgress> purge(
+		@Parameter(description = "Id of the area to delete")
+		@PathVariable UUID id
+	) {
+		this.hasPermissionToDelete();
+		AreaPurgeProgress progress = areaService.startDelete(id);
+		if (progress == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(progress, HttpStatus.ACCEPTED);
+	}
+
+	/**
+	 * Gets the progress of a background purge.
+	 *
+	 * @param purgeId the id of the purge
+	 * @return 200 OK with the progress of the purge
+	 */
+	@GetMapping("/purge/{purgeId}")
+	@Operation(
+		summary = "Gets the progress of a background purge"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Found the purge"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "No purge with the given id was found, or it finished long ago"
+			)
+	})
+	public ResponseEntity<AreaPurgeProgress> getPurgeProgress(
+		@Parameter(description = "Id of the purge")
+		@PathVariable UUID purgeId
+	) {
+		this.hasPermissionToGet();
+		AreaPurgeProgress progress = areaService.getDeleteProgress(purgeId);
+		if (progress == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(progress, HttpStatus.OK);
+	}
+
 	/**
 	 * Gets all areas that have this user as an admin.
 	 *
@@ -333,6 +450,47 @@ public class AreaController extends PermissionManager {
 		);
 	}
 
+	/**
+	 * Gets all areas that have this user as an admin, paginated by cursor.
+	 *
+	 * @param userId the id of user to find areas for
+	 * @param cursor the cursor of the previous page, or null for the first page
+	 * @param size number of entries per page
+	 * @return a page of areas that have this user as an admin, sorted by name
+	 * @throws ResponseStatusException 400 bad request if the cursor is malformed
+	 */
+	@GetMapping("/user/{userId}/cursor")
+	@Operation(
+		summary = "Gets all areas administered by a single user, paginated by cursor"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "A list of areas found by admin"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "The cursor is malformed"
+			)
+	})
+	public ResponseEntity<CursorPage<SimpleArea>> findAreasByAdminByCursor(
+		@Parameter(description = "Id of user to get areas for")
+		@PathVariable UUID userId,
+		@Parameter(description = "The cursor of the previous page. First page if not included")
+		@RequestParam(required = false) String cursor,
+		@Parameter(description = "Number of items included on the page")
+		@RequestParam(required = false) Integer size
+	) {
+		this.hasPermissionToGetAll();
+		CursorPage<Area> areas;
+		try {
+			areas = areaService.getAreasByUserAfter(userId, Cursor.decode(cursor), size);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is malformed");
+		}
+		return new ResponseEntity<>(areas.map(areaAssembler::toSimpleArea), HttpStatus.OK);
+	}
+
 	/**
 	 * Fetches up to 20 superareas that loosely match the input search term.
 	 *
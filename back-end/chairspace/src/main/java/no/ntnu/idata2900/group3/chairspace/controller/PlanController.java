@@ -7,6 +7,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import java.util.List;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.assembler.PlanAssembler;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.dto.SimplePlan;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
 import no.ntnu.idata2900.group3.chairspace.entity.Plan;
@@ -188,4 +190,35 @@ public class PlanController extends PermissionManager {
 
 		return new ResponseEntity<>(plans, HttpStatus.OK);
 	}
+
+	/**
+	 * Gets all plans that belong to areas that belong to the given user, paginated by cursor.
+	 *
+	 * @param userId the user to get plans for
+	 * @param cursor the cursor of the previous page, or null for the first page
+	 * @param size the amount of plans per page
+	 * @return a page of plans that belong to areas that the given user administrates, sorted by
+	 *     start date
+	 * @throws ResponseStatusException 400 bad request if the cursor is malformed
+	 */
+	@GetMapping("/user/{userId}/cursor")
+	public ResponseEntity<CursorPage<SimplePlan>> getPlansForUserByCursor(
+		@PathVariable UUID userId,
+		@RequestParam(required = false) String cursor,
+		@RequestParam(required = false) Integer size
+	) {
+		List<UUID> areaIds = areaService.getAreasByUserAsList(userId)
+			.stream()
+			.map(Area::getId)
+			.toList();
+
+		CursorPage<Plan> plans;
+		try {
+			plans = planService.getPlansByAreasAfter(areaIds, Cursor.decode(cursor), size);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is malformed");
+		}
+
+		return new ResponseEntity<>(plans.map(planAssembler::toSimple), HttpStatus.OK);
+	}
 }
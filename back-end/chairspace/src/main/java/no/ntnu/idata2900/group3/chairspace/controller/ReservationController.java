@@ -1,20 +1,30 @@
 package no.ntnu.idata2900.group3.chairspace.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import no.ntnu.idata2900.group3.chairspace.assembler.ReservationAssembler;
+import no.ntnu.idata2900.group3.chairspace.dto.BatchReservationResult;
+import no.ntnu.idata2900.group3.chairspace.dto.BatchReservationResult.Status;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.dto.MakeReservationDto;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleHold;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservationList;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
@@ -22,11 +32,14 @@ import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
 import no.ntnu.idata2900.group3.chairspace.entity.User;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
 import no.ntnu.idata2900.group3.chairspace.exceptions.NotReservableException;
+import no.ntnu.idata2900.group3.chairspace.index.SlotHold;
 import no.ntnu.idata2900.group3.chairspace.service.AreaService;
 import no.ntnu.idata2900.group3.chairspace.service.ReservationService;
 import no.ntnu.idata2900.group3.chairspace.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -38,6 +51,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -54,6 +68,10 @@ public class ReservationController extends PermissionManager {
 	private final UserService userService;
 	private final AreaService areaService;
 	private final ReservationAssembler reservationAssembler;
+	private final int batchMaxSize;
+	private final Duration userWindow;
+	private final Duration userMaxWindow;
+	private final ObjectMapper objectMapper;
 
 	/**
 	 * Creates a new reservation controller.
@@ -62,17 +80,29 @@ public class ReservationController extends PermissionManager {
 	 * @param areaService autowired area service
 	 * @param userService autowired user service
 	 * @param reservationAssembler autowired reservation assembler
+	 * @param batchMaxSize the maximum amount of reservations in a single batch request
+	 * @param userWindow the default window when a user gets the reservations of their areas
+	 * @param userMaxWindow the longest window when a user gets the reservations of their areas
+	 * @param objectMapper autowired object mapper
 	 */
 	public ReservationController(
 		ReservationService reservationService,
 		UserService userService,
 		AreaService areaService,
-		ReservationAssembler reservationAssembler
+		ReservationAssembler reservationAssembler,
+		@Value("${reservation.batch.max-size:500}") int batchMaxSize,
+		@Value("${reservation.user.window:P30D}") Duration userWindow,
+		@Value("${reservation.user.max-window:P366D}") Duration userMaxWindow,
+		ObjectMapper objectMapper
 	) {
 		this.reservationService = reservationService;
 		this.areaService = areaService;
 		this.userService = userService;
 		this.reservationAssembler = reservationAssembler;
+		this.batchMaxSize = batchMaxSize;
+		this.userWindow = userWindow;
+		this.userMaxWindow = userMaxWindow;
+		this.objectMapper = objectMapper;
 	}
 
 	/**
@@ -161,6 +191,51 @@ public class ReservationController extends PermissionManager {
 		return new ResponseEntity<>(simpleReservations, HttpStatus.OK);
 	}
 
+	/**
+	 * Returns all reservations, paginated by cursor. Unlike {@link #getAll}, no count query is
+	 * run, and deep pages are as fast as the first.
+	 *
+	 * @param cursor the cursor of the previous page, or null for the first page
+	 * @param size the amount of reservations per page
+	 * @return 200 OK with a page of reservations sorted by start time
+	 * @throws ResponseStatusException 400 bad request if the cursor is malformed
+	 */
+	@GetMapping("/cursor")
+	@Operation(
+		summary = "Returns all reservations",
+		description = "Returns all reservations sorted by start time, paginated by cursor"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Found all reservations"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "The cursor is malformed"
+			)
+	})
+	public ResponseEntity<CursorPage<SimpleReservation>> getAllByCursor(
+		@Parameter(description = "The cursor of the previous page. First page if not included")
+		@RequestParam(required = false) String cursor,
+		@Parameter(description = "Number of items included on the page")
+		@RequestParam(required = false) Integer size
+	) {
+		this.hasPermissionToGetAll();
+
+		CursorPage<Reservation> reservations;
+		try {
+			reservations = this.reservationService.getAllAfter(Cursor.decode(cursor), size);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is malformed");
+		}
+
+		return new ResponseEntity<>(
+			reservations.map(reservationAssembler::toSimple),
+			HttpStatus.OK
+		);
+	}
+
 	/**
 	 * Gets reservations belonging to an area between two timestamps.
 	 *
@@ -197,13 +272,10 @@ public class ReservationController extends PermissionManager {
 		@RequestParam LocalDateTime end
 	) {
 		this.hasPermissionToGet();
-		List<Reservation> reservations =
-			this.reservationService.getReservationsForAreaBetween(id, start, end);
+		List<SimpleReservation> reservations = this.reservationService
+			.getSimpleReservationsForAreaBetween(id, start, end, userService.getSessionUserId());
 
-		return new ResponseEntity<>(
-			reservations.stream().map(reservationAssembler::toSimple).toList(),
-			HttpStatus.OK
-		);
+		return new ResponseEntity<>(reservations, HttpStatus.OK);
 	}
 
 	/**
@@ -391,6 +463,275 @@ public class ReservationController extends PermissionManager {
 		return new ResponseEntity<>(id, HttpStatus.NO_CONTENT);
 	}
 
+	/**
+	 * Creates many reservations for the currently logged in user at once.
+	 *
+	 * <p>
+	 * Every reservation gets its own result, in the same order as the request. If all or nothing
+	 * is requested, no reservation is created unless every reservation can be.
+	 *
+	 * @param reservationMakeRequests DTO objects containing data to make the reservations
+	 * @param allOrNothing true if no reservation should be created unless all can be
+	 * @return 201 CREATED if every reservation was created, 409 CONFLICT if all or nothing was
+	 *     requested and any reservation could not be created, otherwise 200 OK. Always with the
+	 *     result of every reservation
+	 * @throws ResponseStatusException 400 bad request if there are no reservations or too many
+	 */
+	@PostMapping("/batch")
+	@Operation(
+		summary = "Creates many reservations for the current user",
+		description = "Creates many reservations for the current user, and returns the result of"
+			+ " each reservation in the same order as the request"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "201",
+			description = "All reservations were created"
+			),
+		@ApiResponse(
+			responseCode = "200",
+			description = "Some reservations were created"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "There are no reservations, or too many"
+			),
+		@ApiResponse(
+			responseCode = "409",
+			description = "All or nothing was requested, and some reservations could not be made"
+			)
+	})
+	public ResponseEntity<List<BatchReservationResult>> bookRoomsForMe(
+		@Parameter(description = "The reservations to make")
+		@RequestBody List<MakeReservationDto> reservationMakeRequests,
+		@Parameter(description = "If no reservation should be made unless all can be")
+		@RequestParam(name = "all-or-nothing", defaultValue = "false") boolean allOrNothing
+	) {
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		if (reservationMakeRequests == null || reservationMakeRequests.isEmpty()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No reservations");
+		}
+		if (reservationMakeRequests.size() > batchMaxSize) {
+			throw new ResponseStatusException(
+				HttpStatus.BAD_REQUEST,
+				"At most " + batchMaxSize + " reservations can be made at once"
+			);
+		}
+
+		List<UUID> areaIds = reservationMakeRequests.stream()
+			.map(MakeReservationDto::roomId)
+			.filter(Objects::nonNull)
+			.distinct()
+			.toList();
+		Map<UUID, Area> areas = areaService.getAllInOrder(areaIds).stream()
+			.collect(Collectors.toMap(Area::getId, Function.identity()));
+
+		List<Reservation> reservations = new ArrayList<>();
+		for (MakeReservationDto request : reservationMakeRequests) {
+			Reservation reservation = null;
+			Area area = request.roomId() == null ? null : areas.get(request.roomId());
+			if (area != null) {
+				try {
+					reservation = new Reservation(
+						area,
+						user,
+						request.startTime(),
+						request.endTime(),
+						request.comment()
+					);
+				} catch (InvalidArgumentCheckedException | NotReservableException
+					| IllegalArgumentException e) {
+					// Reported as invalid in the result of the reservation
+				}
+			}
+			reservations.add(reservation);
+		}
+
+		List<BatchReservationResult> results =
+			reservationService.createAll(reservations, allOrNothing);
+
+		HttpStatus status = HttpStatus.OK;
+		if (results.stream().allMatch(result -> result.status() == Status.CREATED)) {
+			status = HttpStatus.CREATED;
+		} else if (allOrNothing) {
+			status = HttpStatus.CONFLICT;
+		}
+		return new ResponseEntity<>(results, status);
+	}
+
+	/**
+	 * Holds an area for the currently logged in user for a short while, so the user can finish
+	 * a reservation without another user taking the time.
+	 *
+	 * @param reservationMakeRequest DTO object containing the area and time to hold
+	 * @return 201 CREATED with the hold
+	 */
+	@PostMapping("/hold")
+	@Operation(
+		summary = "Holds an area for the current user",
+		description = "Keeps other users from reserving the time until the hold is confirmed,"
+			+ " released or expires. Holds are not saved, and expire after a few minutes"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "201",
+			description = "The time was held"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "If the hold contains invalid data"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If the area does not exist"
+			),
+		@ApiResponse(
+			responseCode = "409",
+			description = "If the time is taken, or the user holds too many areas"
+			)
+	})
+	public ResponseEntity<SimpleHold> hold(
+		@Parameter(description = "The area and time to hold")
+		@RequestBody MakeReservationDto reservationMakeRequest
+	) {
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		Area area = reservationMakeRequest.roomId() == null
+			? null
+			: areaService.get(reservationMakeRequest.roomId());
+		if (area == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		Reservation reservation;
+		try {
+			reservation = new Reservation(
+				area,
+				user,
+				reservationMakeRequest.startTime(),
+				reservationMakeRequest.endTime(),
+				""
+			);
+		} catch (InvalidArgumentCheckedException | NotReservableException
+			| IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		SlotHold hold = reservationService.hold(reservation);
+		if (hold == null) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT);
+		}
+		return new ResponseEntity<>(SimpleHold.fromHold(hold), HttpStatus.CREATED);
+	}
+
+	/**
+	 * Turns a hold of the currently logged in user into a reservation.
+	 *
+	 * @param id the id of the hold to confirm
+	 * @param comment the comment of the reservation
+	 * @return 201 CREATED with the id of the reservation
+	 */
+	@PostMapping("/hold/{id}/confirm")
+	@Operation(
+		summary = "Turns a hold into a reservation",
+		description = "Reserves the held time for the current user, and releases the hold"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "201",
+			description = "Reservation was created"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If the hold does not exist, has expired or belongs to another user"
+			),
+		@ApiResponse(
+			responseCode = "409",
+			description = "If the held time was taken"
+			)
+	})
+	public ResponseEntity<UUID> confirmHold(
+		@Parameter(description = "The id of the hold to confirm")
+		@PathVariable UUID id,
+		@Parameter(description = "The comment of the reservation")
+		@RequestParam(defaultValue = "") String comment
+	) {
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		SlotHold hold = reservationService.getHold(id);
+		// Holds of other users are hidden, as if they do not exist
+		if (hold == null || !hold.userId().equals(user.getId())) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		Area area = areaService.get(hold.areaId());
+		if (area == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		UUID reservationId;
+		try {
+			Reservation reservation = new Reservation(
+				area,
+				user,
+				hold.start(),
+				hold.end(),
+				comment
+			);
+			reservationId = reservationService.confirmHold(id, reservation);
+		} catch (InvalidArgumentCheckedException | NotReservableException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		} catch (IllegalArgumentException e) {
+			// The hold expired after it was found
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+		}
+		if (reservationId == null) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT);
+		}
+		return new ResponseEntity<>(reservationId, HttpStatus.CREATED);
+	}
+
+	/**
+	 * Releases a hold of the currently logged in user before it expires.
+	 *
+	 * @param id the id of the hold to release
+	 * @return 204 NO CONTENT
+	 */
+	@DeleteMapping("/hold/{id}")
+	@Operation(
+		summary = "Releases a hold",
+		description = "Makes the held time available to other users again"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "204",
+			description = "The hold was released"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If the hold does not exist, has expired or belongs to another user"
+			)
+	})
+	public ResponseEntity<String> releaseHold(
+		@Parameter(description = "The id of the hold to release")
+		@PathVariable UUID id
+	) {
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		SlotHold hold = reservationService.getHold(id);
+		if (hold == null || !hold.userId().equals(user.getId())
+			|| !reservationService.releaseHold(id)
+		) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+	}
+
 	/**
 	 * Updates an existing reservation.
 	 *
@@ -434,6 +775,80 @@ public class ReservationController extends PermissionManager {
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 
+	/**
+	 * Moves an existing reservation to a new time, for instance to extend it. Unlike a full
+	 * update, only the times are changed, and the reservation does not overlap itself.
+	 *
+	 * @param id the id of the reservation to move
+	 * @param start the new start time
+	 * @param end the new end time
+	 * @return 200 OK with the moved reservation
+	 */
+	@PutMapping("/{id}/time")
+	@Operation(
+		summary = "Moves or extends a reservation",
+		description = "Changes the start and end of a reservation if no other reservation"
+			+ " overlaps the new time"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Successfully moved the reservation"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "If the new time is invalid"
+			),
+		@ApiResponse(
+			responseCode = "401",
+			description = "If the user is not logged in"
+			),
+		@ApiResponse(
+			responseCode = "403",
+			description = "If the reservation belongs to another user and the user is not an"
+				+ " admin"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If the reservation does not exist"
+			),
+		@ApiResponse(
+			responseCode = "409",
+			description = "If the new time overlaps another reservation"
+			)
+	})
+	public ResponseEntity<SimpleReservation> move(
+		@Parameter(description = "The id of the reservation to move")
+		@PathVariable UUID id,
+		@Parameter(description = "The new start time")
+		@RequestParam LocalDateTime start,
+		@Parameter(description = "The new end time")
+		@RequestParam LocalDateTime end
+	) {
+		this.hasPermissionToPut();
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		Reservation existing = reservationService.get(id);
+		if (existing == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		if (!user.isAdmin() && !existing.getUser().getId().equals(user.getId())) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+		}
+		Reservation reservation;
+		try {
+			reservation = reservationService.move(existing, start, end);
+		} catch (InvalidArgumentCheckedException | IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		if (reservation == null) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT);
+		}
+		return new ResponseEntity<>(reservationAssembler.toSimple(reservation), HttpStatus.OK);
+	}
+
 	/**
 	 * Attempts to delete the reservation with the given ID.
 	 *
@@ -494,84 +909,92 @@ public class ReservationController extends PermissionManager {
 		@PathVariable UUID userId
 	) {
 		this.hasPermissionToGet();
-		List<Reservation> reservations = reservationService.getReservationsByUser(userId);
-		List<SimpleReservation> simpleReservations = reservations.stream()
-			.map(reservationAssembler::toSimple)
-			.toList();
+		List<SimpleReservation> simpleReservations = reservationService
+			.getSimpleReservationsByUser(userId, userService.getSessionUserId());
 		return new ResponseEntity<>(simpleReservations, HttpStatus.OK);
 	}
 
 	/**
-	 * Gets a map of all areas in which the current user has a booking, mapped to all bookings for
-	 *     those areas, from the start of the first booking to the end of the last booking made
-	 *     by the user.
+	 * Gets a map of all areas in which the current user has a booking within a time window, mapped
+	 *     to all bookings for those areas within the same window. The window defaults to the
+	 *     upcoming bookings, from now and a configured time ahead.
 	 *
-	 * @return a map of all areas the user has booked connected to simple reservation lists
-	 *     for the scope of the user's reservations.
+	 * <p>
+	 * The map is streamed, one area at a time as its bookings are read from the database.
+	 *
+	 * @param start the start of the window, defaults to now
+	 * @param end the end of the window, defaults to the configured window after the start
+	 * @return a map of all areas the user has booked within the window connected to simple
+	 *     reservation lists for the window
 	 */
 	@GetMapping("/user/me")
 	@Operation(
 		summary = "Gets a map of all the areas where the current user has made a reservation",
-		description = "Gets a map of all areas in which the current user has a booking,"
-			+ "mapped to all bookings for those areas, "
-			+ "from the start of the first booking to the end of the last booking made by the user."
+		description = "Gets a map of all areas in which the current user has a booking within "
+			+ "the given window, mapped to all bookings for those areas within the window. "
+			+ "The window defaults to the upcoming bookings."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
 			responseCode = "200",
 			description = "Found the areas where the current user has made a reservation"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "If the window ends before it starts, or is too long"
+			),
+		@ApiResponse(
+			responseCode = "401",
+			description = "If no user is logged in"
 			)
 	})
-	public ResponseEntity<Map<UUID, SimpleReservationList>> getMyReservationData() {
+	public ResponseEntity<StreamingResponseBody> getMyReservationData(
+		@Parameter(description = "The start of the window, defaults to now")
+		@RequestParam(required = false) LocalDateTime start,
+		@Parameter(description = "The end of the window, defaults to a set time after the start")
+		@RequestParam(required = false) LocalDateTime end
+	) {
 		this.hasPermissionToGet();
-		User sessionUser = userService.getSessionUser();
-		if (sessionUser == null) {
+		// The session user is resolved here, as the body is written outside of the request
+		UUID sessionUserId = userService.getSessionUserId();
+		if (sessionUserId == null) {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
 		}
 
-		List<Reservation> myReservations = reservationService
-			.getReservationsByUser(sessionUser.getId());
-
-		if (myReservations.isEmpty()) {
-			return new ResponseEntity<>(
-				new HashMap<>(),
-				HttpStatus.OK
+		LocalDateTime scopeStart = start == null ? LocalDateTime.now() : start;
+		LocalDateTime scopeEnd = end == null ? scopeStart.plus(userWindow) : end;
+		if (!scopeStart.isBefore(scopeEnd)) {
+			throw new ResponseStatusException(
+				HttpStatus.BAD_REQUEST,
+				"Window ends before it starts"
 			);
 		}
-
-		LocalDateTime scopeStart = myReservations.stream()
-			.map(Reservation::getStart)
-			.min(Comparator.naturalOrder())
-			.orElseThrow();
-
-		LocalDateTime scopeEnd = myReservations.stream()
-			.map(Reservation::getEnd)
-			.max(Comparator.naturalOrder())
-			.orElseThrow();
-
-		Set<UUID> areaIds = myReservations.stream()
-			.map(Reservation::getArea)
-			.map(Area::getId)
-			.collect(Collectors.toSet());
-
-		Map<UUID, SimpleReservationList> allReservationsMap = new HashMap<>();
-
-		for (UUID areaId : areaIds) {
-			List<SimpleReservation> areaReservations = reservationService
-				.getReservationsForAreaBetween(areaId, scopeStart, scopeEnd)
-				.stream()
-				.map(reservationAssembler::toSimple)
-				.toList();
-
-			SimpleReservationList simpleReservationList = new SimpleReservationList(
-				scopeStart,
-				scopeEnd,
-				areaReservations
-			);
-
-			allReservationsMap.put(areaId, simpleReservationList);
+		if (scopeStart.plus(userMaxWindow).isBefore(scopeEnd)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window is too long");
 		}
 
-		return new ResponseEntity<>(allReservationsMap, HttpStatus.OK);
+		StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+				generator.writeStartObject();
+				reservationService.forEachAreaReservedByUser(
+					sessionUserId,
+					scopeStart,
+					scopeEnd,
+					(areaId, reservations) -> {
+						try {
+							generator.writeFieldName(areaId.toString());
+							generator.writeObject(
+								new SimpleReservationList(scopeStart, scopeEnd, reservations)
+							);
+							generator.flush();
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}
+				);
+				generator.writeEndObject();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
 	}
 }
@@ -0,0 +1,225 @@
+package no.ntnu.idata2900.group3.chairspace.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.dto.MakeReservationSeriesDto;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.Recurrence;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.entity.User;
+import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import no.ntnu.idata2900.group3.chairspace.exceptions.NotReservableException;
+import no.ntnu.idata2900.group3.chairspace.service.AreaService;
+import no.ntnu.idata2900.group3.chairspace.service.ReservationSeriesService;
+import no.ntnu.idata2900.group3.chairspace.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Controller for the reservation series entity.
+ *
+ * @see ReservationSeries
+ */
+@RestController
+@RequestMapping("/reservation/series")
+public class ReservationSeriesController extends PermissionManager {
+	private final ReservationSeriesService seriesService;
+	private final UserService userService;
+	private final AreaService areaService;
+
+	/**
+	 * Creates a new reservation series controller.
+	 *
+	 * @param seriesService autowired reservation series service
+	 * @param userService autowired user service
+	 * @param areaService autowired area service
+	 */
+	public ReservationSeriesController(
+		ReservationSeriesService seriesService,
+		UserService userService,
+		AreaService areaService
+	) {
+		this.seriesService = seriesService;
+		this.userService = userService;
+		this.areaService = areaService;
+	}
+
+	/**
+	 * Gets a single reservation series by ID.
+	 *
+	 * @param id the id of the series to get
+	 * @return 200 OK with the found series, 404 if not found
+	 */
+	@GetMapping("/{id}")
+	@Operation(
+		summary = "Gets a single reservation series based on id",
+		description = "Gets a reservation series based on the provided id"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Found a series with the given id"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If a series cannot be found with the given id"
+			)
+	})
+	public ResponseEntity<SimpleReservationSeries> get(
+		@Parameter(description = "The id of the series to get")
+		@PathVariable UUID id
+	) {
+		this.hasPermissionToGet();
+		ReservationSeries series = seriesService.get(id);
+		if (series == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(SimpleReservationSeries.fromSeries(series), HttpStatus.OK);
+	}
+
+	/**
+	 * Gets all reservation series of the currently logged in user.
+	 *
+	 * @return 200 OK with the series of the user
+	 */
+	@GetMapping("/user/me")
+	@Operation(
+		summary = "Gets all reservation series of the current user"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Found the series of the current user"
+			),
+		@ApiResponse(
+			responseCode = "401",
+			description = "There is no logged in user"
+			)
+	})
+	public ResponseEntity<List<SimpleReservationSeries>> getMySeries() {
+		this.hasPermissionToGet();
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		List<SimpleReservationSeries> series = seriesService.getSeriesByUser(user.getId())
+			.stream()
+			.map(SimpleReservationSeries::fromSeries)
+			.toList();
+		return new ResponseEntity<>(series, HttpStatus.OK);
+	}
+
+	/**
+	 * Creates a new reservation series for the currently logged in user.
+	 *
+	 * @param request DTO object containing data to make a series
+	 * @return 201 CREATED with the id of the series
+	 */
+	@PostMapping("")
+	@Operation(
+		summary = "Creates a new reservation series for the current user",
+		description = "Reserves an area on the given weekdays between two dates. Fails if any"
+			+ " occurrence overlaps another reservation"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "201",
+			description = "Series was created"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "If the series contains invalid data"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "If the area does not exist"
+			),
+		@ApiResponse(
+			responseCode = "409",
+			description = "If any occurrence overlaps another reservation"
+			)
+	})
+	public ResponseEntity<UUID> post(
+		@Parameter(description = "The series to create")
+		@RequestBody MakeReservationSeriesDto request
+	) {
+		this.hasPermissionToPost();
+		User user = userService.getSessionUser();
+		if (user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		Area area = request.roomId() == null ? null : areaService.get(request.roomId());
+		if (area == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		ReservationSeries series;
+		try {
+			Recurrence recurrence = new Recurrence(
+				request.firstDate(),
+				request.lastDate(),
+				request.startTime(),
+				request.endTime(),
+				request.weekdays()
+			);
+			series = new ReservationSeries(
+				area,
+				user,
+				recurrence,
+				request.comment() == null ? "" : request.comment()
+			);
+		} catch (InvalidArgumentCheckedException | NotReservableException
+			| IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		UUID id = seriesService.create(series);
+		if (id == null) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT);
+		}
+		return new ResponseEntity<>(id, HttpStatus.CREATED);
+	}
+
+	/**
+	 * Deletes a reservation series, and with it every occurrence.
+	 *
+	 * @param id the id of the series to delete
+	 * @return 204 NO CONTENT
+	 */
+	@DeleteMapping("/{id}")
+	@Operation(
+		summary = "Deletes a reservation series",
+		description = "Deletes a reservation series and all of its occurrences"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "204",
+			description = "Successfully deleted the series"
+			),
+		@ApiResponse(
+			responseCode = "404",
+			description = "Failed to delete the series as it doesn't exist"
+			)
+	})
+	public ResponseEntity<String> delete(
+		@Parameter(description = "The id of the series to delete")
+		@PathVariable UUID id
+	) {
+		this.hasPermissionToDelete();
+		if (!seriesService.delete(id)) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+	}
+}
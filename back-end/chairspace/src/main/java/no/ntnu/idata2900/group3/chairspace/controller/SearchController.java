@@ -9,10 +9,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.assembler.AreaAssembler;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleArea;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
 import no.ntnu.idata2900.group3.chairspace.service.SearchService;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 
 
@@ -49,16 +52,22 @@ public class SearchController {
 	 * The parameters page and itemsPerPage are required for pagination.
 	 * The other parameters are optional and can be used to filter the search results.
 	 *
+	 * <p>
+	 * The search stops once the page is filled, so the total amount of results is not known. The
+	 * response is a slice, which only tells if it is the last page.
+	 *
 	 * @param page the page number to retrieve (required)
 	 * @param itemsPerPage the number of items per page (required)
 	 * @param capacity the capacity of the area (optional)
 	 * @param superAreaId the ID of the super area (optional)
 	 * @param areaTypeId the ID of the area type (optional)
 	 * @param areaFeatureIds the list of area feature IDs (optional)
-	 * @param startDateTime the start date and time for the search (optional)
-	 * @param endDateTime the end date and time for the search (optional)
+	 * @param startDateTime the start date and time for the search (optional), rounded up to a
+	 *     whole minute
+	 * @param endDateTime the end date and time for the search (optional), rounded down to a whole
+	 *     minute
 	 * @param duration the duration for the search (optional)
-	 * @return a ResponseEntity containing a PaginationDto with the search results
+	 * @return a ResponseEntity containing a slice of the search results
 	 */
 	@GetMapping("")
 	@Operation(
@@ -71,7 +80,7 @@ public class SearchController {
 			description = "Search was preformed "
 			)
 	})
-	public ResponseEntity<Page<SimpleArea>> doSearch(
+	public ResponseEntity<Slice<SimpleArea>> doSearch(
 		@Parameter(description = "the page number to retrieve (required)")
 		@RequestParam() int page,
 		@Parameter(description = "the number of items per page (required)")
@@ -91,7 +100,7 @@ public class SearchController {
 		@Parameter(description = "the duration for the search (optional)")
 		@RequestParam() Duration duration
 	) {
-		Page<Area> areas = searchService.doSearch(
+		Slice<Area> areas = searchService.doSearch(
 				page,
 				capacity,
 				superAreaId,
@@ -102,9 +111,90 @@ public class SearchController {
 				duration
 		);
 
-		Page<SimpleArea> simpleAreas = areas.map(area ->
-			areaAssembler.toSimpleAreaWithReservations(area, startDateTime, endDateTime)
+		Slice<SimpleArea> simpleAreas = areaAssembler.toSimpleAreasWithReservations(
+			areas,
+			startDateTime,
+			endDateTime
 		);
 		return new ResponseEntity<>(simpleAreas, HttpStatus.OK);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Handles GET requests to search for areas, paginated by cursor. Works like
+	 * {@link #doSearch}, but each page continues the search where the previous page stopped.
+	 *
+	 * @param cursor the cursor of the previous page, or null for the first page
+	 * @param itemsPerPage the number of items per page (optional)
+	 * @param capacity the capacity of the area (optional)
+	 * @param superAreaId the ID of the super area (optional)
+	 * @param areaTypeId the ID of the area type (optional)
+	 * @param areaFeatureIds the list of area feature IDs (optional)
+	 * @param startDateTime the start date and time for the search
+	 * @param endDateTime the end date and time for the search
+	 * @param duration the duration for the search
+	 * @return a ResponseEntity containing a page of the search results
+	 * @throws ResponseStatusException 400 bad request if the cursor is malformed
+	 */
+	@GetMapping("/cursor")
+	@Operation(
+		summary = "Does a search, and returns the matching areas paginated by cursor",
+		description = "Searches based on several parameters."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Search was preformed"
+			),
+		@ApiResponse(
+			responseCode = "400",
+			description = "The cursor is malformed"
+			)
+	})
+	public ResponseEntity<CursorPage<SimpleArea>> doSearchByCursor(
+		@Parameter(description = "the cursor of the previous page (optional)")
+		@RequestParam(required = false) String cursor,
+		@Parameter(description = "the number of items per page (optional)")
+		@RequestParam(name = "items-per-page", required = false) Integer itemsPerPage,
+		@Parameter(description = "the capacity of the area (optional)")
+		@RequestParam(required = false) Integer capacity,
+		@Parameter(description = "the ID of the super area (optional)")
+		@RequestParam(name = "super-area", required = false) UUID superAreaId,
+		@Parameter(description = "the ID of the area type (optional)")
+		@RequestParam(name = "area-type", required = false) String areaTypeId,
+		@Parameter(description = "the list of area feature IDs (optional)")
+		@RequestParam(name = "features", required = false) List<String> areaFeatureIds,
+		@Parameter(description = "the start date and time for the search")
+		@RequestParam(name = "start-time") LocalDateTime startDateTime,
+		@Parameter(description = "the end date and time for the search")
+		@RequestParam(name = "end-time") LocalDateTime endDateTime,
+		@Parameter(description = "the duration for the search")
+		@RequestParam() Duration duration
+	) {
+		CursorPage<Area> areas;
+		try {
+			areas = searchService.doSearchAfter(
+				Cursor.decode(cursor),
+				itemsPerPage,
+				capacity,
+				superAreaId,
+				areaTypeId,
+				areaFeatureIds,
+				startDateTime,
+				endDateTime,
+				duration
+			);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is malformed");
+		}
+
+		List<SimpleArea> simpleAreas = areaAssembler.toSimpleAreasWithReservations(
+			areas.content(),
+			startDateTime,
+			endDateTime
+		);
+		return new ResponseEntity<>(
+			new CursorPage<>(simpleAreas, areas.size(), areas.nextCursor()),
+			HttpStatus.OK
+		);
+	}
+}
@@ -8,7 +8,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import no.ntnu.idata2900.group3.chairspace.assembler.AreaAssembler;
-import no.ntnu.idata2900.group3.chairspace.assembler.UserAssembler;
+import no.ntnu.idata2900.group3.chairspace.cache.UserCache;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleArea;
 import no.ntnu.idata2900.group3.chairspace.dto.SimpleUser;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
@@ -42,7 +42,6 @@ import org.springframework.web.server.ResponseStatusException;
 public class UserController extends AbstractController<User, UUID> {
 	private final UserService userService;
 	private final AreaService areaService;
-	private final UserAssembler userAssembler;
 	private final AreaAssembler areaAssembler;
 
 	/**
@@ -50,19 +49,16 @@ public class UserController extends AbstractController<User, UUID> {
 	 *
 	 * @param userService autowired user service.
 	 * @param areaService autowired area service.
-	 * @param userAssembler autowired user assembler
 	 * @param areaAssembler autowired area assembler.
 	 */
 	public UserController(
 		UserService userService,
 		AreaService areaService,
-		UserAssembler userAssembler,
 		AreaAssembler areaAssembler
 	) {
 		super(userService);
 		this.userService = userService;
 		this.areaService = areaService;
-		this.userAssembler = userAssembler;
 		this.areaAssembler = areaAssembler;
 	}
 
@@ -101,7 +97,7 @@ public class UserController extends AbstractController<User, UUID> {
 		@RequestParam boolean adminState
 	) {
 		hasPermissionToPut();
-		User currentUser = userService.getSessionUser();
+		SimpleUser currentUser = userService.getSessionUserSnapshot();
 		if (currentUser == null) {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User is not logged in");
 		}
@@ -311,13 +307,48 @@ public class UserController extends AbstractController<User, UUID> {
 			)
 	})
 	public ResponseEntity<SimpleUser> whoAmI() {
-		User sessionUser = userService.getSessionUser();
+		SimpleUser sessionUser = userService.getSessionUserSnapshot();
 		if (sessionUser == null) {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
 		}
-		return new ResponseEntity<>(
-			userAssembler.toSimple(sessionUser),
-			HttpStatus.OK
-		);
+		return new ResponseEntity<>(sessionUser, HttpStatus.OK);
+	}
+
+	/**
+	 * Gets the hit, miss and eviction statistics of the user cache.
+	 * Can only be performed by an admin user.
+	 *
+	 * @return 200 OK with the statistics of the user cache
+	 * @throws ResponseStatusException 401 if the user is not logged in, 403 if not an admin
+	 */
+	@GetMapping("/cache/stats")
+	@Operation(
+		summary = "Returns the statistics of the user cache",
+		description = "Returns the hit, miss and eviction counts of the cache of logged in users."
+			+ " Can only be performed by an admin user"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "Found the statistics of the user cache"
+			),
+		@ApiResponse(
+			responseCode = "401",
+			description = "User not logged in"
+			),
+		@ApiResponse(
+			responseCode = "403",
+			description = "User is not an admin"
+			)
+	})
+	public ResponseEntity<UserCache.Stats> getCacheStats() {
+		SimpleUser sessionUser = userService.getSessionUserSnapshot();
+		if (sessionUser == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+		}
+		if (!sessionUser.isAdmin()) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+		}
+		return new ResponseEntity<>(userService.getCacheStats(), HttpStatus.OK);
 	}
 }
@@ -0,0 +1,68 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The progress of deleting an area and everything below it.
+ *
+ * @param id the id of the purge
+ * @param areaId the id of the area at the top of the deleted subtree
+ * @param state how far the purge has come
+ * @param areaCount the amount of areas in the subtree
+ * @param deletedReservations the amount of reservations deleted so far
+ * @param deletedSeries the amount of reservation series deleted so far
+ * @param deletedPlans the amount of plans deleted so far
+ * @param deletedAreas the amount of areas deleted so far
+ * @param finishedAt the time the purge finished, or null if it has not
+ * @param error the reason the purge failed, or null if it has not
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AreaPurgeProgress(
+	UUID id,
+	UUID areaId,
+	State state,
+	int areaCount,
+	long deletedReservations,
+	long deletedSeries,
+	long deletedPlans,
+	int deletedAreas,
+	Instant finishedAt,
+	String error
+) {
+	/**
+	 * How far a purge has come.
+	 */
+	public enum State {
+		/** The purge waits for earlier purges to finish. */
+		QUEUED,
+		/** The purge is deleting. */
+		RUNNING,
+		/** Every area in the subtree was deleted. */
+		DONE,
+		/** The purge stopped. Everything deleted before it stopped stays deleted. */
+		FAILED
+	}
+
+	/**
+	 * Creates the progress of a purge that has not started.
+	 *
+	 * @param id the id of the purge
+	 * @param areaId the id of the area at the top of the subtree
+	 * @param areaCount the amount of areas in the subtree
+	 * @return the progress of the queued purge
+	 */
+	public static AreaPurgeProgress queued(UUID id, UUID areaId, int areaCount) {
+		return new AreaPurgeProgress(id, areaId, State.QUEUED, areaCount, 0, 0, 0, 0, null, null);
+	}
+
+	/**
+	 * Returns true if the purge has stopped, either because it is done or because it failed.
+	 *
+	 * @return true if the purge has finished
+	 */
+	public boolean isFinished() {
+		return state == State.DONE || state == State.FAILED;
+	}
+}
@@ -0,0 +1,30 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import java.util.UUID;
+
+/**
+ * The result of a single reservation in a batch of reservations.
+ *
+ * @param index the position of the reservation in the batch
+ * @param status what happened to the reservation
+ * @param id the id of the created reservation, or null if it was not created
+ */
+public record BatchReservationResult(
+	int index,
+	Status status,
+	UUID id
+) {
+	/**
+	 * What happened to a reservation in a batch.
+	 */
+	public enum Status {
+		/** The reservation was created. */
+		CREATED,
+		/** The time was taken by another reservation, or is not allowed by a plan. */
+		CONFLICT,
+		/** The reservation is invalid, such as being in the past or in an unknown area. */
+		INVALID,
+		/** The reservation was valid, but another reservation in the batch was not. */
+		NOT_CREATED
+	}
+}
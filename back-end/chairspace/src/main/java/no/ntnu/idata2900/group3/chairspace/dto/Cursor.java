@@ -0,0 +1,57 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A position in a listing sorted by a sort key and then by id, used for keyset pagination.
+ *
+ * <p>
+ * A cursor is handed to clients as an opaque token. The token is only meant to be passed back
+ * as is, and its contents may change at any time.
+ *
+ * @param key the sort key of the last item of a page, as text
+ * @param id the id of the last item of a page
+ * @see CursorPage
+ */
+public record Cursor(
+	String key,
+	UUID id
+) {
+	private static final char SEPARATOR = '\n';
+
+	/**
+	 * Encodes the cursor as an opaque token.
+	 *
+	 * @return the cursor as a token
+	 */
+	public String encode() {
+		String raw = id.toString() + SEPARATOR + key;
+		return Base64.getUrlEncoder()
+			.withoutPadding()
+			.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor from a token created by {@link #encode()}.
+	 *
+	 * @param token the token to decode, may be null
+	 * @return the decoded cursor, or null if the token is null or blank
+	 * @throws IllegalArgumentException if the token is not a valid cursor
+	 */
+	public static Cursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		int separator = raw.indexOf(SEPARATOR);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Cursor is malformed");
+		}
+		return new Cursor(
+			raw.substring(separator + 1),
+			UUID.fromString(raw.substring(0, separator))
+		);
+	}
+}
@@ -0,0 +1,60 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a listing that is paginated by cursor instead of by page number.
+ *
+ * <p>
+ * Unlike a {@link org.springframework.data.domain.Page}, a cursor page does not know the total
+ * amount of items, so no count query is needed. The next page is requested by passing
+ * {@link #nextCursor()} back. Each page is found through an index on the sort key, so deep pages
+ * are as fast as the first.
+ *
+ * @param content the items of the page
+ * @param size the requested amount of items per page
+ * @param nextCursor the cursor of the next page, or null if this is the last page
+ * @see Cursor
+ */
+public record CursorPage<T>(
+	List<T> content,
+	int size,
+	String nextCursor
+) {
+	/**
+	 * Creates a page from the items found after a cursor. The items must be fetched with one more
+	 * than the page size, which tells if there is a next page.
+	 *
+	 * @param items up to {@code size + 1} items, in order
+	 * @param size the amount of items per page
+	 * @param cursorOf gets the cursor pointing at an item
+	 * @return a page of at most {@code size} items
+	 */
+	public static <T> CursorPage<T> of(List<T> items, int size, Function<T, Cursor> cursorOf) {
+		if (items.size() <= size) {
+			return new CursorPage<>(items, size, null);
+		}
+		List<T> content = items.subList(0, size);
+		return new CursorPage<>(content, size, cursorOf.apply(content.get(size - 1)).encode());
+	}
+
+	/**
+	 * Returns true if there is a page after this one.
+	 *
+	 * @return true if there is a next page
+	 */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+
+	/**
+	 * Converts the items of the page, keeping the cursor.
+	 *
+	 * @param mapper the function converting each item
+	 * @return a page of the converted items
+	 */
+	public <R> CursorPage<R> map(Function<T, R> mapper) {
+		return new CursorPage<>(content.stream().map(mapper).toList(), size, nextCursor);
+	}
+}
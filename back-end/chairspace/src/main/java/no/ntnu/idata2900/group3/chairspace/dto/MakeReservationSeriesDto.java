@@ -0,0 +1,20 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A simple DTO containing data used to make reservation series.
+ */
+public record MakeReservationSeriesDto(
+	UUID roomId,
+	LocalDate firstDate,
+	LocalDate lastDate,
+	LocalTime startTime,
+	LocalTime endTime,
+	List<DayOfWeek> weekdays,
+	String comment
+) {}
@@ -2,7 +2,6 @@ package no.ntnu.idata2900.group3.chairspace.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -53,18 +52,25 @@ public record SimpleArea(
 		private List<SimplePlan> simplePlans;
 
 		/**
-		 * Creates a new builder and prefills it with information from the input Area.
+		 * Creates a new builder and prefills it with information from the input Area, using the
+		 * given super areas and administrators instead of walking the super areas of the area.
 		 *
 		 * @param area the area to project
+		 * @param superAreas the super areas of the area, from the top of the hierarchy down
+		 * @param administratorIds the ids of the administrators of the area and its super areas
 		 * @return a builder containing properties from area.
 		 */
-		public static final Builder fromArea(Area area) {
+		public static final Builder fromArea(
+			Area area,
+			List<SimpleArea> superAreas,
+			Set<UUID> administratorIds
+		) {
 			return new Builder()
 				.id(area.getId())
 				.name(area.getName())
 				.description(area.getDescription())
-				.administrators(area.getAdministrators())
-				.addSuperAreaRecursive(area)
+				.administratorIds(administratorIds)
+				.superAreas(superAreas)
 				.areaType(area.getAreaType())
 				.areaFeatures(area.getFeatures())
 				.capacity(area.getCapacity())
@@ -181,31 +187,13 @@ public record SimpleArea(
 		}
 
 		/**
-		 * Adds all super areas of the input (excluding the input) as super areas.
+		 * Sets the super areas of this builder, replacing any super areas already added.
 		 *
-		 * @param baseArea the area whose super areas to recursively add
+		 * @param superAreas the super areas, from the top of the hierarchy down
 		 * @return this builder
 		 */
-		public Builder addSuperAreaRecursive(Area baseArea) {
-			// We add this extra logic to ensure we don't infinitely loop in the case of a
-			// cycle.
-			Set<UUID> visited = new HashSet<>();
-
-			Area area = baseArea.getSuperArea();
-
-			while (area != null) {
-				if (!visited.add(area.getId())) {
-					System.out.println(
-						"Cycle detected in super area hierarchy. Responsible id: "
-						+ area.getId().toString()
-					);
-					// Exit the loop safely
-					break;
-				}
-				this.addSuperArea(area);
-				area = area.getSuperArea();
-			}
-
+		public Builder superAreas(List<SimpleArea> superAreas) {
+			this.superAreas = new ArrayList<>(superAreas);
 			return this;
 		}
 
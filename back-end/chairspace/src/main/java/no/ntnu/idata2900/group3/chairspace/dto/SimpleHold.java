@@ -0,0 +1,30 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.index.SlotHold;
+
+/**
+ * A simple representation of a {@link SlotHold}.
+ */
+public record SimpleHold(
+	UUID id,
+	UUID areaId,
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	LocalDateTime startTime,
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	LocalDateTime endTime,
+	Instant expiresAt
+) {
+	/**
+	 * Creates a simple representation of a hold.
+	 *
+	 * @param hold the hold to represent
+	 * @return the simple representation of the hold
+	 */
+	public static SimpleHold fromHold(SlotHold hold) {
+		return new SimpleHold(hold.id(), hold.areaId(), hold.start(), hold.end(), hold.expiresAt());
+	}
+}
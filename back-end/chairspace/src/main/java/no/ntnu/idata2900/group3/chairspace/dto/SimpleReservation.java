@@ -21,8 +21,37 @@ public record SimpleReservation(
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
 	LocalDateTime endTime,
 	String comment,
-	boolean isMine
+	boolean isMine,
+	UUID seriesId
 ) {
+	/**
+	 * Creates a simple reservation that is not an occurrence of a series. Used by the projection
+	 * queries of the reservation repository.
+	 *
+	 * @param id the id of the reservation
+	 * @param areaId the id of the reserved area
+	 * @param areaName the name of the reserved area
+	 * @param userId the id of the user who made the reservation
+	 * @param userName the name of the user who made the reservation
+	 * @param startTime the start of the reservation
+	 * @param endTime the end of the reservation
+	 * @param comment the comment of the reservation
+	 * @param isMine true if the reservation belongs to the logged in user
+	 */
+	public SimpleReservation(
+		UUID id,
+		UUID areaId,
+		String areaName,
+		UUID userId,
+		String userName,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		String comment,
+		boolean isMine
+	) {
+		this(id, areaId, areaName, userId, userName, startTime, endTime, comment, isMine, null);
+	}
+
 	/**
 	 * A builder for {@link SimpleReservations}.
 	 */
@@ -36,6 +65,7 @@ public record SimpleReservation(
 		private LocalDateTime endTime;
 		private String comment;
 		private Boolean isMine = false;
+		private UUID seriesId;
 
 		/**
 		 * Constructs a new simple reservation from this builder.
@@ -52,7 +82,8 @@ public record SimpleReservation(
 				this.startTime,
 				this.endTime,
 				this.comment,
-				this.isMine
+				this.isMine,
+				this.seriesId
 			);
 		}
 
@@ -63,7 +94,7 @@ public record SimpleReservation(
 		 * @return a builder based on the existing reservation
 		 */
 		public static final Builder fromReservation(Reservation reservation) {
-			return new Builder()
+			Builder builder = new Builder()
 				.id(reservation.getId())
 				.areaId(reservation.getArea().getId())
 				.areaName(reservation.getArea().getName())
@@ -72,6 +103,10 @@ public record SimpleReservation(
 				.startTime(reservation.getStart())
 				.endTime(reservation.getEnd())
 				.comment(reservation.getComment());
+			if (reservation.getSeries() != null) {
+				builder.seriesId(reservation.getSeries().getId());
+			}
+			return builder;
 		}
 
 		/**
@@ -172,5 +207,16 @@ public record SimpleReservation(
 			this.isMine = isMine;
 			return this;
 		}
+
+		/**
+		 * Sets the seriesId of this builder. Only set for the occurrences of series.
+		 *
+		 * @param seriesId the seriesId to set
+		 * @return this builder
+		 */
+		public Builder seriesId(UUID seriesId) {
+			this.seriesId = seriesId;
+			return this;
+		}
 	}
 }
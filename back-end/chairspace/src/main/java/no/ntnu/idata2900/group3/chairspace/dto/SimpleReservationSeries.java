@@ -0,0 +1,49 @@
+package no.ntnu.idata2900.group3.chairspace.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+
+/**
+ * A simple representation of {@link ReservationSeries}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SimpleReservationSeries(
+	UUID id,
+	UUID areaId,
+	String areaName,
+	UUID userId,
+	String userName,
+	LocalDate firstDate,
+	LocalDate lastDate,
+	LocalTime startTime,
+	LocalTime endTime,
+	Set<DayOfWeek> weekdays,
+	String comment
+) {
+	/**
+	 * Creates a simple representation of a series.
+	 *
+	 * @param series the series to represent
+	 * @return the simple representation of the series
+	 */
+	public static SimpleReservationSeries fromSeries(ReservationSeries series) {
+		return new SimpleReservationSeries(
+			series.getId(),
+			series.getArea().getId(),
+			series.getArea().getName(),
+			series.getUser().getId(),
+			series.getUser().getName(),
+			series.getRecurrence().getFirstDate(),
+			series.getRecurrence().getLastDate(),
+			series.getRecurrence().getStartTime(),
+			series.getRecurrence().getEndTime(),
+			series.getRecurrence().getWeekdays(),
+			series.getComment()
+		);
+	}
+}
@@ -1,8 +1,10 @@
 package no.ntnu.idata2900.group3.chairspace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -10,6 +12,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import java.util.HashSet;
 import java.util.Objects;
@@ -17,6 +21,7 @@ import java.util.Set;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.exceptions.AdminCountException;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import org.hibernate.annotations.BatchSize;
 
 /**
  * Represents a reservable area in the database.
@@ -32,7 +37,20 @@ import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedExce
 @Entity
 @Schema(description = "Represents a reservable area in the database")
 @Table(name = "areas")
+// Lists of areas are shown as cards, which are made without the super areas of the area
+@NamedEntityGraph(name = Area.CARD_GRAPH, attributeNodes = @NamedAttributeNode("areaType"))
+@NamedEntityGraph(name = Area.DETAIL_GRAPH, attributeNodes = {
+	@NamedAttributeNode("areaType"),
+	@NamedAttributeNode("administrators"),
+	@NamedAttributeNode("features")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Area implements EntityInterface<UUID> {
+	/** Loads what is shown when areas are listed. */
+	public static final String CARD_GRAPH = "Area.card";
+	/** Loads what is shown when a single area is viewed. */
+	public static final String DETAIL_GRAPH = "Area.detail";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
 	@Column(name = "area_id")
@@ -44,10 +62,12 @@ public class Area implements EntityInterface<UUID> {
 		inverseJoinColumns = @JoinColumn(name = "user_id")
 	)
 	@Column(name = "administrators")
+	// Loaded for a page of areas at once, rather than one area at a time
+	@BatchSize(size = 50)
 	private Set<User> administrators;
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private Area superArea;
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private AreaType areaType;
 	private int capacity;
 	private boolean calendarControlled;
@@ -64,6 +84,7 @@ public class Area implements EntityInterface<UUID> {
 			@JoinColumn(name = "feature_id")
 		}
 	)
+	@BatchSize(size = 50)
 	private Set<AreaFeature> features;
 	private boolean reservable;
 	private boolean planControlled = false;
@@ -106,27 +127,14 @@ public class Area implements EntityInterface<UUID> {
 		return id;
 	}
 
-	/**
-	 * Returns the administrators of the area.
-	 *
-	 * <p>
-	 * Includes administrators from superArea if one exists.
-	 *
-	 * @return Administrators of area, including super area.
-	 */
-	public Set<User> getAdministrators() {
-		Set<User> allAdmins = new HashSet<>(administrators);
-		if (getSuperArea() != null) {
-			allAdmins.addAll(superArea.getAdministrators());
-		}
-		return allAdmins;
-	}
-
 	/**
 	 * Gets the administrators that exist only for this area.
 	 *
 	 * <p>
-	 * Does not include administrators from superArea
+	 * Does not include administrators from superArea. The administrators inherited from super
+	 * areas are found through the
+	 * {@link no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorIndex}, without loading
+	 * the super areas.
 	 *
 	 * @return administrators specifically for this area.
 	 */
@@ -201,16 +209,6 @@ public class Area implements EntityInterface<UUID> {
 		return features;
 	}
 
-	/**
-	 * Returns the number of admin users for this area + super areas.
-	 * This method is used to ensure that a area always has a admin user.
-	 *
-	 * @return the number of admin users for this area + super areas
-	 */
-	public int getAdminCount() {
-		return getAdministrators().size();
-	}
-
 	/**
 	 * Returns the description of the area as a string.
 	 *
@@ -241,7 +239,8 @@ public class Area implements EntityInterface<UUID> {
 	* @return true if area exists as super of this area
 	 */
 	public boolean isSuperArea(UUID areaId) {
-		return superArea != null && (superArea.getId() == areaId || superArea.isSuperArea(areaId));
+		return superArea != null
+			&& (areaId.equals(superArea.getId()) || superArea.isSuperArea(areaId));
 	}
 
 	/**
@@ -264,21 +263,6 @@ public class Area implements EntityInterface<UUID> {
 
 	/* ---- Methods ---- */
 
-	/**
-	 * Returns true if user is administrator of this area or this areas super area.
-	 *
-	 * @param user User to check
-	 * @return true if user is administrator of this area or this areas super area
-	 * @throws IllegalArgumentException if user is null
-	 */
-	public boolean isAdmin(User user)
-		throws IllegalArgumentException {
-		if (user == null) {
-			throw new IllegalArgumentException("User is null when a value was expected");
-		}
-		return getAdministrators().contains(user);
-	}
-
 	/**
 	 * Builder class for Area.
 	 * Implements a builder pattern.
@@ -336,6 +320,8 @@ public class Area implements EntityInterface<UUID> {
 		 *
 		 * @return Area object
 		 * @throws AdminCountException if build is called without having an assigned administrator
+		 *     or a super area. Whether the super area has administrators is checked when the area
+		 *     is assembled, as only the administrator index knows it without loading super areas
 		 * @throws InvalidArgumentCheckedException if name is empty
 		 * @throws InvalidArgumentCheckedException if capacity is less than 0
 		 * @throws IllegalArgumentException if name is null
@@ -368,9 +354,8 @@ public class Area implements EntityInterface<UUID> {
 			if (hasNullFeature) {
 				throw new IllegalArgumentException("Area feature is null when value was expected");
 			}
-			//If area has no administrators of itself,
-			// and super area is either null or has no administrators
-			if (administrators.isEmpty() && (superArea == null || superArea.getAdminCount() <= 0)) {
+			//If area has no administrators of itself, and no super area to inherit them from
+			if (administrators.isEmpty() && superArea == null) {
 				throw new AdminCountException("Cannot create area without administrator");
 			}
 
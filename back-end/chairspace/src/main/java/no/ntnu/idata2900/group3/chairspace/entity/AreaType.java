@@ -1,5 +1,6 @@
 package no.ntnu.idata2900.group3.chairspace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
@@ -13,6 +14,7 @@ import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedExce
  * @see Area
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class AreaType implements EntityInterface<String> {
 	@Id
 	private String name;
@@ -1,10 +1,13 @@
 package no.ntnu.idata2900.group3.chairspace.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import java.time.LocalDate;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
@@ -15,11 +18,15 @@ import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedExce
  * Plans are to be checked if an area is marked with PlanControlled.
  */
 @Entity
+@NamedEntityGraph(name = Plan.LIST_GRAPH, attributeNodes = @NamedAttributeNode("area"))
 public class Plan implements EntityInterface<UUID> {
+	/** Loads what is shown when plans are listed. */
+	public static final String LIST_GRAPH = "Plan.list";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
 	private UUID id;
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private Area area;
 	private String name;
 	private LocalDate startDate;
@@ -0,0 +1,246 @@
+package no.ntnu.idata2900.group3.chairspace.entity;
+
+import jakarta.persistence.Embeddable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+
+/**
+ * A weekly recurrence rule, such as every Tuesday and Thursday from 09:00 to 11:00 between two
+ * dates.
+ *
+ * <p>
+ * The weekdays are stored as a bitmask, where Monday is the lowest bit. Occurrences are never
+ * stored, but expanded on demand within the time window that is asked for. Every occurrence
+ * starts and ends on the same day.
+ *
+ * <p>
+ * Occurrences overlap a time span if they share any time, so an occurrence that ends when
+ * another reservation starts does not overlap it.
+ *
+ * @see ReservationSeries
+ */
+@Embeddable
+public class Recurrence {
+	private LocalDate firstDate;
+	private LocalDate lastDate;
+	private LocalTime startTime;
+	private LocalTime endTime;
+	private int weekdays;
+
+	/**
+	 * No args constructor for JPA.
+	 */
+	public Recurrence() {
+		// No args constructor for JPA.
+	}
+
+	/**
+	 * Creates a new recurrence.
+	 *
+	 * @param firstDate the first date the recurrence may occur on
+	 * @param lastDate the last date the recurrence may occur on
+	 * @param startTime the time each occurrence starts
+	 * @param endTime the time each occurrence ends
+	 * @param weekdays the days of the week the recurrence occurs on
+	 * @throws InvalidArgumentCheckedException if the last date is before the first date, if the
+	 *     end time is not after the start time or if there are no weekdays
+	 * @throws IllegalArgumentException if any of the parameters are null
+	 */
+	public Recurrence(
+		LocalDate firstDate,
+		LocalDate lastDate,
+		LocalTime startTime,
+		LocalTime endTime,
+		Collection<DayOfWeek> weekdays
+	) throws InvalidArgumentCheckedException {
+		if (firstDate == null || lastDate == null) {
+			throw new IllegalArgumentException("Dates were null when values were expected");
+		}
+		if (startTime == null || endTime == null) {
+			throw new IllegalArgumentException("Times were null when values were expected");
+		}
+		if (weekdays == null) {
+			throw new IllegalArgumentException("Weekdays were null when a value was expected");
+		}
+		if (lastDate.isBefore(firstDate)) {
+			throw new InvalidArgumentCheckedException("Last date is before first date");
+		}
+		if (!endTime.isAfter(startTime)) {
+			throw new InvalidArgumentCheckedException("End time is not after start time");
+		}
+		int mask = 0;
+		for (DayOfWeek weekday : weekdays) {
+			mask |= bit(weekday);
+		}
+		if (mask == 0) {
+			throw new InvalidArgumentCheckedException("Recurrence has no weekdays");
+		}
+		this.firstDate = firstDate;
+		this.lastDate = lastDate;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.weekdays = mask;
+	}
+
+	/* ---- Getters ---- */
+
+	/**
+	 * Returns the first date the recurrence may occur on.
+	 *
+	 * @return the first date
+	 */
+	public LocalDate getFirstDate() {
+		return firstDate;
+	}
+
+	/**
+	 * Returns the last date the recurrence may occur on.
+	 *
+	 * @return the last date
+	 */
+	public LocalDate getLastDate() {
+		return lastDate;
+	}
+
+	/**
+	 * Returns the time each occurrence starts.
+	 *
+	 * @return the start time of each occurrence
+	 */
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Returns the time each occurrence ends.
+	 *
+	 * @return the end time of each occurrence
+	 */
+	public LocalTime getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Returns the days of the week the recurrence occurs on.
+	 *
+	 * @return the weekdays of the recurrence
+	 */
+	public Set<DayOfWeek> getWeekdays() {
+		Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+		for (DayOfWeek day : DayOfWeek.values()) {
+			if ((weekdays & bit(day)) != 0) {
+				days.add(day);
+			}
+		}
+		return days;
+	}
+
+	/* ---- Methods ---- */
+
+	/**
+	 * Returns true if the recurrence occurs on the given date.
+	 *
+	 * @param date the date to check
+	 * @return true if an occurrence starts on the date
+	 */
+	public boolean occursOn(LocalDate date) {
+		return !date.isBefore(firstDate)
+			&& !date.isAfter(lastDate)
+			&& (weekdays & bit(date.getDayOfWeek())) != 0;
+	}
+
+	/**
+	 * Returns the dates of every occurrence that overlaps the given time span, in order.
+	 *
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return the dates of the occurrences overlapping the time span
+	 */
+	public List<LocalDate> getDatesOverlapping(LocalDateTime start, LocalDateTime end) {
+		List<LocalDate> dates = new ArrayList<>();
+		LocalDate from = max(start.toLocalDate(), firstDate);
+		LocalDate to = min(end.toLocalDate(), lastDate);
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			if (occursOn(date)
+				&& getStartOn(date).isBefore(end)
+				&& start.isBefore(getEndOn(date))) {
+				dates.add(date);
+			}
+		}
+		return dates;
+	}
+
+	/**
+	 * Returns true if any occurrence overlaps the given time span.
+	 *
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return true if the recurrence overlaps the time span
+	 */
+	public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+		return !getDatesOverlapping(start, end).isEmpty();
+	}
+
+	/**
+	 * Returns true if any occurrence of this recurrence overlaps an occurrence of another.
+	 *
+	 * @param other the other recurrence
+	 * @return true if the recurrences overlap
+	 */
+	public boolean overlaps(Recurrence other) {
+		if ((weekdays & other.weekdays) == 0
+			|| !startTime.isBefore(other.endTime)
+			|| !other.startTime.isBefore(endTime)) {
+			return false;
+		}
+		// Every weekday comes up within a week, so there is no need to look further
+		LocalDate from = max(firstDate, other.firstDate);
+		LocalDate to = min(min(lastDate, other.lastDate), from.plusDays(6));
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			if (occursOn(date) && other.occursOn(date)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the start of the occurrence on the given date.
+	 *
+	 * @param date the date of the occurrence
+	 * @return the start of the occurrence
+	 */
+	public LocalDateTime getStartOn(LocalDate date) {
+		return date.atTime(startTime);
+	}
+
+	/**
+	 * Returns the end of the occurrence on the given date.
+	 *
+	 * @param date the date of the occurrence
+	 * @return the end of the occurrence
+	 */
+	public LocalDateTime getEndOn(LocalDate date) {
+		return date.atTime(endTime);
+	}
+
+	private static int bit(DayOfWeek day) {
+		return 1 << (day.getValue() - 1);
+	}
+
+	private static LocalDate max(LocalDate a, LocalDate b) {
+		return a.isAfter(b) ? a : b;
+	}
+
+	private static LocalDate min(LocalDate a, LocalDate b) {
+		return a.isBefore(b) ? a : b;
+	}
+}
@@ -1,10 +1,17 @@
 package no.ntnu.idata2900.group3.chairspace.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
@@ -28,23 +35,54 @@ import no.ntnu.idata2900.group3.chairspace.exceptions.NotReservableException;
  * @see User
  */
 @Entity
+// Overlap checks within an area are a single range scan on this index
+@Table(indexes = @Index(
+	name = "reservation_area_time_idx",
+	columnList = "area_area_id, start_date_time, end_date_time"
+))
+@NamedEntityGraph(name = Reservation.LIST_GRAPH, attributeNodes = {
+	@NamedAttributeNode("area"),
+	@NamedAttributeNode("user")
+})
 public class Reservation implements EntityInterface<UUID> {
+	/** Loads what is shown when reservations are listed. */
+	public static final String LIST_GRAPH = "Reservation.list";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
 	private UUID reservationUuid;
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private Area area;
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private User user;
 	private LocalDateTime startDateTime;
 	private LocalDateTime endDateTime;
 	private String comment;
+	@Transient
+	private ReservationSeries series;
 
 	/**
 	 * No args constructor for JPA.
 	 */
 	public Reservation() {}
 
+	/**
+	 * Creates the occurrence of a series on a given date. Occurrences are not validated, as the
+	 * series was validated when it was made.
+	 *
+	 * @param series the series the occurrence belongs to
+	 * @param date the date of the occurrence
+	 * @see ReservationSeries#getOccurrences
+	 */
+	Reservation(ReservationSeries series, LocalDate date) {
+		this.series = series;
+		this.area = series.getArea();
+		this.user = series.getUser();
+		this.startDateTime = series.getRecurrence().getStartOn(date);
+		this.endDateTime = series.getRecurrence().getEndOn(date);
+		this.comment = series.getComment();
+	}
+
 	/**
 	 * Constructor for Reservation.
 	 * Initializes the area, user, start and end date and time and a comment for the reservation.
@@ -235,13 +273,23 @@ public class Reservation implements EntityInterface<UUID> {
 		return comment;
 	}
 
+	/**
+	 * Returns the series this reservation is an occurrence of. Occurrences are not stored, and
+	 * cannot be saved.
+	 *
+	 * @return the series of the reservation, or null if it is a single reservation
+	 */
+	public ReservationSeries getSeries() {
+		return series;
+	}
+
 	/* ---- Methods ---- */
 
 	/**
 	 * Checks if a timespan collides with the reservation.
 	 * A timespan consists of a start time and a end time.
-	 * It collides with the reservation if the timespan starts or ends within the timespan or if it
-	 * encompasses it.
+	 * It collides with the reservation if the timespan starts or ends within the timespan, if it
+	 * encompasses it, or if it is the same timespan.
 	 *
 	 * @param start start of timespan
 	 * @param end end of timespan
@@ -254,16 +302,8 @@ public class Reservation implements EntityInterface<UUID> {
 		if (end == null) {
 			throw new IllegalArgumentException("end was null when value was expected");
 		}
-		boolean doesCollide = false;
-		if (doesCollide(start) || doesCollide(end)) {
-			//Timespan ends or starts during reservation
-			doesCollide = true;
-		}
-		if (start.isBefore(startDateTime) && end.isAfter(endDateTime)) {
-			//Timespan encompasses reservation
-			doesCollide = true;
-		}
-		return doesCollide;
+		// Touching timespans, where one ends when the other starts, do not collide
+		return start.isBefore(endDateTime) && end.isAfter(startDateTime);
 	}
 
 	/**
@@ -0,0 +1,194 @@
+package no.ntnu.idata2900.group3.chairspace.entity;
+
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import no.ntnu.idata2900.group3.chairspace.exceptions.NotReservableException;
+
+/**
+ * Represents a recurring reservation of an area, such as the same desk every Tuesday and
+ * Thursday for a semester.
+ *
+ * <p>
+ * A series is stored as a single row with a {@link Recurrence} rule, no matter how many times it
+ * occurs. Its occurrences are expanded on demand within the time window that is asked for, see
+ * {@link #getOccurrences}.
+ *
+ * @see Reservation
+ * @see Recurrence
+ */
+@Entity
+public class ReservationSeries implements EntityInterface<UUID> {
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	private UUID id;
+	@ManyToOne
+	private Area area;
+	@ManyToOne
+	private User user;
+	@Embedded
+	private Recurrence recurrence;
+	private String comment;
+
+	/**
+	 * No args constructor for JPA.
+	 */
+	public ReservationSeries() {
+		// No args constructor for JPA.
+	}
+
+	/**
+	 * Creates a new reservation series.
+	 *
+	 * @param area the area to reserve
+	 * @param user the user reserving the area
+	 * @param recurrence when the area is reserved
+	 * @param comment the comment of the series
+	 * @throws InvalidArgumentCheckedException if the first date of the recurrence has passed
+	 * @throws NotReservableException if the area is not reservable
+	 * @throws IllegalArgumentException if any of the parameters are null
+	 */
+	public ReservationSeries(Area area, User user, Recurrence recurrence, String comment)
+		throws InvalidArgumentCheckedException, NotReservableException {
+		setUser(user);
+		setRecurrence(recurrence);
+		setComment(comment);
+		setArea(area);
+	}
+
+	/* ---- Setters ---- */
+
+	/**
+	 * Sets the area of the series.
+	 *
+	 * @param area the area to reserve
+	 * @throws NotReservableException if the area is not reservable
+	 * @throws IllegalArgumentException if the area is null
+	 */
+	private void setArea(Area area) throws NotReservableException {
+		if (area == null) {
+			throw new IllegalArgumentException("Area was null when value was expected");
+		}
+		if (!area.isReservable()) {
+			throw NotReservableException.areaNotReservableException();
+		}
+		this.area = area;
+	}
+
+	/**
+	 * Sets the user of the series.
+	 *
+	 * @param user the user reserving the area
+	 * @throws IllegalArgumentException if the user is null
+	 */
+	private void setUser(User user) {
+		if (user == null) {
+			throw new IllegalArgumentException("User was null when value was expected");
+		}
+		this.user = user;
+	}
+
+	/**
+	 * Sets the recurrence of the series.
+	 *
+	 * @param recurrence when the area is reserved
+	 * @throws InvalidArgumentCheckedException if the first date of the recurrence has passed
+	 * @throws IllegalArgumentException if the recurrence is null
+	 */
+	private void setRecurrence(Recurrence recurrence) throws InvalidArgumentCheckedException {
+		if (recurrence == null) {
+			throw new IllegalArgumentException("Recurrence was null when value was expected");
+		}
+		if (recurrence.getFirstDate().isBefore(LocalDate.now())) {
+			throw new InvalidArgumentCheckedException(
+				"First date of the series is before the current date"
+			);
+		}
+		this.recurrence = recurrence;
+	}
+
+	/**
+	 * Sets the comment of the series.
+	 *
+	 * @param comment the comment of the series
+	 * @throws IllegalArgumentException if the comment is null
+	 */
+	private void setComment(String comment) {
+		if (comment == null) {
+			throw new IllegalArgumentException("Comment is null when a value was expected");
+		}
+		this.comment = comment;
+	}
+
+	/* ---- Getters ---- */
+
+	@Override
+	public UUID getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the reserved area.
+	 *
+	 * @return the reserved area
+	 */
+	public Area getArea() {
+		return area;
+	}
+
+	/**
+	 * Returns the user reserving the area.
+	 *
+	 * @return the user reserving the area
+	 */
+	public User getUser() {
+		return user;
+	}
+
+	/**
+	 * Returns when the area is reserved.
+	 *
+	 * @return the recurrence of the series
+	 */
+	public Recurrence getRecurrence() {
+		return recurrence;
+	}
+
+	/**
+	 * Returns the comment of the series.
+	 *
+	 * @return the comment of the series
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/* ---- Methods ---- */
+
+	/**
+	 * Expands the occurrences of the series that overlap the given time span.
+	 *
+	 * <p>
+	 * The occurrences are returned as reservations so they can be shown alongside other
+	 * reservations. They are not stored, have no id, and cannot be saved.
+	 *
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return the occurrences overlapping the time span, sorted by start time
+	 * @see Reservation#getSeries()
+	 */
+	public List<Reservation> getOccurrences(LocalDateTime start, LocalDateTime end) {
+		return recurrence.getDatesOverlapping(start, end)
+			.stream()
+			.map(date -> new Reservation(this, date))
+			.toList();
+	}
+}
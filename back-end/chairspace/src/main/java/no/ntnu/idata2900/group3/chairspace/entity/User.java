@@ -1,5 +1,6 @@
 package no.ntnu.idata2900.group3.chairspace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -32,6 +33,7 @@ import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedExce
 @Entity
 @Schema(description = "Represents a user in the database")
 @Table(name = "accounts")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User implements EntityInterface<UUID> {
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
@@ -42,7 +44,7 @@ public class User implements EntityInterface<UUID> {
 	private String email;
 	@Column(name = "is_admin", nullable = false)
 	private boolean isAdmin = false;
-	@Column(name = "external_id", nullable = true)
+	@Column(name = "external_id", nullable = true, unique = true)
 	private String externalId = null;
 	@ManyToMany
 	@JoinTable(
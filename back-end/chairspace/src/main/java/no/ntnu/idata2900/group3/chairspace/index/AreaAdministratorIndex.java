@@ -0,0 +1,222 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.User;
+import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-memory index of the administrators of every area, including the administrators inherited
+ * from super areas.
+ *
+ * <p>
+ * A user administrating an area also administrates every area below it. The index keeps both
+ * directions of this precomputed: the administrators of each area, and the areas administrated
+ * by each user. Checking or listing administrators is then a lookup, instead of walking up the
+ * super areas of an area entity.
+ *
+ * <p>
+ * The index is immutable, and is rebuilt from the direct administrators and the {@link AreaTree}
+ * whenever either changes. The index must be kept up to date by calling {@link #put} and
+ * {@link #remove} whenever an area is written, after the area tree has been updated, and by
+ * calling {@link #removeUser} whenever a user is deleted.
+ */
+@Component
+public class AreaAdministratorIndex {
+	private final AreaRepository areaRepository;
+	private final AreaTree areaTree;
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Creates a new area administrator index.
+	 *
+	 * @param areaRepository autowired area repository
+	 * @param areaTree autowired area tree
+	 */
+	public AreaAdministratorIndex(AreaRepository areaRepository, AreaTree areaTree) {
+		this.areaRepository = areaRepository;
+		this.areaTree = areaTree;
+	}
+
+	/**
+	 * Loads the index when the application has started, so the first request does not have to.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		getSnapshot();
+	}
+
+	/**
+	 * Gets the ids of the administrators of an area, including those of its super areas.
+	 *
+	 * @param areaId the id of the area
+	 * @return the ids of every user administrating the area
+	 */
+	public Set<UUID> getAdministratorIds(UUID areaId) {
+		return getSnapshot().administrators.getOrDefault(areaId, Set.of());
+	}
+
+	/**
+	 * Gets the ids of the areas administrated by a user, including every area below the areas
+	 * the user administrates directly.
+	 *
+	 * @param userId the id of the user
+	 * @return the ids of every area administrated by the user
+	 */
+	public Set<UUID> getAdministratedAreaIds(UUID userId) {
+		return getSnapshot().administratedAreas.getOrDefault(userId, Set.of());
+	}
+
+	/**
+	 * Adds or replaces the administrators of a saved area. Also picks up any change to the
+	 * hierarchy, so it must be called after the area has been put in the {@link AreaTree}.
+	 *
+	 * @param area the saved area
+	 */
+	public synchronized void put(Area area) {
+		Snapshot current = snapshot;
+		if (current == null || area.getId() == null) {
+			// Not loaded yet, the area will be picked up when the index loads
+			return;
+		}
+		Set<UUID> userIds = new HashSet<>();
+		if (area.getAreaSpecificAdministrators() != null) {
+			area.getAreaSpecificAdministrators().stream().map(User::getId).forEach(userIds::add);
+		}
+		Map<UUID, Set<UUID>> direct = new HashMap<>(current.direct);
+		if (userIds.isEmpty()) {
+			direct.remove(area.getId());
+		} else {
+			direct.put(area.getId(), userIds);
+		}
+		snapshot = build(direct);
+	}
+
+	/**
+	 * Removes a deleted area from the index. Must be called after the area has been removed from
+	 * the {@link AreaTree}.
+	 *
+	 * @param areaId the id of the deleted area
+	 */
+	public synchronized void remove(UUID areaId) {
+		Snapshot current = snapshot;
+		if (current == null) {
+			return;
+		}
+		Map<UUID, Set<UUID>> direct = new HashMap<>(current.direct);
+		direct.remove(areaId);
+		snapshot = build(direct);
+	}
+
+	/**
+	 * Removes a deleted user from the administrators of every area.
+	 *
+	 * @param userId the id of the deleted user
+	 */
+	public synchronized void removeUser(UUID userId) {
+		Snapshot current = snapshot;
+		if (current == null || !current.administratedAreas.containsKey(userId)) {
+			return;
+		}
+		Map<UUID, Set<UUID>> direct = new HashMap<>();
+		current.direct.forEach((areaId, userIds) -> {
+			Set<UUID> remaining = new HashSet<>(userIds);
+			remaining.remove(userId);
+			if (!remaining.isEmpty()) {
+				direct.put(areaId, remaining);
+			}
+		});
+		snapshot = build(direct);
+	}
+
+	/**
+	 * Drops the index, so it is loaded from the database on next use.
+	 * Used when areas are changed in ways the index does not track one by one.
+	 */
+	public synchronized void reload() {
+		snapshot = null;
+	}
+
+	/**
+	 * Returns the current snapshot, loading it from the database if needed.
+	 *
+	 * @return the current snapshot
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			current = load();
+		}
+		return current;
+	}
+
+	private synchronized Snapshot load() {
+		if (snapshot == null) {
+			Map<UUID, Set<UUID>> direct = new HashMap<>();
+			for (AreaAdministratorLink link : areaRepository.findAllAdministratorLinks()) {
+				direct.computeIfAbsent(link.areaId(), id -> new HashSet<>()).add(link.userId());
+			}
+			snapshot = build(direct);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Builds a snapshot from the direct administrators of every area, spreading every
+	 * administrator down to all areas below the areas they administrate.
+	 *
+	 * @param direct the ids of the direct administrators of every area
+	 * @return the new snapshot
+	 */
+	private Snapshot build(Map<UUID, Set<UUID>> direct) {
+		Map<UUID, Set<UUID>> administrators = new HashMap<>();
+		Map<UUID, Set<UUID>> administratedAreas = new HashMap<>();
+		direct.forEach((areaId, userIds) -> {
+			if (areaTree.get(areaId) == null) {
+				// The area has been deleted
+				return;
+			}
+			Set<UUID> subtree = new HashSet<>(areaTree.getSubAreaIds(areaId));
+			subtree.add(areaId);
+			for (UUID userId : userIds) {
+				administratedAreas.computeIfAbsent(userId, id -> new HashSet<>()).addAll(subtree);
+			}
+			for (UUID id : subtree) {
+				administrators.computeIfAbsent(id, key -> new HashSet<>()).addAll(userIds);
+			}
+		});
+		return new Snapshot(direct, administrators, administratedAreas);
+	}
+
+	/**
+	 * An immutable view of the administrators at a single point in time.
+	 */
+	private static final class Snapshot {
+		private final Map<UUID, Set<UUID>> direct;
+		private final Map<UUID, Set<UUID>> administrators;
+		private final Map<UUID, Set<UUID>> administratedAreas;
+
+		private Snapshot(
+			Map<UUID, Set<UUID>> direct,
+			Map<UUID, Set<UUID>> administrators,
+			Map<UUID, Set<UUID>> administratedAreas
+		) {
+			this.direct = copyOf(direct);
+			this.administrators = copyOf(administrators);
+			this.administratedAreas = copyOf(administratedAreas);
+		}
+
+		private static Map<UUID, Set<UUID>> copyOf(Map<UUID, Set<UUID>> map) {
+			Map<UUID, Set<UUID>> copy = new HashMap<>();
+			map.forEach((key, ids) -> copy.put(key, Set.copyOf(ids)));
+			return Map.copyOf(copy);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.UUID;
+
+/**
+ * A link between an area and one of the users administrating it directly.
+ *
+ * <p>
+ * Used to load administrators into the {@link AreaAdministratorIndex} without materializing full
+ * entities.
+ *
+ * @param areaId the id of the area
+ * @param userId the id of the administrator
+ */
+public record AreaAdministratorLink(
+	UUID areaId,
+	UUID userId
+) {}
@@ -0,0 +1,395 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.AreaFeature;
+import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-memory bitmap index of the searchable attributes of every area, used to find search
+ * candidates without querying the database.
+ *
+ * <p>
+ * Every area is given a dense ordinal, and every attribute value maps to a bitmap over those
+ * ordinals. This includes every feature, every area type, the reservable and plan controlled
+ * flags, and a bucket for every power of two of capacity. A search is then a handful of bitmap
+ * ANDs, no matter how many features are asked for.
+ *
+ * <p>
+ * The index is immutable. Writes copy the affected bitmaps and swap in a new index, so readers
+ * never lock. The index must be kept up to date by calling {@link #put} and {@link #remove}
+ * whenever an area is written.
+ */
+@Component
+public class AreaAttributeIndex {
+	private final AreaRepository areaRepository;
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Creates a new area attribute index.
+	 *
+	 * @param areaRepository autowired area repository
+	 */
+	public AreaAttributeIndex(AreaRepository areaRepository) {
+		this.areaRepository = areaRepository;
+	}
+
+	/**
+	 * Loads the index when the application has started, so the first search does not have to.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		getSnapshot();
+	}
+
+	/**
+	 * Finds the ids of all reservable areas that match the given attributes, sorted by name.
+	 * Parameters that are null are ignored.
+	 *
+	 * <p>
+	 * Plan controlled areas only match if they are among the plan free areas. The plan free areas
+	 * are only requested if any plan controlled area matches the other attributes.
+	 *
+	 * @param minCapacity the minimum capacity of the areas
+	 * @param withinAreaIds the ids of the areas to search within
+	 * @param areaType the name of the type of the areas
+	 * @param features the names of the features every area must have
+	 * @param planFreeAreaIds supplies the ids of the plan controlled areas that may be reserved
+	 * @param after only areas sorted after this name and id are returned, may be null
+	 * @return the ids of the matching areas, sorted by name
+	 */
+	public List<UUID> findCandidateIds(
+		Integer minCapacity,
+		Collection<UUID> withinAreaIds,
+		String areaType,
+		Collection<String> features,
+		Supplier<Collection<UUID>> planFreeAreaIds,
+		Cursor after
+	) {
+		Snapshot current = getSnapshot();
+		BitSet candidates = (BitSet) current.reservable.clone();
+
+		if (areaType != null) {
+			candidates.and(current.types.getOrDefault(areaType, new BitSet()));
+		}
+		if (features != null) {
+			for (String feature : features) {
+				candidates.and(current.features.getOrDefault(feature, new BitSet()));
+			}
+		}
+		if (minCapacity != null && minCapacity > 0) {
+			current.filterCapacity(candidates, minCapacity);
+		}
+		if (withinAreaIds != null) {
+			candidates.and(current.toBitSet(withinAreaIds));
+		}
+
+		BitSet planControlled = (BitSet) candidates.clone();
+		planControlled.and(current.planControlled);
+		if (!planControlled.isEmpty()) {
+			candidates.andNot(planControlled);
+			planControlled.and(current.toBitSet(planFreeAreaIds.get()));
+			candidates.or(planControlled);
+		}
+
+		return current.toSortedIds(candidates, after);
+	}
+
+	/**
+	 * Adds or replaces a saved area in the index.
+	 *
+	 * @param area the saved area
+	 */
+	public synchronized void put(Area area) {
+		Snapshot current = snapshot;
+		if (current == null || area.getId() == null) {
+			// Not loaded yet, the area will be picked up when the index loads
+			return;
+		}
+		AreaAttributes attributes = new AreaAttributes(
+			area.getId(),
+			area.getName(),
+			area.getCapacity(),
+			area.getAreaType() == null ? null : area.getAreaType().getId(),
+			area.isReservable(),
+			area.isPlanControlled()
+		);
+		Set<String> features = new HashSet<>();
+		if (area.getFeatures() != null) {
+			area.getFeatures().stream().map(AreaFeature::getId).forEach(features::add);
+		}
+
+		Snapshot next = new Snapshot(current);
+		next.assign(attributes, features);
+		next.sortByName();
+		snapshot = next;
+	}
+
+	/**
+	 * Removes a deleted area from the index.
+	 *
+	 * @param areaId the id of the deleted area
+	 */
+	public synchronized void remove(UUID areaId) {
+		Snapshot current = snapshot;
+		if (current == null || !current.ordinals.containsKey(areaId)) {
+			return;
+		}
+		Snapshot next = new Snapshot(current);
+		next.clear(next.ordinals.remove(areaId));
+		next.sortByName();
+		snapshot = next;
+	}
+
+	/**
+	 * Drops the index, so it is loaded from the database on next use.
+	 * Used when areas are changed in ways the index does not track one by one.
+	 */
+	public synchronized void reload() {
+		snapshot = null;
+	}
+
+	/**
+	 * Returns the current snapshot, loading it from the database if needed.
+	 *
+	 * @return the current snapshot
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			current = load();
+		}
+		return current;
+	}
+
+	private synchronized Snapshot load() {
+		if (snapshot == null) {
+			Map<UUID, Set<String>> featuresByArea = new HashMap<>();
+			for (AreaFeatureLink link : areaRepository.findAllFeatureLinks()) {
+				featuresByArea.computeIfAbsent(link.areaId(), id -> new HashSet<>())
+					.add(link.feature());
+			}
+
+			Snapshot loaded = new Snapshot();
+			for (AreaAttributes attributes : areaRepository.findAllAttributes()) {
+				loaded.assign(
+					attributes,
+					featuresByArea.getOrDefault(attributes.id(), Set.of())
+				);
+			}
+			loaded.sortByName();
+			snapshot = loaded;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * The bitmaps of the index at a single point in time.
+	 *
+	 * <p>
+	 * A snapshot is only modified while it is being built, before it is published.
+	 */
+	private static final class Snapshot {
+		/** Bucket {@code i} holds every area with a capacity of at least {@code 2^i}. */
+		private static final int CAPACITY_BUCKETS = Integer.SIZE - 1;
+		private static final Comparator<String> NAME_ORDER =
+			Comparator.nullsLast(Comparator.naturalOrder());
+
+		private final Map<UUID, Integer> ordinals;
+		private UUID[] ids;
+		private String[] names;
+		private int[] capacities;
+		private int[] nameOrder;
+		private final BitSet reservable;
+		private final BitSet planControlled;
+		private final Map<String, BitSet> types;
+		private final Map<String, BitSet> features;
+		private final BitSet[] capacityBuckets;
+
+		private Snapshot() {
+			this.ordinals = new HashMap<>();
+			this.ids = new UUID[0];
+			this.names = new String[0];
+			this.capacities = new int[0];
+			this.nameOrder = new int[0];
+			this.reservable = new BitSet();
+			this.planControlled = new BitSet();
+			this.types = new HashMap<>();
+			this.features = new HashMap<>();
+			this.capacityBuckets = new BitSet[CAPACITY_BUCKETS];
+			for (int i = 0; i < CAPACITY_BUCKETS; i++) {
+				capacityBuckets[i] = new BitSet();
+			}
+		}
+
+		private Snapshot(Snapshot other) {
+			this.ordinals = new HashMap<>(other.ordinals);
+			this.ids = other.ids.clone();
+			this.names = other.names.clone();
+			this.capacities = other.capacities.clone();
+			this.nameOrder = other.nameOrder;
+			this.reservable = (BitSet) other.reservable.clone();
+			this.planControlled = (BitSet) other.planControlled.clone();
+			this.types = copyOf(other.types);
+			this.features = copyOf(other.features);
+			this.capacityBuckets = new BitSet[CAPACITY_BUCKETS];
+			for (int i = 0; i < CAPACITY_BUCKETS; i++) {
+				capacityBuckets[i] = (BitSet) other.capacityBuckets[i].clone();
+			}
+		}
+
+		/**
+		 * Sets the attributes of an area, giving it a new ordinal if it has none.
+		 *
+		 * @param attributes the attributes of the area
+		 * @param areaFeatures the names of the features of the area
+		 */
+		private void assign(AreaAttributes attributes, Set<String> areaFeatures) {
+			Integer ordinal = ordinals.get(attributes.id());
+			if (ordinal == null) {
+				ordinal = ids.length;
+				ordinals.put(attributes.id(), ordinal);
+				ids = Arrays.copyOf(ids, ordinal + 1);
+				names = Arrays.copyOf(names, ordinal + 1);
+				capacities = Arrays.copyOf(capacities, ordinal + 1);
+			} else {
+				clear(ordinal);
+			}
+
+			ids[ordinal] = attributes.id();
+			names[ordinal] = attributes.name();
+			capacities[ordinal] = attributes.capacity();
+			reservable.set(ordinal, attributes.reservable());
+			planControlled.set(ordinal, attributes.planControlled());
+			if (attributes.areaType() != null) {
+				types.computeIfAbsent(attributes.areaType(), type -> new BitSet()).set(ordinal);
+			}
+			for (String feature : areaFeatures) {
+				features.computeIfAbsent(feature, name -> new BitSet()).set(ordinal);
+			}
+			for (int i = 0; i < CAPACITY_BUCKETS && attributes.capacity() >= 1 << i; i++) {
+				capacityBuckets[i].set(ordinal);
+			}
+		}
+
+		/**
+		 * Clears every bit of an ordinal. The ordinal is left unused until it is assigned again.
+		 *
+		 * @param ordinal the ordinal to clear
+		 */
+		private void clear(int ordinal) {
+			ids[ordinal] = null;
+			names[ordinal] = null;
+			capacities[ordinal] = 0;
+			reservable.clear(ordinal);
+			planControlled.clear(ordinal);
+			types.values().forEach(bits -> bits.clear(ordinal));
+			features.values().forEach(bits -> bits.clear(ordinal));
+			for (BitSet bucket : capacityBuckets) {
+				bucket.clear(ordinal);
+			}
+		}
+
+		/**
+		 * Sorts the ordinals in use by area name, and then by id to keep the order stable.
+		 */
+		private void sortByName() {
+			nameOrder = IntStream.range(0, ids.length)
+				.filter(ordinal -> ids[ordinal] != null)
+				.boxed()
+				.sorted(Comparator
+					.comparing((Integer ordinal) -> names[ordinal], NAME_ORDER)
+					.thenComparing(ordinal -> ids[ordinal]))
+				.mapToInt(Integer::intValue)
+				.toArray();
+		}
+
+		/**
+		 * Removes every area with less than the given capacity from the bitmap.
+		 *
+		 * @param bits the bitmap to filter
+		 * @param minCapacity the minimum capacity, must be positive
+		 */
+		private void filterCapacity(BitSet bits, int minCapacity) {
+			// The bucket rules out most areas, only the areas within the bucket are checked
+			int bucket = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(minCapacity);
+			bits.and(capacityBuckets[bucket]);
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				if (capacities[i] < minCapacity) {
+					bits.clear(i);
+				}
+			}
+		}
+
+		private BitSet toBitSet(Collection<UUID> areaIds) {
+			BitSet bits = new BitSet(ids.length);
+			for (UUID areaId : areaIds) {
+				Integer ordinal = ordinals.get(areaId);
+				if (ordinal != null) {
+					bits.set(ordinal);
+				}
+			}
+			return bits;
+		}
+
+		private List<UUID> toSortedIds(BitSet bits, Cursor after) {
+			List<UUID> sortedIds = new ArrayList<>(bits.cardinality());
+			for (int i = firstAfter(after); i < nameOrder.length; i++) {
+				if (bits.get(nameOrder[i])) {
+					sortedIds.add(ids[nameOrder[i]]);
+				}
+			}
+			return sortedIds;
+		}
+
+		/**
+		 * Finds the position in the name order of the first area sorted after the cursor.
+		 *
+		 * @param after the name and id to start after, may be null
+		 * @return the position of the first area after the cursor
+		 */
+		private int firstAfter(Cursor after) {
+			if (after == null) {
+				return 0;
+			}
+			int low = 0;
+			int high = nameOrder.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				int ordinal = nameOrder[middle];
+				int comparison = NAME_ORDER.compare(names[ordinal], after.key());
+				if (comparison == 0) {
+					comparison = ids[ordinal].compareTo(after.id());
+				}
+				if (comparison <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		private static Map<String, BitSet> copyOf(Map<String, BitSet> bitmaps) {
+			Map<String, BitSet> copy = new HashMap<>();
+			bitmaps.forEach((key, bits) -> copy.put(key, (BitSet) bits.clone()));
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+
+/**
+ * The searchable attributes of an {@link Area}, without the area entity attached.
+ *
+ * <p>
+ * Used to load areas into the {@link AreaAttributeIndex} without materializing full entities.
+ *
+ * @param id the id of the area
+ * @param name the name of the area
+ * @param capacity the capacity of the area
+ * @param areaType the name of the type of the area
+ * @param reservable true if the area is reservable
+ * @param planControlled true if the area is plan controlled
+ */
+public record AreaAttributes(
+	UUID id,
+	String name,
+	int capacity,
+	String areaType,
+	boolean reservable,
+	boolean planControlled
+) {}
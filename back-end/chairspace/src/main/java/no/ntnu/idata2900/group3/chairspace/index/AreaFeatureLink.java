@@ -0,0 +1,18 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.AreaFeature;
+
+/**
+ * A link between an area and one of its {@link AreaFeature}s.
+ *
+ * <p>
+ * Used to load features into the {@link AreaAttributeIndex} without materializing full entities.
+ *
+ * @param areaId the id of the area
+ * @param feature the name of the feature
+ */
+public record AreaFeatureLink(
+	UUID areaId,
+	String feature
+) {}
@@ -0,0 +1,39 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.AreaType;
+import org.hibernate.Hibernate;
+
+/**
+ * The place of a single {@link Area} in the area hierarchy, without any other area data.
+ *
+ * @param id the id of the area
+ * @param superAreaId the id of the super area, or null if the area is at the top of the hierarchy
+ * @param name the name of the area
+ * @param areaType the type of the area
+ * @see AreaTree
+ */
+public record AreaNode(
+	UUID id,
+	UUID superAreaId,
+	String name,
+	AreaType areaType
+) {
+	/**
+	 * Creates a node from an area.
+	 *
+	 * @param area the area to create a node from
+	 * @return a node describing the area
+	 */
+	static AreaNode of(Area area) {
+		Area superArea = area.getSuperArea();
+		return new AreaNode(
+			area.getId(),
+			superArea == null ? null : superArea.getId(),
+			area.getName(),
+			// The node outlives the session, so it must not hold on to a lazy area type
+			Hibernate.unproxy(area.getAreaType(), AreaType.class)
+		);
+	}
+}
@@ -0,0 +1,221 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-memory snapshot of the area hierarchy, used to walk the hierarchy without querying the
+ * database or loading area entities.
+ *
+ * <p>
+ * The snapshot is immutable. Writes build a new snapshot and swap it in, so readers never lock
+ * and always see a consistent hierarchy. The snapshot must be kept up to date by calling
+ * {@link #put} and {@link #remove} whenever an area is written.
+ *
+ * <p>
+ * Every walk keeps track of the areas it has visited, so a cycle in the hierarchy cannot make it
+ * run forever.
+ */
+@Component
+public class AreaTree {
+	private final AreaRepository areaRepository;
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Creates a new area tree.
+	 *
+	 * @param areaRepository autowired area repository
+	 */
+	public AreaTree(AreaRepository areaRepository) {
+		this.areaRepository = areaRepository;
+	}
+
+	/**
+	 * Loads the tree when the application has started, so the first request does not have to.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		getSnapshot();
+	}
+
+	/**
+	 * Gets the node of an area.
+	 *
+	 * @param areaId the id of the area
+	 * @return the node of the area, or null if the area does not exist
+	 */
+	public AreaNode get(UUID areaId) {
+		return getSnapshot().nodes.get(areaId);
+	}
+
+	/**
+	 * Gets the ids of all sub areas of an area, at any depth. The area itself is not included.
+	 *
+	 * @param areaId the id of the area
+	 * @return the ids of all areas below the area
+	 */
+	public List<UUID> getSubAreaIds(UUID areaId) {
+		Snapshot current = getSnapshot();
+		List<UUID> subAreaIds = new ArrayList<>();
+		Set<UUID> visited = new HashSet<>();
+		Deque<UUID> areaStack = new ArrayDeque<>();
+		areaStack.push(areaId);
+		visited.add(areaId);
+
+		while (!areaStack.isEmpty()) {
+			for (UUID childId : current.getChildren(areaStack.pop())) {
+				if (visited.add(childId)) {
+					subAreaIds.add(childId);
+					areaStack.push(childId);
+				}
+			}
+		}
+		return subAreaIds;
+	}
+
+	/**
+	 * Gets the ids of all super areas of an area, from the closest super area to the top.
+	 *
+	 * @param areaId the id of the area
+	 * @return the ids of all areas above the area, closest first
+	 */
+	public List<UUID> getSuperAreaIds(UUID areaId) {
+		return getSuperAreas(areaId).stream().map(AreaNode::id).toList();
+	}
+
+	/**
+	 * Gets the nodes of all super areas of an area, from the closest super area to the top.
+	 *
+	 * @param areaId the id of the area
+	 * @return the nodes of all areas above the area, closest first
+	 */
+	public List<AreaNode> getSuperAreas(UUID areaId) {
+		Snapshot current = getSnapshot();
+		List<AreaNode> superAreas = new ArrayList<>();
+		Set<UUID> visited = new HashSet<>();
+		visited.add(areaId);
+
+		AreaNode node = current.nodes.get(areaId);
+		while (node != null && node.superAreaId() != null && visited.add(node.superAreaId())) {
+			node = current.nodes.get(node.superAreaId());
+			if (node != null) {
+				superAreas.add(node);
+			}
+		}
+		return superAreas;
+	}
+
+	/**
+	 * Gets the breadcrumbs of an area. These are all super areas of the area, from the top of the
+	 * hierarchy down to the closest super area.
+	 *
+	 * @param areaId the id of the area
+	 * @return the nodes of all areas above the area, top first
+	 */
+	public List<AreaNode> getBreadcrumbs(UUID areaId) {
+		List<AreaNode> breadcrumbs = new ArrayList<>(getSuperAreas(areaId));
+		Collections.reverse(breadcrumbs);
+		return breadcrumbs;
+	}
+
+	/**
+	 * Adds or replaces a saved area in the tree.
+	 *
+	 * @param area the saved area
+	 */
+	public synchronized void put(Area area) {
+		Snapshot current = snapshot;
+		if (current == null || area.getId() == null) {
+			// Not loaded yet, the area will be picked up when the tree loads
+			return;
+		}
+		Map<UUID, AreaNode> nodes = new HashMap<>(current.nodes);
+		nodes.put(area.getId(), AreaNode.of(area));
+		snapshot = new Snapshot(nodes);
+	}
+
+	/**
+	 * Removes a deleted area from the tree.
+	 *
+	 * @param areaId the id of the deleted area
+	 */
+	public synchronized void remove(UUID areaId) {
+		Snapshot current = snapshot;
+		if (current == null || !current.nodes.containsKey(areaId)) {
+			return;
+		}
+		Map<UUID, AreaNode> nodes = new HashMap<>(current.nodes);
+		nodes.remove(areaId);
+		snapshot = new Snapshot(nodes);
+	}
+
+	/**
+	 * Drops the current snapshot, so the tree is loaded from the database on next use.
+	 * Used when areas are changed in ways the tree does not track one by one.
+	 */
+	public synchronized void reload() {
+		snapshot = null;
+	}
+
+	/**
+	 * Returns the current snapshot, loading it from the database if needed.
+	 *
+	 * @return the current snapshot
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			current = load();
+		}
+		return current;
+	}
+
+	private synchronized Snapshot load() {
+		if (snapshot == null) {
+			Map<UUID, AreaNode> nodes = new HashMap<>();
+			areaRepository.findAllNodes().forEach(node -> nodes.put(node.id(), node));
+			snapshot = new Snapshot(nodes);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * An immutable view of the hierarchy at a single point in time.
+	 */
+	private static final class Snapshot {
+		private final Map<UUID, AreaNode> nodes;
+		private final Map<UUID, List<UUID>> children;
+
+		private Snapshot(Map<UUID, AreaNode> nodes) {
+			Map<UUID, List<UUID>> childMap = new HashMap<>();
+			for (AreaNode node : nodes.values()) {
+				if (node.superAreaId() != null) {
+					childMap.computeIfAbsent(node.superAreaId(), id -> new ArrayList<>())
+						.add(node.id());
+				}
+			}
+			childMap.replaceAll((id, childIds) -> List.copyOf(childIds));
+
+			this.nodes = Map.copyOf(nodes);
+			this.children = Map.copyOf(childMap);
+		}
+
+		private Collection<UUID> getChildren(UUID areaId) {
+			return children.getOrDefault(areaId, List.of());
+		}
+	}
+}
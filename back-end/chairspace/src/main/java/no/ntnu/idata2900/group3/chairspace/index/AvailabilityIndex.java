@@ -0,0 +1,451 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import no.ntnu.idata2900.group3.chairspace.entity.Recurrence;
+import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationSeriesRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-memory index of the reservations of every area, used to answer availability questions
+ * without querying the database.
+ *
+ * <p>
+ * The index is loaded once with all reservations that end after the start of the day of loading,
+ * called the horizon. Searches that start before the horizon are not covered by the index, and
+ * should be answered by the database instead. See {@link #covers(LocalDateTime)}. The horizon is
+ * moved to the start of each new day, and the reservations and series that have ended before it
+ * are dropped, so the index only grows with the reservations still ahead.
+ *
+ * <p>
+ * The index must be kept up to date by calling {@link #put} and {@link #remove} whenever a
+ * reservation is written, and {@link #putSeries} and {@link #removeSeries} whenever a series is.
+ * Reads do not lock, as each area's timeline is immutable and replaced on write.
+ *
+ * <p>
+ * Series are kept as their recurrence rules. Their occurrences are only expanded within the time
+ * window of a lookup, and only for areas that have series. Free gap lookups also treat the active
+ * {@link SlotHolds} as reservations. Occurrences and holds are passed to the timeline of the area
+ * as an overlay, so the timeline is not copied for each lookup.
+ *
+ * @see ReservationTimeline
+ */
+@Component
+public class AvailabilityIndex {
+	private final ReservationRepository reservationRepository;
+	private final ReservationSeriesRepository seriesRepository;
+	private final SlotHolds slotHolds;
+	private final Map<UUID, ReservationTimeline> timelines = new ConcurrentHashMap<>();
+	private final Map<UUID, UUID> reservationAreas = new ConcurrentHashMap<>();
+	private final Map<UUID, Map<UUID, Recurrence>> seriesByArea = new ConcurrentHashMap<>();
+	private final Map<UUID, UUID> seriesAreas = new ConcurrentHashMap<>();
+	private volatile LocalDateTime horizon;
+
+	/**
+	 * Creates a new availability index.
+	 *
+	 * @param reservationRepository autowired reservation repository
+	 * @param seriesRepository autowired reservation series repository
+	 * @param slotHolds autowired slot holds
+	 */
+	public AvailabilityIndex(
+		ReservationRepository reservationRepository,
+		ReservationSeriesRepository seriesRepository,
+		SlotHolds slotHolds
+	) {
+		this.reservationRepository = reservationRepository;
+		this.seriesRepository = seriesRepository;
+		this.slotHolds = slotHolds;
+	}
+
+	/**
+	 * Loads the index when the application has started, so the first search does not have to.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		ensureLoaded();
+	}
+
+	/**
+	 * Returns true if the index can answer questions about time windows starting at the given time.
+	 *
+	 * @param start the start of the time window
+	 * @return true if the index covers the time window
+	 */
+	public boolean covers(LocalDateTime start) {
+		ensureLoaded();
+		return !start.isBefore(horizon);
+	}
+
+	/**
+	 * Checks if the area has a free gap of at least the given duration within the time window.
+	 *
+	 * @param areaId the id of the area to check
+	 * @param start the start of the time window
+	 * @param end the end of the time window
+	 * @param minGap the minimum length of the gap
+	 * @return true if the area has a gap of at least {@code minGap} within the window
+	 * @see #covers(LocalDateTime)
+	 */
+	public boolean hasFreeGap(
+		UUID areaId,
+		LocalDateTime start,
+		LocalDateTime end,
+		Duration minGap
+	) {
+		ensureLoaded();
+		return getTimeline(areaId).hasFreeGap(
+			toSeconds(start),
+			toSeconds(end),
+			minGap.toSeconds(),
+			getOverlay(areaId, start, end, true)
+		);
+	}
+
+	/**
+	 * Filters the given areas down to the areas that have a free gap of at least the given
+	 * duration within the time window. The order of the areas is kept.
+	 *
+	 * @param areaIds the ids of the areas to check
+	 * @param start the start of the time window
+	 * @param end the end of the time window
+	 * @param minGap the minimum length of the gap
+	 * @return the ids of the areas that have a gap of at least {@code minGap} within the window
+	 * @see #covers(LocalDateTime)
+	 */
+	public List<UUID> filterWithFreeGap(
+		Collection<UUID> areaIds,
+		LocalDateTime start,
+		LocalDateTime end,
+		Duration minGap
+	) {
+		ensureLoaded();
+		long windowStart = toSeconds(start);
+		long windowEnd = toSeconds(end);
+		long gap = minGap.toSeconds();
+
+		List<UUID> areasWithGap = new ArrayList<>();
+		for (UUID areaId : areaIds) {
+			ReservationTimeline overlay = getOverlay(areaId, start, end, true);
+			if (getTimeline(areaId).hasFreeGap(windowStart, windowEnd, gap, overlay)) {
+				areasWithGap.add(areaId);
+			}
+		}
+		return areasWithGap;
+	}
+
+	/**
+	 * Gets the share of each day that an area is occupied by reservations, for a number of days
+	 * in a row. Overlapping reservations are only counted once.
+	 *
+	 * @param areaId the id of the area
+	 * @param firstDay the first day to get the occupancy of
+	 * @param dayCount the amount of days to get the occupancy of
+	 * @return the share of each day that is occupied, from 0 to 1
+	 * @see #covers(LocalDateTime)
+	 */
+	public List<Float> getFrequencies(UUID areaId, LocalDate firstDay, int dayCount) {
+		ensureLoaded();
+		return getFrequencies(
+			getTimeline(areaId),
+			getOverlay(
+				areaId,
+				firstDay.atStartOfDay(),
+				firstDay.plusDays(dayCount).atStartOfDay(),
+				false
+			),
+			firstDay,
+			dayCount
+		);
+	}
+
+	/**
+	 * Gets the share of each day that is occupied by the given reservations, for a number of days
+	 * in a row. Used for days the index does not cover. Overlapping reservations are only counted
+	 * once.
+	 *
+	 * @param spans the reservations to count
+	 * @param firstDay the first day to get the occupancy of
+	 * @param dayCount the amount of days to get the occupancy of
+	 * @return the share of each day that is occupied, from 0 to 1
+	 */
+	public static List<Float> getFrequencies(
+		List<ReservationSpan> spans,
+		LocalDate firstDay,
+		int dayCount
+	) {
+		return getFrequencies(
+			ReservationTimeline.of(spans),
+			ReservationTimeline.EMPTY,
+			firstDay,
+			dayCount
+		);
+	}
+
+	/**
+	 * Checks if the given reservations leave a free gap of at least the given duration within the
+	 * time window. Used for time windows the index does not cover.
+	 *
+	 * @param spans the reservations to check
+	 * @param start the start of the time window
+	 * @param end the end of the time window
+	 * @param minGap the minimum length of the gap
+	 * @return true if there is a gap of at least {@code minGap} within the window
+	 */
+	public static boolean hasFreeGap(
+		List<ReservationSpan> spans,
+		LocalDateTime start,
+		LocalDateTime end,
+		Duration minGap
+	) {
+		return ReservationTimeline.of(spans)
+			.hasFreeGap(toSeconds(start), toSeconds(end), minGap.toSeconds());
+	}
+
+	private static List<Float> getFrequencies(
+		ReservationTimeline timeline,
+		ReservationTimeline overlay,
+		LocalDate firstDay,
+		int dayCount
+	) {
+		long first = ReservationTimeline.dayOf(toSeconds(firstDay.atStartOfDay()));
+		List<Float> frequencies = new ArrayList<>(dayCount);
+		for (long day = first; day < first + dayCount; day++) {
+			frequencies.add(timeline.getDay(day, overlay).getFrequency());
+		}
+		return frequencies;
+	}
+
+	/**
+	 * Adds or replaces a saved reservation in the index.
+	 *
+	 * @param reservation the saved reservation
+	 */
+	public synchronized void put(Reservation reservation) {
+		if (horizon == null || reservation.getId() == null) {
+			// Not loaded yet, the reservation will be picked up when the index loads
+			return;
+		}
+		UUID reservationId = reservation.getId();
+		UUID areaId = reservation.getArea().getId();
+		UUID previousAreaId = reservationAreas.put(reservationId, areaId);
+		if (previousAreaId != null && !previousAreaId.equals(areaId)) {
+			timelines.computeIfPresent(
+				previousAreaId,
+				(id, timeline) -> timeline.without(reservationId)
+			);
+		}
+		timelines.compute(areaId, (id, timeline) ->
+			(timeline == null ? ReservationTimeline.EMPTY : timeline).with(
+				reservationId,
+				toSeconds(reservation.getStart()),
+				toSeconds(reservation.getEnd())
+			)
+		);
+	}
+
+	/**
+	 * Removes a deleted reservation from the index.
+	 *
+	 * @param reservationId the id of the deleted reservation
+	 */
+	public synchronized void remove(UUID reservationId) {
+		UUID areaId = reservationAreas.remove(reservationId);
+		if (areaId != null) {
+			timelines.computeIfPresent(areaId, (id, timeline) -> timeline.without(reservationId));
+		}
+	}
+
+	/**
+	 * Adds or replaces a saved series in the index.
+	 *
+	 * @param series the saved series
+	 */
+	public synchronized void putSeries(ReservationSeries series) {
+		if (horizon == null || series.getId() == null) {
+			// Not loaded yet, the series will be picked up when the index loads
+			return;
+		}
+		removeSeries(series.getId());
+		UUID areaId = series.getArea().getId();
+		seriesAreas.put(series.getId(), areaId);
+		seriesByArea.compute(areaId, (id, recurrences) -> {
+			Map<UUID, Recurrence> updated = new HashMap<>();
+			if (recurrences != null) {
+				updated.putAll(recurrences);
+			}
+			updated.put(series.getId(), series.getRecurrence());
+			return Map.copyOf(updated);
+		});
+	}
+
+	/**
+	 * Removes a deleted series from the index.
+	 *
+	 * @param seriesId the id of the deleted series
+	 */
+	public synchronized void removeSeries(UUID seriesId) {
+		UUID areaId = seriesAreas.remove(seriesId);
+		if (areaId != null) {
+			seriesByArea.computeIfPresent(areaId, (id, recurrences) -> {
+				Map<UUID, Recurrence> updated = new HashMap<>(recurrences);
+				updated.remove(seriesId);
+				return updated.isEmpty() ? null : Map.copyOf(updated);
+			});
+		}
+	}
+
+	/**
+	 * Removes every reservation and series of deleted areas from the index.
+	 *
+	 * @param areaIds the ids of the deleted areas
+	 */
+	public synchronized void removeAreas(Collection<UUID> areaIds) {
+		Set<UUID> removed = Set.copyOf(areaIds);
+		removed.forEach(timelines::remove);
+		removed.forEach(seriesByArea::remove);
+		reservationAreas.values().removeIf(removed::contains);
+		seriesAreas.values().removeIf(removed::contains);
+	}
+
+	/**
+	 * Moves the horizon to the start of the current day, and drops the reservations and series
+	 * that ended before it. Runs at the start of every day, and does nothing if the index has not
+	 * been loaded or the day has not changed.
+	 */
+	@Scheduled(cron = "${availability.horizon-cron:0 0 0 * * *}")
+	public synchronized void advanceHorizon() {
+		LocalDateTime newHorizon = LocalDate.now().atStartOfDay();
+		if (horizon == null || !newHorizon.isAfter(horizon)) {
+			return;
+		}
+		// Moved first, so lookups before the new horizon go to the database while pruning
+		horizon = newHorizon;
+
+		long cutoff = toSeconds(newHorizon);
+		for (UUID areaId : List.copyOf(timelines.keySet())) {
+			ReservationTimeline timeline = timelines.get(areaId);
+			timeline.getIdsEndingBy(cutoff).forEach(reservationAreas::remove);
+			ReservationTimeline remaining = timeline.endingAfter(cutoff);
+			if (remaining.size() == 0) {
+				timelines.remove(areaId);
+			} else {
+				timelines.put(areaId, remaining);
+			}
+		}
+
+		List<UUID> endedSeries = new ArrayList<>();
+		seriesByArea.values().forEach(recurrences -> recurrences.forEach((seriesId, recurrence) -> {
+			if (recurrence.getLastDate().isBefore(newHorizon.toLocalDate())) {
+				endedSeries.add(seriesId);
+			}
+		}));
+		endedSeries.forEach(this::removeSeries);
+	}
+
+	/**
+	 * Returns the timeline of the reservations of an area.
+	 *
+	 * @param areaId the id of the area
+	 * @return the timeline of the area, without series and holds
+	 */
+	private ReservationTimeline getTimeline(UUID areaId) {
+		return timelines.getOrDefault(areaId, ReservationTimeline.EMPTY);
+	}
+
+	/**
+	 * Returns the reservations of an area that are not kept in its timeline, within a time
+	 * window. These are the occurrences of its series, and optionally its active holds.
+	 *
+	 * @param areaId the id of the area
+	 * @param start the start of the time window
+	 * @param end the end of the time window
+	 * @param withHolds true to include the active holds of the area
+	 * @return an overlay of the reservations, or an empty timeline if there are none
+	 */
+	private ReservationTimeline getOverlay(
+		UUID areaId,
+		LocalDateTime start,
+		LocalDateTime end,
+		boolean withHolds
+	) {
+		List<ReservationSpan> spans = new ArrayList<>();
+		Map<UUID, Recurrence> recurrences = seriesByArea.get(areaId);
+		if (recurrences != null) {
+			recurrences.forEach((seriesId, recurrence) -> spans.addAll(
+				ReservationSpan.ofOccurrences(seriesId, areaId, recurrence, start, end)
+			));
+		}
+		if (withHolds) {
+			spans.addAll(slotHolds.getSpans(areaId, start, end));
+		}
+		return ReservationTimeline.overlayOf(spans);
+	}
+
+	/**
+	 * Loads the index from the database if it has not been loaded yet.
+	 */
+	private void ensureLoaded() {
+		if (horizon == null) {
+			load();
+		}
+	}
+
+	private synchronized void load() {
+		if (horizon != null) {
+			return;
+		}
+		// Starting at the start of the day keeps the occupancy of the current day complete
+		LocalDateTime loadTime = LocalDate.now().atStartOfDay();
+		Map<UUID, List<ReservationSpan>> spansByArea = reservationRepository
+			.findSpansEndingAfter(loadTime)
+			.stream()
+			.collect(Collectors.groupingBy(ReservationSpan::areaId));
+
+		spansByArea.forEach((areaId, spans) -> {
+			timelines.put(areaId, ReservationTimeline.of(spans));
+			spans.forEach(span -> reservationAreas.put(span.id(), areaId));
+		});
+
+		Map<UUID, Map<UUID, Recurrence>> recurrencesByArea = new HashMap<>();
+		for (ReservationSeries series : seriesRepository.findLastingUntil(loadTime.toLocalDate())) {
+			UUID areaId = series.getArea().getId();
+			recurrencesByArea
+				.computeIfAbsent(areaId, id -> new HashMap<>())
+				.put(series.getId(), series.getRecurrence());
+			seriesAreas.put(series.getId(), areaId);
+		}
+		recurrencesByArea.forEach((areaId, recurrences) ->
+			seriesByArea.put(areaId, Map.copyOf(recurrences))
+		);
+		horizon = loadTime;
+	}
+
+	/**
+	 * Converts a time to seconds on a single, consistent time line.
+	 * The offset is irrelevant, as long as the same one is used for every conversion.
+	 *
+	 * @param time the time to convert
+	 * @return the time as seconds
+	 */
+	static long toSeconds(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC);
+	}
+}
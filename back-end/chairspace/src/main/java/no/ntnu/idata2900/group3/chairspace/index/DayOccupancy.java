@@ -0,0 +1,181 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+/**
+ * The occupancy of a single area on a single day, as a bitmap of fifteen minute slots.
+ *
+ * <p>
+ * The 96 slots of a day are packed into two {@code long}s per bitmap. A slot is touched if any
+ * reservation overlaps it, and full if reservations cover all of it. The seconds reserved within
+ * slots that are touched but not full are kept separately, so the occupancy of the day stays
+ * exact for reservations that do not line up with the slots.
+ */
+final class DayOccupancy {
+	/** The length of a day in seconds. */
+	static final long DAY_SECONDS = 24 * 60 * 60;
+	/** The length of a slot in seconds. */
+	static final long SLOT_SECONDS = 15 * 60;
+	/** The amount of slots in a day. */
+	static final int SLOTS = (int) (DAY_SECONDS / SLOT_SECONDS);
+	/** The occupancy of a day without reservations. */
+	static final DayOccupancy FREE = new DayOccupancy(0, 0, 0, 0, 0);
+
+	private final long touchedLow;
+	private final long touchedHigh;
+	private final long fullLow;
+	private final long fullHigh;
+	private final long partialSeconds;
+
+	private DayOccupancy(
+		long touchedLow,
+		long touchedHigh,
+		long fullLow,
+		long fullHigh,
+		long partialSeconds
+	) {
+		this.touchedLow = touchedLow;
+		this.touchedHigh = touchedHigh;
+		this.fullLow = fullLow;
+		this.fullHigh = fullHigh;
+		this.partialSeconds = partialSeconds;
+	}
+
+	/**
+	 * Returns true if no reservation overlaps the day.
+	 *
+	 * @return true if the day is free
+	 */
+	boolean isFree() {
+		return touchedLow == 0 && touchedHigh == 0;
+	}
+
+	/**
+	 * Returns true if any reservation overlaps the slot.
+	 *
+	 * @param slot the index of the slot, from 0 to 95
+	 * @return true if the slot is touched
+	 */
+	boolean isTouched(int slot) {
+		return isSet(touchedLow, touchedHigh, slot);
+	}
+
+	/**
+	 * Returns true if reservations cover the whole slot.
+	 *
+	 * @param slot the index of the slot, from 0 to 95
+	 * @return true if the slot is full
+	 */
+	boolean isFull(int slot) {
+		return isSet(fullLow, fullHigh, slot);
+	}
+
+	/**
+	 * Returns the share of the day that is covered by reservations.
+	 *
+	 * @return the share of the day that is occupied, from 0 to 1
+	 */
+	float getFrequency() {
+		long fullSlots = Long.bitCount(fullLow) + Long.bitCount(fullHigh);
+		return (float) (fullSlots * SLOT_SECONDS + partialSeconds) / DAY_SECONDS;
+	}
+
+	private static boolean isSet(long low, long high, int slot) {
+		return slot < Long.SIZE
+			? (low & 1L << slot) != 0
+			: (high & 1L << (slot - Long.SIZE)) != 0;
+	}
+
+	/**
+	 * Builds the occupancy of a day from the reserved intervals of the day.
+	 */
+	static final class Builder {
+		private final long dayStart;
+		private long touchedLow;
+		private long touchedHigh;
+		private long fullLow;
+		private long fullHigh;
+		private long partialSeconds;
+
+		/**
+		 * Creates a builder for the day starting at the given time.
+		 *
+		 * @param dayStart the start of the day in seconds
+		 */
+		Builder(long dayStart) {
+			this.dayStart = dayStart;
+		}
+
+		/**
+		 * Adds a reserved interval. Intervals must lie within the day, and must not overlap
+		 * each other.
+		 *
+		 * @param start the start of the interval in seconds
+		 * @param end the end of the interval in seconds
+		 * @return this builder
+		 */
+		Builder add(long start, long end) {
+			if (end <= start) {
+				return this;
+			}
+			long from = start - dayStart;
+			long to = end - dayStart;
+
+			int firstTouched = (int) (from / SLOT_SECONDS);
+			int lastTouched = (int) ((to - 1) / SLOT_SECONDS);
+			setTouched(firstTouched, lastTouched);
+
+			int firstFull = (int) ((from + SLOT_SECONDS - 1) / SLOT_SECONDS);
+			int lastFull = (int) (to / SLOT_SECONDS) - 1;
+			long fullSeconds = 0;
+			if (firstFull <= lastFull) {
+				setFull(firstFull, lastFull);
+				fullSeconds = (lastFull - firstFull + 1) * SLOT_SECONDS;
+			}
+			partialSeconds += (to - from) - fullSeconds;
+			return this;
+		}
+
+		/**
+		 * Builds the occupancy.
+		 *
+		 * @return the occupancy of the day
+		 */
+		DayOccupancy build() {
+			return new DayOccupancy(touchedLow, touchedHigh, fullLow, fullHigh, partialSeconds);
+		}
+
+		private void setTouched(int first, int last) {
+			touchedLow |= lowBits(first, last);
+			touchedHigh |= highBits(first, last);
+		}
+
+		private void setFull(int first, int last) {
+			fullLow |= lowBits(first, last);
+			fullHigh |= highBits(first, last);
+		}
+
+		/**
+		 * Returns the bits of the slots from first to last that fall in the low word.
+		 */
+		private static long lowBits(int first, int last) {
+			return range(Math.max(first, 0), Math.min(last, Long.SIZE - 1));
+		}
+
+		/**
+		 * Returns the bits of the slots from first to last that fall in the high word.
+		 */
+		private static long highBits(int first, int last) {
+			return range(Math.max(first - Long.SIZE, 0), last - Long.SIZE);
+		}
+
+		/**
+		 * Returns a word where the bits from first to last, inclusive, are set.
+		 */
+		private static long range(int first, int last) {
+			if (first > last) {
+				return 0;
+			}
+			long upTo = last == Long.SIZE - 1 ? -1L : (1L << (last + 1)) - 1;
+			return upTo & (-1L << first);
+		}
+	}
+}
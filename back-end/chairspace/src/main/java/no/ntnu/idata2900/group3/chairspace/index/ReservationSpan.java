@@ -0,0 +1,54 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.Recurrence;
+import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
+
+/**
+ * The bare time span of a {@link Reservation}, without the area and user entities attached.
+ *
+ * <p>
+ * Used to load reservations into the {@link AvailabilityIndex} without materializing full
+ * entities. The occurrences of a series are spans with the id of their series.
+ *
+ * @param id the id of the reservation
+ * @param areaId the id of the reserved area
+ * @param start the start of the reservation
+ * @param end the end of the reservation
+ */
+public record ReservationSpan(
+	UUID id,
+	UUID areaId,
+	LocalDateTime start,
+	LocalDateTime end
+) {
+	/**
+	 * Expands the occurrences of a series that overlap the given time span.
+	 *
+	 * @param seriesId the id of the series
+	 * @param areaId the id of the reserved area
+	 * @param recurrence the recurrence of the series
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return the spans of the occurrences overlapping the time span
+	 */
+	public static List<ReservationSpan> ofOccurrences(
+		UUID seriesId,
+		UUID areaId,
+		Recurrence recurrence,
+		LocalDateTime start,
+		LocalDateTime end
+	) {
+		return recurrence.getDatesOverlapping(start, end)
+			.stream()
+			.map(date -> new ReservationSpan(
+				seriesId,
+				areaId,
+				recurrence.getStartOn(date),
+				recurrence.getEndOn(date)
+			))
+			.toList();
+	}
+}
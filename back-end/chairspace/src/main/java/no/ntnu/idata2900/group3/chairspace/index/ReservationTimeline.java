@@ -0,0 +1,524 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable, sorted timeline of the reservations belonging to a single area.
+ *
+ * <p>
+ * Reservations are stored as parallel arrays sorted by start time, alongside a running maximum
+ * of the end times. The running maximum lets a lookup jump straight to the first reservation that
+ * can affect a time window, even if reservations overlap.
+ *
+ * <p>
+ * Every day with reservations also has a {@link DayOccupancy} bitmap. Only the days touched by a
+ * modification are recomputed. The bitmaps answer occupancy questions for a day without walking
+ * the reservations, and short-cut free gap lookups within a single day.
+ *
+ * <p>
+ * Times are stored as seconds, see {@link AvailabilityIndex#toSeconds}. Any modification returns
+ * a new timeline, which allows readers to use a timeline without locking.
+ *
+ * <p>
+ * Reservations that only matter to a single lookup, such as the occurrences of series and active
+ * holds, are passed to the lookup as an overlay, see {@link #overlayOf}. The overlay is walked
+ * together with the timeline, so the timeline is never copied to answer a lookup.
+ */
+final class ReservationTimeline {
+	static final ReservationTimeline EMPTY = new ReservationTimeline(
+		new UUID[0],
+		new long[0],
+		new long[0],
+		Map.of(),
+		new long[0],
+		new long[0]
+	);
+
+	private final UUID[] ids;
+	private final long[] starts;
+	private final long[] ends;
+	private final long[] maxEnds;
+	private final Map<Long, DayOccupancy> days;
+
+	/**
+	 * Creates a timeline, and recomputes the occupancy of the days touched by the given
+	 * reservations.
+	 *
+	 * @param ids the ids of the reservations, sorted by start
+	 * @param starts the starts of the reservations, sorted
+	 * @param ends the ends of the reservations, in the same order as the starts
+	 * @param previousDays the occupancy of the days before the change
+	 * @param changedStarts the starts of the reservations that were added or removed
+	 * @param changedEnds the ends of the reservations that were added or removed
+	 */
+	private ReservationTimeline(
+		UUID[] ids,
+		long[] starts,
+		long[] ends,
+		Map<Long, DayOccupancy> previousDays,
+		long[] changedStarts,
+		long[] changedEnds
+	) {
+		this.ids = ids;
+		this.starts = starts;
+		this.ends = ends;
+		this.maxEnds = new long[ends.length];
+		long maxEnd = Long.MIN_VALUE;
+		for (int i = 0; i < ends.length; i++) {
+			maxEnd = Math.max(maxEnd, ends[i]);
+			maxEnds[i] = maxEnd;
+		}
+
+		Map<Long, DayOccupancy> newDays = new HashMap<>(previousDays);
+		for (int i = 0; i < changedStarts.length; i++) {
+			long lastDay = dayOf(Math.max(changedStarts[i], changedEnds[i] - 1));
+			for (long day = dayOf(changedStarts[i]); day <= lastDay; day++) {
+				DayOccupancy occupancy = computeDay(day, EMPTY);
+				if (occupancy.isFree()) {
+					newDays.remove(day);
+				} else {
+					newDays.put(day, occupancy);
+				}
+			}
+		}
+		this.days = Map.copyOf(newDays);
+	}
+
+	/**
+	 * Returns the amount of reservations in this timeline.
+	 *
+	 * @return the amount of reservations in this timeline
+	 */
+	int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns a copy of this timeline where the given reservation is added.
+	 * If a reservation with the same id already exists, it is replaced.
+	 *
+	 * @param id the id of the reservation
+	 * @param start the start of the reservation in seconds
+	 * @param end the end of the reservation in seconds
+	 * @return a new timeline containing the reservation
+	 */
+	ReservationTimeline with(UUID id, long start, long end) {
+		ReservationTimeline base = without(id);
+		int index = base.lowerBound(start);
+		int length = base.size() + 1;
+
+		UUID[] newIds = new UUID[length];
+		long[] newStarts = new long[length];
+		long[] newEnds = new long[length];
+
+		System.arraycopy(base.ids, 0, newIds, 0, index);
+		System.arraycopy(base.starts, 0, newStarts, 0, index);
+		System.arraycopy(base.ends, 0, newEnds, 0, index);
+
+		newIds[index] = id;
+		newStarts[index] = start;
+		newEnds[index] = end;
+
+		System.arraycopy(base.ids, index, newIds, index + 1, base.size() - index);
+		System.arraycopy(base.starts, index, newStarts, index + 1, base.size() - index);
+		System.arraycopy(base.ends, index, newEnds, index + 1, base.size() - index);
+
+		return new ReservationTimeline(
+			newIds,
+			newStarts,
+			newEnds,
+			base.days,
+			new long[] {start},
+			new long[] {end}
+		);
+	}
+
+	/**
+	 * Returns the ids of the reservations that end at or before the given time.
+	 *
+	 * @param time the time in seconds
+	 * @return the ids of the reservations ending by the time
+	 */
+	List<UUID> getIdsEndingBy(long time) {
+		List<UUID> ended = new ArrayList<>();
+		for (int i = 0; i < ends.length; i++) {
+			if (ends[i] <= time) {
+				ended.add(ids[i]);
+			}
+		}
+		return ended;
+	}
+
+	/**
+	 * Returns a copy of this timeline without the reservations that end at or before the given
+	 * time, and without the occupancy of the days before it. Used to drop reservations that have
+	 * fallen behind the horizon of the index.
+	 *
+	 * @param time the time in seconds
+	 * @return a timeline of the reservations ending after the time, or this timeline if every
+	 *     reservation does
+	 */
+	ReservationTimeline endingAfter(long time) {
+		int kept = 0;
+		for (long end : ends) {
+			if (end > time) {
+				kept++;
+			}
+		}
+		long firstDay = dayOf(time);
+		if (kept == ends.length && days.keySet().stream().allMatch(day -> day >= firstDay)) {
+			return this;
+		}
+
+		UUID[] newIds = new UUID[kept];
+		long[] newStarts = new long[kept];
+		long[] newEnds = new long[kept];
+		int index = 0;
+		for (int i = 0; i < ends.length; i++) {
+			if (ends[i] > time) {
+				newIds[index] = ids[i];
+				newStarts[index] = starts[i];
+				newEnds[index] = ends[i];
+				index++;
+			}
+		}
+		Map<Long, DayOccupancy> newDays = new HashMap<>(days);
+		newDays.keySet().removeIf(day -> day < firstDay);
+		return new ReservationTimeline(
+			newIds,
+			newStarts,
+			newEnds,
+			newDays,
+			new long[0],
+			new long[0]
+		);
+	}
+
+	/**
+	 * Returns a copy of this timeline without the reservation with the given id.
+	 * Returns this timeline if no such reservation exists.
+	 *
+	 * @param id the id of the reservation to remove
+	 * @return a timeline without the reservation
+	 */
+	ReservationTimeline without(UUID id) {
+		int index = -1;
+		for (int i = 0; i < ids.length && index < 0; i++) {
+			if (ids[i].equals(id)) {
+				index = i;
+			}
+		}
+		if (index < 0) {
+			return this;
+		}
+		int length = ids.length - 1;
+
+		UUID[] newIds = new UUID[length];
+		long[] newStarts = new long[length];
+		long[] newEnds = new long[length];
+
+		System.arraycopy(ids, 0, newIds, 0, index);
+		System.arraycopy(starts, 0, newStarts, 0, index);
+		System.arraycopy(ends, 0, newEnds, 0, index);
+
+		System.arraycopy(ids, index + 1, newIds, index, length - index);
+		System.arraycopy(starts, index + 1, newStarts, index, length - index);
+		System.arraycopy(ends, index + 1, newEnds, index, length - index);
+
+		return new ReservationTimeline(
+			newIds,
+			newStarts,
+			newEnds,
+			days,
+			new long[] {starts[index]},
+			new long[] {ends[index]}
+		);
+	}
+
+	/**
+	 * Checks if the timeline has a free gap of at least {@code minGap} seconds within the window.
+	 *
+	 * @param windowStart the start of the window in seconds
+	 * @param windowEnd the end of the window in seconds
+	 * @param minGap the minimum length of the gap in seconds
+	 * @return true if there is a gap of at least {@code minGap} seconds within the window
+	 */
+	boolean hasFreeGap(long windowStart, long windowEnd, long minGap) {
+		return hasFreeGap(windowStart, windowEnd, minGap, EMPTY);
+	}
+
+	/**
+	 * Checks if the timeline, together with the reservations of an overlay, has a free gap of at
+	 * least {@code minGap} seconds within the window.
+	 *
+	 * @param windowStart the start of the window in seconds
+	 * @param windowEnd the end of the window in seconds
+	 * @param minGap the minimum length of the gap in seconds
+	 * @param overlay the reservations to check together with this timeline
+	 * @return true if there is a gap of at least {@code minGap} seconds within the window
+	 * @see #overlayOf
+	 */
+	boolean hasFreeGap(long windowStart, long windowEnd, long minGap, ReservationTimeline overlay) {
+		if (windowEnd > windowStart && dayOf(windowStart) == dayOf(windowEnd - 1)) {
+			// The bitmaps do not know the overlay, but a window they show as full stays full
+			Boolean answer = hasFreeGapBySlots(windowStart, windowEnd, minGap);
+			if (answer != null && (overlay.size() == 0 || !answer)) {
+				return answer;
+			}
+		}
+
+		int index = lowerBound(windowStart);
+		int extra = overlay.lowerBound(windowStart);
+		long gapStart = windowStart;
+		// Reservations starting before the window may still reach into it
+		if (index > 0) {
+			gapStart = Math.max(gapStart, maxEnds[index - 1]);
+		}
+		if (extra > 0) {
+			gapStart = Math.max(gapStart, overlay.maxEnds[extra - 1]);
+		}
+
+		while (true) {
+			long start;
+			long end;
+			if (index < starts.length
+				&& (extra == overlay.size() || starts[index] <= overlay.starts[extra])) {
+				start = starts[index];
+				end = ends[index++];
+			} else if (extra < overlay.size()) {
+				start = overlay.starts[extra];
+				end = overlay.ends[extra++];
+			} else {
+				break;
+			}
+			if (start >= windowEnd) {
+				break;
+			}
+			if (start - gapStart >= minGap) {
+				return true;
+			}
+			gapStart = Math.max(gapStart, end);
+		}
+
+		return windowEnd - gapStart >= minGap;
+	}
+
+	/**
+	 * Tries to answer a free gap lookup within a single day from the slot bitmap of the day.
+	 *
+	 * <p>
+	 * A run of untouched slots that is long enough proves there is a gap, and a window where every
+	 * slot is full proves there is not. Anything else depends on where reservations start and end
+	 * within their slots, and is left to the exact lookup.
+	 *
+	 * @param windowStart the start of the window in seconds
+	 * @param windowEnd the end of the window in seconds, on the same day as the start
+	 * @param minGap the minimum length of the gap in seconds
+	 * @return the answer, or null if the bitmap cannot tell
+	 */
+	private Boolean hasFreeGapBySlots(long windowStart, long windowEnd, long minGap) {
+		DayOccupancy occupancy = getDay(dayOf(windowStart));
+		long dayStart = dayOf(windowStart) * DayOccupancy.DAY_SECONDS;
+		int firstSlot = (int) ((windowStart - dayStart) / DayOccupancy.SLOT_SECONDS);
+		int lastSlot = (int) ((windowEnd - 1 - dayStart) / DayOccupancy.SLOT_SECONDS);
+
+		long run = 0;
+		boolean allFull = true;
+		for (int slot = firstSlot; slot <= lastSlot; slot++) {
+			long slotStart = Math.max(dayStart + slot * DayOccupancy.SLOT_SECONDS, windowStart);
+			long slotEnd = Math.min(
+				dayStart + (slot + 1) * DayOccupancy.SLOT_SECONDS,
+				windowEnd
+			);
+			if (occupancy.isTouched(slot)) {
+				run = 0;
+			} else {
+				run += slotEnd - slotStart;
+				if (run >= minGap) {
+					return true;
+				}
+			}
+			allFull = allFull && occupancy.isFull(slot);
+		}
+		return allFull && minGap > 0 ? Boolean.FALSE : null;
+	}
+
+	/**
+	 * Returns the occupancy bitmap of a day.
+	 *
+	 * @param day the day, counted in days since the start of the time line
+	 * @return the occupancy of the day
+	 */
+	DayOccupancy getDay(long day) {
+		return days.getOrDefault(day, DayOccupancy.FREE);
+	}
+
+	/**
+	 * Returns the occupancy bitmap of a day, including the reservations of an overlay. The
+	 * stored bitmap is used if the overlay has nothing on the day.
+	 *
+	 * @param day the day, counted in days since the start of the time line
+	 * @param overlay the reservations to count together with this timeline
+	 * @return the occupancy of the day
+	 * @see #overlayOf
+	 */
+	DayOccupancy getDay(long day, ReservationTimeline overlay) {
+		long dayStart = day * DayOccupancy.DAY_SECONDS;
+		int extra = overlay.firstEndingAfter(dayStart);
+		boolean overlayTouchesDay = extra < overlay.size()
+			&& overlay.starts[extra] < dayStart + DayOccupancy.DAY_SECONDS;
+		return overlayTouchesDay ? computeDay(day, overlay) : getDay(day);
+	}
+
+	/**
+	 * Computes the occupancy bitmap of a day from the reservations, and those of an overlay.
+	 *
+	 * @param day the day, counted in days since the start of the time line
+	 * @param overlay the reservations to count together with this timeline
+	 * @return the occupancy of the day
+	 */
+	private DayOccupancy computeDay(long day, ReservationTimeline overlay) {
+		long dayStart = day * DayOccupancy.DAY_SECONDS;
+		long dayEnd = dayStart + DayOccupancy.DAY_SECONDS;
+		DayOccupancy.Builder builder = new DayOccupancy.Builder(dayStart);
+
+		// Reservations are merged into runs, so overlapping reservations are only counted once
+		long runStart = 0;
+		long runEnd = Long.MIN_VALUE;
+		int index = firstEndingAfter(dayStart);
+		int extra = overlay.firstEndingAfter(dayStart);
+		while (true) {
+			long start;
+			long end;
+			if (index < starts.length
+				&& (extra == overlay.size() || starts[index] <= overlay.starts[extra])) {
+				start = starts[index];
+				end = ends[index++];
+			} else if (extra < overlay.size()) {
+				start = overlay.starts[extra];
+				end = overlay.ends[extra++];
+			} else {
+				break;
+			}
+			if (start >= dayEnd) {
+				break;
+			}
+			if (end <= dayStart) {
+				continue;
+			}
+			start = Math.max(start, dayStart);
+			end = Math.min(end, dayEnd);
+			if (start <= runEnd) {
+				runEnd = Math.max(runEnd, end);
+			} else {
+				builder.add(runStart, runEnd);
+				runStart = start;
+				runEnd = end;
+			}
+		}
+		builder.add(runStart, runEnd);
+		return builder.build();
+	}
+
+	/**
+	 * Finds the index of the first reservation that, or any reservation before it, ends after
+	 * the given time. No reservation before the index reaches past the time.
+	 *
+	 * @param time the time in seconds
+	 * @return the index of the first reservation that may reach past the time
+	 */
+	private int firstEndingAfter(long time) {
+		int low = 0;
+		int high = maxEnds.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (maxEnds[middle] <= time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the day a time falls on.
+	 *
+	 * @param time the time in seconds
+	 * @return the day, counted in days since the start of the time line
+	 */
+	static long dayOf(long time) {
+		return Math.floorDiv(time, DayOccupancy.DAY_SECONDS);
+	}
+
+	/**
+	 * Finds the index of the first reservation starting at or after the given time.
+	 *
+	 * @param time the time in seconds
+	 * @return the index of the first reservation starting at or after the time
+	 */
+	private int lowerBound(long time) {
+		int low = 0;
+		int high = starts.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (starts[middle] < time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Builds a timeline from a list of spans. The spans do not have to be sorted.
+	 *
+	 * @param spans the spans to build the timeline from
+	 * @return a sorted timeline of the spans
+	 */
+	static ReservationTimeline of(List<ReservationSpan> spans) {
+		return of(spans, true);
+	}
+
+	/**
+	 * Builds an overlay from a list of spans, to pass to a single lookup on another timeline.
+	 * Unlike {@link #of}, the occupancy of the days is not computed, so an overlay can only be
+	 * used as the overlay of a lookup. Spans with the same id, such as the occurrences of a
+	 * series, are all kept.
+	 *
+	 * @param spans the spans to build the overlay from, in any order
+	 * @return a sorted overlay of the spans
+	 */
+	static ReservationTimeline overlayOf(List<ReservationSpan> spans) {
+		return spans.isEmpty() ? EMPTY : of(spans, false);
+	}
+
+	private static ReservationTimeline of(List<ReservationSpan> spans, boolean computeDays) {
+		List<ReservationSpan> sorted = new ArrayList<>(spans);
+		sorted.sort(Comparator.comparing(ReservationSpan::start));
+
+		UUID[] sortedIds = new UUID[sorted.size()];
+		long[] sortedStarts = new long[sorted.size()];
+		long[] sortedEnds = new long[sorted.size()];
+		for (int i = 0; i < sorted.size(); i++) {
+			ReservationSpan span = sorted.get(i);
+			sortedIds[i] = span.id();
+			sortedStarts[i] = AvailabilityIndex.toSeconds(span.start());
+			sortedEnds[i] = AvailabilityIndex.toSeconds(span.end());
+		}
+		return new ReservationTimeline(
+			sortedIds,
+			sortedStarts,
+			sortedEnds,
+			Map.of(),
+			computeDays ? sortedStarts : new long[0],
+			computeDays ? sortedEnds : new long[0]
+		);
+	}
+}
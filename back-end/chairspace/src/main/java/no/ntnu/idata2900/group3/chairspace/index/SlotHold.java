@@ -0,0 +1,46 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A short-lived hold on a time span in an area, kept while a user finishes a reservation.
+ *
+ * @param id the id of the hold
+ * @param areaId the id of the held area
+ * @param userId the id of the user holding the area
+ * @param start the start of the held time span
+ * @param end the end of the held time span
+ * @param expiresAt the time the hold expires
+ * @see SlotHolds
+ */
+public record SlotHold(
+	UUID id,
+	UUID areaId,
+	UUID userId,
+	LocalDateTime start,
+	LocalDateTime end,
+	Instant expiresAt
+) {
+	/**
+	 * Returns true if the hold shares any time with the given time span.
+	 *
+	 * @param otherStart the start of the time span
+	 * @param otherEnd the end of the time span
+	 * @return true if the hold overlaps the time span
+	 */
+	public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+		return start.isBefore(otherEnd) && otherStart.isBefore(end);
+	}
+
+	/**
+	 * Returns true if the hold has not expired at the given time.
+	 *
+	 * @param now the current time
+	 * @return true if the hold is active
+	 */
+	public boolean isActiveAt(Instant now) {
+		return now.isBefore(expiresAt);
+	}
+}
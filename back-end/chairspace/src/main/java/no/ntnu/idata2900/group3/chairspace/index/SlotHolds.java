@@ -0,0 +1,214 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The active holds on time spans in areas. A hold keeps other users from reserving a time span
+ * for a short while, so a user can finish a reservation without racing for it.
+ *
+ * <p>
+ * Holds are only kept in memory, and are never written to the database. They expire on their
+ * own after a fixed time to live. Expiry is tracked by a {@link TimingWheel}, which is advanced
+ * once a tick by a single scheduled task, so there is no timer per hold. Reads also check the
+ * expiry of each hold, so a hold never outlives its time to live between ticks.
+ *
+ * <p>
+ * Like the reservations in the {@link AvailabilityIndex}, the holds of each area are kept in an
+ * immutable list that is replaced on write, so reads do not lock.
+ */
+@Component
+public class SlotHolds {
+	/** The length of a tick of the timing wheel, in milliseconds. */
+	private static final long TICK_MILLIS = 1000;
+	/** The amount of buckets in the timing wheel. Longer holds wait for more revolutions. */
+	private static final int WHEEL_SIZE = 512;
+
+	private final Duration ttl;
+	private final int maxPerUser;
+	private final SearchCache searchCache;
+	private final Map<UUID, SlotHold> holds = new ConcurrentHashMap<>();
+	private final Map<UUID, List<SlotHold>> holdsByArea = new ConcurrentHashMap<>();
+	private final TimingWheel<UUID> wheel;
+
+	/**
+	 * Creates a new registry of holds.
+	 *
+	 * @param ttl how long a hold lasts
+	 * @param maxPerUser the maximum amount of active holds a single user may have
+	 * @param searchCache autowired search cache
+	 */
+	public SlotHolds(
+		@Value("${reservation.hold.ttl:PT5M}") Duration ttl,
+		@Value("${reservation.hold.max-per-user:5}") int maxPerUser,
+		SearchCache searchCache
+	) {
+		this.ttl = ttl;
+		this.maxPerUser = maxPerUser;
+		this.searchCache = searchCache;
+		this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+	}
+
+	/**
+	 * Places a hold on a time span in an area for the given user. Fails if another user holds an
+	 * overlapping time span, or if the user already has the maximum amount of holds. Does not
+	 * check for reservations.
+	 *
+	 * @param areaId the id of the area to hold
+	 * @param userId the id of the user holding the area
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return the new hold, or null if it could not be placed
+	 */
+	public synchronized SlotHold hold(
+		UUID areaId,
+		UUID userId,
+		LocalDateTime start,
+		LocalDateTime end
+	) {
+		expire();
+		Instant now = Instant.now();
+		if (isHeldByOther(areaId, start, end, userId)) {
+			return null;
+		}
+		long userHolds = holds.values().stream()
+			.filter(hold -> hold.userId().equals(userId) && hold.isActiveAt(now))
+			.count();
+		if (userHolds >= maxPerUser) {
+			return null;
+		}
+
+		SlotHold hold = new SlotHold(UUID.randomUUID(), areaId, userId, start, end, now.plus(ttl));
+		holds.put(hold.id(), hold);
+		holdsByArea.compute(areaId, (id, areaHolds) -> {
+			List<SlotHold> updated = new ArrayList<>();
+			if (areaHolds != null) {
+				updated.addAll(areaHolds);
+			}
+			updated.add(hold);
+			return List.copyOf(updated);
+		});
+		wheel.schedule(hold.id(), hold.expiresAt().toEpochMilli());
+		searchCache.invalidate(areaId, start, end);
+		return hold;
+	}
+
+	/**
+	 * Gets an active hold.
+	 *
+	 * @param holdId the id of the hold
+	 * @return the hold, or null if it does not exist or has expired
+	 */
+	public SlotHold get(UUID holdId) {
+		SlotHold hold = holds.get(holdId);
+		return hold != null && hold.isActiveAt(Instant.now()) ? hold : null;
+	}
+
+	/**
+	 * Releases a hold before it expires.
+	 *
+	 * @param holdId the id of the hold
+	 * @return the released hold, or null if it does not exist or has expired
+	 */
+	public synchronized SlotHold release(UUID holdId) {
+		SlotHold hold = get(holdId);
+		if (hold != null) {
+			remove(hold);
+		}
+		return hold;
+	}
+
+	/**
+	 * Releases every hold in deleted areas. Unlike {@link #release}, cached searches are not
+	 * invalidated for each hold, so the caller should clear the search cache when it is done.
+	 *
+	 * @param areaIds the ids of the deleted areas
+	 */
+	public synchronized void releaseAreas(Collection<UUID> areaIds) {
+		for (UUID areaId : Set.copyOf(areaIds)) {
+			List<SlotHold> areaHolds = holdsByArea.remove(areaId);
+			if (areaHolds != null) {
+				// The holds stay on the timing wheel, and are skipped when they expire
+				areaHolds.forEach(hold -> holds.remove(hold.id()));
+			}
+		}
+	}
+
+	/**
+	 * Checks if a user other than the given one holds any time within a time span.
+	 *
+	 * @param areaId the id of the area
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @param userId the id of the user whose own holds are ignored, or null to include all
+	 * @return true if another user holds time within the time span
+	 */
+	public boolean isHeldByOther(
+		UUID areaId,
+		LocalDateTime start,
+		LocalDateTime end,
+		UUID userId
+	) {
+		Instant now = Instant.now();
+		return holdsByArea.getOrDefault(areaId, List.of()).stream().anyMatch(hold ->
+			!hold.userId().equals(userId) && hold.isActiveAt(now) && hold.overlaps(start, end)
+		);
+	}
+
+	/**
+	 * Returns the active holds of an area within a time span, as spans that can be checked like
+	 * reservations.
+	 *
+	 * @param areaId the id of the area
+	 * @param start the start of the time span
+	 * @param end the end of the time span
+	 * @return the spans of the holds overlapping the time span
+	 */
+	public List<ReservationSpan> getSpans(UUID areaId, LocalDateTime start, LocalDateTime end) {
+		List<SlotHold> areaHolds = holdsByArea.get(areaId);
+		if (areaHolds == null) {
+			return List.of();
+		}
+		Instant now = Instant.now();
+		return areaHolds.stream()
+			.filter(hold -> hold.isActiveAt(now) && hold.overlaps(start, end))
+			.map(hold -> new ReservationSpan(hold.id(), areaId, hold.start(), hold.end()))
+			.toList();
+	}
+
+	/**
+	 * Advances the timing wheel, and removes every hold that expired since the last tick.
+	 */
+	@Scheduled(fixedDelay = TICK_MILLIS)
+	public synchronized void expire() {
+		for (UUID holdId : wheel.advance(System.currentTimeMillis())) {
+			SlotHold hold = holds.get(holdId);
+			// Holds that were released early are already gone
+			if (hold != null) {
+				remove(hold);
+			}
+		}
+	}
+
+	private void remove(SlotHold hold) {
+		holds.remove(hold.id());
+		holdsByArea.computeIfPresent(hold.areaId(), (id, areaHolds) -> {
+			List<SlotHold> updated = new ArrayList<>(areaHolds);
+			updated.remove(hold);
+			return updated.isEmpty() ? null : List.copyOf(updated);
+		});
+		searchCache.invalidate(hold.areaId(), hold.start(), hold.end());
+	}
+}
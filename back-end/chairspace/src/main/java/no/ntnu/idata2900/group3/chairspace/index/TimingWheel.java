@@ -0,0 +1,113 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A hashed timing wheel, which tracks when a large amount of items expire at a fixed cost per
+ * item.
+ *
+ * <p>
+ * Time is divided into ticks, and the wheel has a bucket per tick that wraps around. An item is
+ * put in the bucket of the tick it expires on, so scheduling an item is constant time. Advancing
+ * the wheel only visits the buckets of the ticks that passed, and items in those buckets that
+ * belong to a later revolution are left in place.
+ *
+ * <p>
+ * The wheel has no thread of its own. It is advanced by whoever uses it, see {@link #advance}.
+ * Items cannot be cancelled. Instead, callers should ignore expired items that are no longer in
+ * use. The wheel is not thread safe.
+ *
+ * @param <T> the type of the items
+ */
+final class TimingWheel<T> {
+	private final long tickMillis;
+	private final ArrayDeque<Entry<T>>[] buckets;
+	private final int mask;
+	private long currentTick;
+	private int size;
+
+	/**
+	 * Creates a new timing wheel.
+	 *
+	 * @param tickMillis the length of a tick in milliseconds
+	 * @param wheelSize the amount of buckets, must be a power of two
+	 * @param nowMillis the current time in milliseconds
+	 * @throws IllegalArgumentException if the tick is not positive or the wheel size is not a
+	 *     power of two
+	 */
+	@SuppressWarnings("unchecked")
+	TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("Tick must be positive");
+		}
+		if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+			throw new IllegalArgumentException("Wheel size must be a power of two");
+		}
+		this.tickMillis = tickMillis;
+		this.buckets = new ArrayDeque[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			buckets[i] = new ArrayDeque<>();
+		}
+		this.mask = wheelSize - 1;
+		this.currentTick = nowMillis / tickMillis;
+	}
+
+	/**
+	 * Returns the amount of items that have not expired yet.
+	 *
+	 * @return the amount of scheduled items
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules an item to expire at the given time. Items are expired on the first tick at or
+	 * after their deadline.
+	 *
+	 * @param item the item to schedule
+	 * @param deadlineMillis the time the item expires, in milliseconds
+	 */
+	void schedule(T item, long deadlineMillis) {
+		long deadlineTick = Math.max(
+			Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis),
+			currentTick + 1
+		);
+		buckets[(int) (deadlineTick & mask)].add(new Entry<>(item, deadlineTick));
+		size++;
+	}
+
+	/**
+	 * Advances the wheel to the given time, and returns every item that expired on the way.
+	 *
+	 * @param nowMillis the current time in milliseconds
+	 * @return the items that expired since the wheel was last advanced
+	 */
+	List<T> advance(long nowMillis) {
+		long nowTick = nowMillis / tickMillis;
+		if (nowTick <= currentTick) {
+			return List.of();
+		}
+		List<T> expired = new ArrayList<>();
+		// After a full revolution every bucket has been visited, so there is no need to go on
+		long lastTick = Math.min(nowTick, currentTick + buckets.length);
+		for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+			Iterator<Entry<T>> entries = buckets[(int) (tick & mask)].iterator();
+			while (entries.hasNext()) {
+				Entry<T> entry = entries.next();
+				if (entry.deadlineTick() <= nowTick) {
+					entries.remove();
+					expired.add(entry.item());
+				}
+			}
+		}
+		currentTick = nowTick;
+		size -= expired.size();
+		return expired;
+	}
+
+	private record Entry<T>(T item, long deadlineTick) {}
+}
@@ -1,11 +1,20 @@
 package no.ntnu.idata2900.group3.chairspace.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorLink;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAttributes;
+import no.ntnu.idata2900.group3.chairspace.index.AreaFeatureLink;
+import no.ntnu.idata2900.group3.chairspace.index.AreaNode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,86 +25,223 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AreaRepository extends JpaRepository<Area, UUID> {
+	@Override
+	@EntityGraph(Area.CARD_GRAPH)
+	Page<Area> findAll(Pageable pageable);
+
+	@Override
+	@EntityGraph(Area.CARD_GRAPH)
+	List<Area> findAllById(Iterable<UUID> ids);
+
+	/**
+	 * Finds an area with everything shown when it is viewed on its own.
+	 *
+	 * @param id the id of the area
+	 * @return the area, or empty if it does not exist
+	 */
+	@EntityGraph(Area.DETAIL_GRAPH)
+	Optional<Area> findDetailById(UUID id);
 
 	/**
-	 * Finds all direct sub areas of a given super area.
+	 * Finds the place of every area in the hierarchy, without loading the area entities.
+	 * Used to load the in-memory area tree.
+	 *
+	 * @return a node for every area
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.AreaNode(
+			area.id,
+			superArea.id,
+			area.name,
+			areaType
+		)
+		FROM Area area
+		LEFT JOIN area.superArea superArea
+		LEFT JOIN area.areaType areaType
+		""")
+	List<AreaNode> findAllNodes();
+
+	/**
+	 * Finds the ids of all sub areas of a given super area, at any depth, in a single query.
+	 * The super area itself is not included. The ids are ordered from the deepest sub areas up,
+	 * so deleting the areas in this order never deletes an area before its sub areas.
+	 *
+	 * <p>
+	 * Unlike the in-memory area tree, this sees areas written by other instances of the
+	 * application. The walk stops if it reaches an area it has already visited, so a cycle in the
+	 * hierarchy cannot make the query run forever.
 	 *
 	 * @param superAreaId id of the super area to find sub areas for
-	 * @return a list of sub areas of the given super area
+	 * @return a list of all sub areas below the given super area, deepest first
+	 */
+	@Query(nativeQuery = true, value = """
+		WITH RECURSIVE subtree(area_id, depth, path) AS (
+			SELECT area.area_id, 1, ARRAY[area.super_area_area_id, area.area_id]
+			FROM {h-schema}areas area
+			WHERE area.super_area_area_id = :superAreaId
+			UNION ALL
+			SELECT child.area_id, subtree.depth + 1, subtree.path || child.area_id
+			FROM {h-schema}areas child
+			JOIN subtree ON child.super_area_area_id = subtree.area_id
+			WHERE NOT child.area_id = ANY(subtree.path)
+		)
+		SELECT subtree.area_id
+		FROM subtree
+		ORDER BY subtree.depth DESC
+		""")
+	List<UUID> findSubAreaIds(@Param("superAreaId") UUID superAreaId);
+
+	/**
+	 * Finds the ids of all super areas of a given area, in a single query.
+	 * The ids are ordered from the closest super area to the top of the hierarchy.
+	 *
+	 * <p>
+	 * Unlike the in-memory area tree, this sees areas written by other instances of the
+	 * application. The walk stops if it reaches an area it has already visited, so a cycle in the
+	 * hierarchy cannot make the query run forever.
+	 *
+	 * @param areaId id of the area to find super areas for
+	 * @return a list of the ids of all super areas of the area, closest first
+	 */
+	@Query(nativeQuery = true, value = """
+		WITH RECURSIVE ancestors(area_id, depth, path) AS (
+			SELECT area.super_area_area_id, 1, ARRAY[area.area_id]
+			FROM {h-schema}areas area
+			WHERE area.area_id = :areaId
+			AND area.super_area_area_id IS NOT NULL
+			UNION ALL
+			SELECT parent.super_area_area_id, ancestors.depth + 1, ancestors.path || parent.area_id
+			FROM {h-schema}areas parent
+			JOIN ancestors ON parent.area_id = ancestors.area_id
+			WHERE parent.super_area_area_id IS NOT NULL
+			AND NOT parent.area_id = ANY(ancestors.path)
+		)
+		SELECT ancestors.area_id
+		FROM ancestors
+		ORDER BY ancestors.depth
+		""")
+	List<UUID> findSuperAreaIds(@Param("areaId") UUID areaId);
+
+	/**
+	 * Finds the searchable attributes of every area, without loading the area entities.
+	 * Used to load the in-memory area attribute index.
+	 *
+	 * @return the attributes of every area
 	 */
 	@Query("""
-		SELECT area.id
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.AreaAttributes(
+			area.id,
+			area.name,
+			area.capacity,
+			areaType.name,
+			area.reservable,
+			area.planControlled
+		)
 		FROM Area area
-		WHERE area.superArea.id = :superAreaId
+		LEFT JOIN area.areaType areaType
 		""")
-	List<UUID> findIdBySuperAreaId(UUID superAreaId);
+	List<AreaAttributes> findAllAttributes();
 
 	/**
-	 * Searches for areas based on various optional parameters.
+	 * Finds every link between an area and its features, without loading the area entities.
+	 * Used to load the in-memory area attribute index.
 	 *
-	 * @param pageable the pageable used for pagination
-	 * @param capacity the minimum capacity of the area
-	 * @param subAreaIds the list of sub area IDs to filter by
-	 * @param areaTypeId area type ID to filter by
-	 * @param areaFeatureIds the list of area feature IDs to filter by
-	 * @param freeAreaIds the list of free area IDs to filter by
-	 * @param featureCount the minimum number of features the area should have
-	 * @return a list of areas that match the search criteria
-	 */
-	@Query(value = """
-		SELECT area
+	 * @return a link for every feature of every area
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.AreaFeatureLink(
+			area.id,
+			areaFeature.name
+		)
+		FROM Area area
+		JOIN area.features areaFeature
+		""")
+	List<AreaFeatureLink> findAllFeatureLinks();
+
+	/**
+	 * Finds every direct administrator of every area, without loading area or user entities.
+	 *
+	 * @return a link for every direct administrator of every area
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorLink(
+			area.id,
+			administrator.id
+		)
 		FROM Area area
-		LEFT JOIN area.features areaFeature
-		WHERE area.reservable = true
-		AND (:freeAreas IS NULL OR area.id IN (:freeAreas))
-		AND (:subAreas IS NULL OR area.id IN (:subAreas))
-		AND (:capacity IS NULL OR area.capacity >= :capacity)
-		AND (:areaType IS NULL OR area.areaType.name = :areaType)
-		AND (:features IS NULL OR areaFeature.name IN (:features))
-		GROUP BY area
-		HAVING (:featureCount IS NULL OR COUNT(areaFeature) >= :featureCount)
+		JOIN area.administrators administrator
 		""")
-	Page<Area> searchWithOptionalParams(
-		Pageable pageable,
-		@Param("capacity") Integer capacity,
-		@Param("subAreas") List<UUID> subAreaIds,
-		@Param("areaType") String areaTypeId,
-		@Param("features") List<String> areaFeatureIds,
-		@Param("freeAreas") List<UUID> freeAreaIds,
-		@Param("featureCount") Integer featureCount
-	);
+	List<AreaAdministratorLink> findAllAdministratorLinks();
 
 	/**
-	 * Finds all areas that have this user as an admin.
+	 * Finds a page of the areas with the given ids.
 	 *
-	 * @param userId the id of user to find areas for
+	 * @param ids the ids of the areas to find
 	 * @param pageable the pageable used for pagination
-	 * @return a list of areas that have this user as an admin
+	 * @return a page of the areas with the given ids
 	 */
-	Page<Area> findByAdministrators_Id(UUID userId, Pageable pageable);
+	@EntityGraph(Area.CARD_GRAPH)
+	Page<Area> findByIdIn(Collection<UUID> ids, Pageable pageable);
 
 	/**
-	 * Gets ALL areas that have this user as an admin.
+	 * Finds the first areas sorted by name and then by id. Used for the first page of keyset
+	 * pagination.
 	 *
-	 * @param userId the user to get areas for
-	 * @return all areas that have this user as an admin
+	 * @param limit the maximum amount of areas to find
+	 * @return the first areas in order
 	 */
-	List<Area> findByAdministrators_Id(UUID userId);
+	@EntityGraph(Area.CARD_GRAPH)
+	List<Area> findAllByOrderByNameAscIdAsc(Limit limit);
 
 	/**
-	 * Finds areas by whether or not they are reservable or planControlled.
+	 * Finds the areas that come after the given name and id, sorted by name and then by id.
+	 * Used for keyset pagination.
 	 *
-	 * @param reservable reservable state of the area
-	 * @param planControl plan controlled state of the area
-	 * @return areas matching the parameters
+	 * @param name the name of the last area of the previous page
+	 * @param id the id of the last area of the previous page
+	 * @param limit the maximum amount of areas to find
+	 * @return the areas after the given area in order
 	 */
+	@EntityGraph(Area.CARD_GRAPH)
 	@Query("""
 		SELECT area
 		FROM Area area
-		WHERE area.reservable = ?1
-		OR area.planControlled = ?2
+		WHERE area.name > ?1
+		OR (area.name = ?1 AND area.id > ?2)
+		ORDER BY area.name, area.id
 		""")
-	public List<Area> findAllByPlanControlledOrReservable(boolean reservable, boolean planControl);
+	List<Area> findAfter(String name, UUID id, Limit limit);
+
+	/**
+	 * Finds the first areas with the given ids, sorted by name and then by id. Used for the first
+	 * page of keyset pagination.
+	 *
+	 * @param ids the ids of the areas to find
+	 * @param limit the maximum amount of areas to find
+	 * @return the first areas with the given ids in order
+	 */
+	@EntityGraph(Area.CARD_GRAPH)
+	List<Area> findByIdInOrderByNameAscIdAsc(Collection<UUID> ids, Limit limit);
+
+	/**
+	 * Finds the areas with the given ids that come after the given name and id, sorted by name
+	 * and then by id. Used for keyset pagination.
+	 *
+	 * @param ids the ids of the areas to find
+	 * @param name the name of the last area of the previous page
+	 * @param id the id of the last area of the previous page
+	 * @param limit the maximum amount of areas to find
+	 * @return the areas with the given ids after the given area in order
+	 */
+	@EntityGraph(Area.CARD_GRAPH)
+	@Query("""
+		SELECT area
+		FROM Area area
+		WHERE area.id IN ?1
+		AND (area.name > ?2 OR (area.name = ?2 AND area.id > ?3))
+		ORDER BY area.name, area.id
+		""")
+	List<Area> findByIdInAfter(Collection<UUID> ids, String name, UUID id, Limit limit);
 
 	/**
 	 * Gets a page of super areas matching the input search term.
@@ -104,11 +250,67 @@ public interface AreaRepository extends JpaRepository<Area, UUID> {
 	 * @param pageable a pageable to limit search results
 	 * @return a list of areas that are superareas and match the search term
 	 */
+	@EntityGraph(Area.CARD_GRAPH)
 	@Query("""
-		SELECT DISTINCT area.superArea
-		FROM Area area
-		WHERE area.superArea.name LIKE %:name%
-		ORDER BY area.superArea.name
+		SELECT superArea
+		FROM Area superArea
+		WHERE superArea.name LIKE %:name%
+		AND EXISTS (SELECT area FROM Area area WHERE area.superArea = superArea)
+		ORDER BY superArea.name
 		""")
 	public Page<Area> findSuperAreasByName(String name, Pageable pageable);
+
+	/**
+	 * Removes the given areas from every user's favorites. The columns of the favorites table are
+	 * named the other way around, so the id of the area is in the user_id column.
+	 *
+	 * @param areaIds the ids of the areas
+	 * @return the amount of removed favorites
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}user_favorites
+		WHERE user_id IN (:areaIds)
+		""")
+	public int deleteFavoritesByAreaIds(@Param("areaIds") Collection<UUID> areaIds);
+
+	/**
+	 * Removes every administrator of the given areas.
+	 *
+	 * @param areaIds the ids of the areas
+	 * @return the amount of removed administrators
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}area_administrators
+		WHERE area_id IN (:areaIds)
+		""")
+	public int deleteAdministratorsByAreaIds(@Param("areaIds") Collection<UUID> areaIds);
+
+	/**
+	 * Removes every feature of the given areas. The features themselves are kept.
+	 *
+	 * @param areaIds the ids of the areas
+	 * @return the amount of removed features
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}area_features
+		WHERE area_id IN (:areaIds)
+		""")
+	public int deleteFeaturesByAreaIds(@Param("areaIds") Collection<UUID> areaIds);
+
+	/**
+	 * Deletes the given areas in a single statement. Anything referencing the areas, including
+	 * their sub areas, must be deleted first.
+	 *
+	 * @param areaIds the ids of the areas to delete
+	 * @return the amount of deleted areas
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}areas
+		WHERE area_id IN (:areaIds)
+		""")
+	public int deleteAllByAreaIds(@Param("areaIds") Collection<UUID> areaIds);
 }
@@ -1,13 +1,18 @@
 package no.ntnu.idata2900.group3.chairspace.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import no.ntnu.idata2900.group3.chairspace.entity.Plan;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository for the Plan entity.
@@ -38,8 +43,18 @@ public interface PlanRepository extends JpaRepository<Plan, UUID> {
 	 * @param areaId the id of the area
 	 * @return all plans belonging to the area with the given id
 	 */
+	@EntityGraph(Plan.LIST_GRAPH)
 	List<Plan> findByAreaId(UUID areaId);
 
+	/**
+	 * Finds all plans that belong to the given areas.
+	 *
+	 * @param areaIds all areas to get plans for
+	 * @return all plans belonging to the given areas
+	 */
+	@EntityGraph(Plan.LIST_GRAPH)
+	List<Plan> findByAreaIdIn(Collection<UUID> areaIds);
+
 	/**
 	 * Finds all plans that belong to the given areas.
 	 *
@@ -47,8 +62,45 @@ public interface PlanRepository extends JpaRepository<Plan, UUID> {
 	 * @param pageable the pageable to use for pagination
 	 * @return a page of areas to get plans for
 	 */
+	@EntityGraph(Plan.LIST_GRAPH)
 	Page<Plan> findByAreaIdIn(List<UUID> areaIds, Pageable pageable);
 
+	/**
+	 * Finds the first plans that belong to the given areas, sorted by start date and then by id.
+	 * Used for the first page of keyset pagination.
+	 *
+	 * @param areaIds all areas to get plans for
+	 * @param limit the maximum amount of plans to find
+	 * @return the first plans belonging to the areas in order
+	 */
+	@EntityGraph(Plan.LIST_GRAPH)
+	List<Plan> findByAreaIdInOrderByStartDateAscIdAsc(Collection<UUID> areaIds, Limit limit);
+
+	/**
+	 * Finds the plans that belong to the given areas and come after the given start date and id,
+	 * sorted by start date and then by id. Used for keyset pagination.
+	 *
+	 * @param areaIds all areas to get plans for
+	 * @param startDate the start date of the last plan of the previous page
+	 * @param id the id of the last plan of the previous page
+	 * @param limit the maximum amount of plans to find
+	 * @return the plans belonging to the areas after the given plan in order
+	 */
+	@EntityGraph(Plan.LIST_GRAPH)
+	@Query("""
+		SELECT plan
+		FROM Plan plan
+		WHERE plan.area.id IN ?1
+		AND (plan.startDate > ?2 OR (plan.startDate = ?2 AND plan.id > ?3))
+		ORDER BY plan.startDate, plan.id
+		""")
+	List<Plan> findByAreaIdInAfter(
+		Collection<UUID> areaIds,
+		LocalDate startDate,
+		UUID id,
+		Limit limit
+	);
+
 	/**
 	 * Returns true if there is a plan marking the area as free for the given time slot.
 	 *
@@ -65,4 +117,27 @@ public interface PlanRepository extends JpaRepository<Plan, UUID> {
 		AND plan.endDate >= ?3
 		""")
 	public boolean isReservable(UUID areaId, LocalDate start, LocalDate end);
+
+	/**
+	 * Deletes up to the given amount of plans in any of the given areas. Used to delete the
+	 * plans of many areas in chunks, so no single transaction grows too large.
+	 *
+	 * @param areaIds the ids of the areas to delete the plans of
+	 * @param limit the maximum amount of plans to delete
+	 * @return the amount of deleted plans
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}plan
+		WHERE id IN (
+			SELECT id
+			FROM {h-schema}plan
+			WHERE area_area_id IN (:areaIds)
+			LIMIT :limit
+		)
+		""")
+	public int deleteChunkByAreaIds(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("limit") int limit
+	);
 }
@@ -1,11 +1,26 @@
 package no.ntnu.idata2900.group3.chairspace.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation;
 import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
+import no.ntnu.idata2900.group3.chairspace.index.ReservationSpan;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,56 +28,73 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+	@Override
+	@EntityGraph(Reservation.LIST_GRAPH)
+	Optional<Reservation> findById(UUID id);
+
+	@Override
+	@EntityGraph(Reservation.LIST_GRAPH)
+	Page<Reservation> findAll(Pageable pageable);
+
 	/**
-	 * Returns a list of all reservations in an area that fall within the given timespace. This
-	 * includes reservations that are only partially within the timespace, as well as reservations
-	 * that start before the timespace and end after it.
+	 * Returns the simple representation of all reservations in any of the given areas that fall
+	 * within the given timespace. This includes reservations that are only partially within the
+	 * timespace, as well as reservations that start before the timespace and end after it.
+	 * Reservations that only touch the start or end of the timespace are not included.
 	 *
-	 * @param areaId the id of the area to get from
+	 * <p>
+	 * Only the columns shown in a listing are selected, so no entities are loaded.
+	 *
+	 * @param areaIds the ids of the areas to get from
 	 * @param startTime the time to start search from
 	 * @param endTime the time to end search from
-	 * @return a list of all reservations for the given area that fall between start and end
+	 * @param sessionUserId the id of the logged in user, used to mark their reservations as
+	 *     theirs, or null if no user is logged in
+	 * @return the reservations for the given areas that fall between start and end, sorted by start
 	 */
 	@Query("""
-		SELECT res
-		FROM Reservation res
-		WHERE res.area.id = ?1
-		AND (
-			res.startDateTime BETWEEN ?2 AND ?3
-			OR
-			res.endDateTime BETWEEN ?2 and ?3
-			OR
-			(
-				res.startDateTime < ?2 AND res.endDateTime > ?3
-			)
+		SELECT new no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation(
+			res.reservationUuid,
+			area.id,
+			area.name,
+			account.id,
+			account.name,
+			res.startDateTime,
+			res.endDateTime,
+			res.comment,
+			CASE WHEN account.id = ?4 THEN true ELSE false END
 		)
+		FROM Reservation res
+		JOIN res.area area
+		JOIN res.user account
+		WHERE area.id IN ?1
+		AND res.startDateTime < ?3
+		AND res.endDateTime > ?2
 		ORDER BY res.startDateTime ASC
 		""")
-	public List<Reservation> findReservationsForAreaInTimePeriod(
-		UUID areaId,
+	public List<SimpleReservation> findSimpleForAreasInTimePeriod(
+		Collection<UUID> areaIds,
 		LocalDateTime startTime,
-		LocalDateTime endTime
+		LocalDateTime endTime,
+		UUID sessionUserId
 	);
 
 	/**
 	 * Returns a list of all reservations, regardless of area, that fall within the given timespace.
 	 * This includes reservations that are only partially within the timespace, as well as
-	 * reservations that start before the timespace and end after it.
+	 * reservations that start before the timespace and end after it. Reservations that only touch
+	 * the start or end of the timespace are not included.
 	 *
 	 * @param startTime the time to start search from
 	 * @param endTime the time to end search from
 	 * @return a list of all reservations for the given area that fall between start and end
 	 */
+	@EntityGraph(Reservation.LIST_GRAPH)
 	@Query("""
 		SELECT res
 		FROM Reservation res
-		WHERE res.startDateTime BETWEEN ?1 AND ?2
-			OR
-			res.endDateTime BETWEEN ?1 and ?2
-			OR
-			(
-				res.startDateTime < ?1 AND res.endDateTime > ?2
-			)
+		WHERE res.startDateTime < ?2
+		AND res.endDateTime > ?1
 		ORDER BY res.area.id, res.startDateTime ASC
 		""")
 	public List<Reservation> findAllReservationsInTimePeriod(
@@ -71,7 +103,8 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
 	);
 
 	/**
-	 * Checks if the time slot is occupied by an existing reservation.
+	 * Checks if the time slot is occupied by an existing reservation. A reservation that ends
+	 * when the time slot starts, or starts when it ends, does not occupy it.
 	 *
 	 * @param areaId the area to check for
 	 * @param startTime the start time of the time slot
@@ -82,24 +115,69 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
 		SELECT COUNT(res) = 0
 		FROM Reservation res
 		WHERE res.area.id = ?1
-		AND (
-			res.startDateTime BETWEEN ?2 AND ?3
-			OR
-			res.endDateTime BETWEEN ?2 and ?3
-			OR
-			(
-				res.startDateTime < ?2 AND res.endDateTime > ?3
-			)
-		)
+		AND res.startDateTime < ?3
+		AND res.endDateTime > ?2
 		""")
 	public boolean isTimeSlotFree(UUID areaId, LocalDateTime startTime, LocalDateTime endTime);
 
+	/**
+	 * Checks if the time slot is occupied by an existing reservation other than the given one.
+	 * Used when an existing reservation is saved, so it does not overlap itself.
+	 *
+	 * @param areaId the area to check for
+	 * @param startTime the start time of the time slot
+	 * @param endTime the end time of the time slot
+	 * @param excludedId the id of the reservation to ignore
+	 * @return true if the time slot is free of other reservations
+	 */
+	@Query("""
+		SELECT COUNT(res) = 0
+		FROM Reservation res
+		WHERE res.area.id = ?1
+		AND res.reservationUuid <> ?4
+		AND res.startDateTime < ?3
+		AND res.endDateTime > ?2
+		""")
+	public boolean isTimeSlotFreeExcept(
+		UUID areaId,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		UUID excludedId
+	);
+
+	/**
+	 * Moves a reservation to a new time, but only if no other reservation in its area overlaps
+	 * the new time. The check and the move are done in a single statement, and only the times
+	 * of the reservation are written. Reservations that only touch the new time do not overlap.
+	 *
+	 * @param id the id of the reservation to move
+	 * @param startTime the new start time
+	 * @param endTime the new end time
+	 * @return 1 if the reservation was moved, 0 if it does not exist or the new time is taken
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		UPDATE Reservation res
+		SET res.startDateTime = ?2, res.endDateTime = ?3
+		WHERE res.reservationUuid = ?1
+		AND NOT EXISTS (
+			SELECT other
+			FROM Reservation other
+			WHERE other.area = res.area
+			AND other.reservationUuid <> ?1
+			AND other.startDateTime < ?3
+			AND other.endDateTime > ?2
+		)
+		""")
+	public int moveIfFree(UUID id, LocalDateTime startTime, LocalDateTime endTime);
+
 	/**
 	 * Returns a list of reservations belonging to the provided user id.
 	 *
 	 * @param userId the user who's reservations are being fetched
 	 * @return a list of reservations belonging to the user
 	 */
+	@EntityGraph(Reservation.LIST_GRAPH)
 	public List<Reservation> findAllByUserIdOrderByStartDateTimeAsc(UUID userId);
 
 	/**
@@ -108,18 +186,300 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
 	 * @param areaId the area who's reservations are being fetched
 	 * @return a list of reservations belonging to the area
 	 */
+	@EntityGraph(Reservation.LIST_GRAPH)
 	public List<Reservation> findAllByAreaIdOrderByStartDateTimeAsc(UUID areaId);
 
 	/**
-	 * Returns a page of reservations belonging to the provided user id.
+	 * Returns the simple representation of all reservations belonging to the provided user id,
+	 * sorted by start time. Only the columns shown in a listing are selected, so no entities are
+	 * loaded.
 	 *
 	 * @param userId the user who's reservations are being fetched
-	 * @return a page of reservations belonging to the user
+	 * @param sessionUserId the id of the logged in user, used to mark their reservations as
+	 *     theirs, or null if no user is logged in
+	 * @return the reservations belonging to the user
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation(
+			res.reservationUuid,
+			area.id,
+			area.name,
+			account.id,
+			account.name,
+			res.startDateTime,
+			res.endDateTime,
+			res.comment,
+			CASE WHEN account.id = ?2 THEN true ELSE false END
+		)
+		FROM Reservation res
+		JOIN res.area area
+		JOIN res.user account
+		WHERE account.id = ?1
+		ORDER BY res.startDateTime ASC
+		""")
+	public List<SimpleReservation> findSimpleByUserId(UUID userId, UUID sessionUserId);
+
+	/**
+	 * Streams the simple representation of all reservations that fall within the given timespace,
+	 * in every area where the provided user has a reservation within the same timespace, or a
+	 * series between the given dates. The reservations are sorted by area and then by start time,
+	 * so every area can be handled in turn as the rows arrive.
+	 *
+	 * <p>
+	 * The stream must be read and closed within a transaction. Areas where the user only has a
+	 * series, and no other reservations fall within the timespace, are not in the stream.
+	 *
+	 * @param userId the id of the user whose areas are read, used to mark their reservations as
+	 *     theirs
+	 * @param startTime the time to start search from
+	 * @param endTime the time to end search from
+	 * @param firstDate the first date the series of the user may occur on
+	 * @param lastDate the last date the series of the user may occur on, inclusive
+	 * @return the reservations in the areas of the user that fall between start and end
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation(
+			res.reservationUuid,
+			area.id,
+			area.name,
+			account.id,
+			account.name,
+			res.startDateTime,
+			res.endDateTime,
+			res.comment,
+			CASE WHEN account.id = ?1 THEN true ELSE false END
+		)
+		FROM Reservation res
+		JOIN res.area area
+		JOIN res.user account
+		WHERE res.startDateTime < ?3
+		AND res.endDateTime > ?2
+		AND area.id IN (
+			SELECT mine.area.id
+			FROM Reservation mine
+			WHERE mine.user.id = ?1
+			AND mine.startDateTime < ?3
+			AND mine.endDateTime > ?2
+			UNION
+			SELECT mineSeries.area.id
+			FROM ReservationSeries mineSeries
+			WHERE mineSeries.user.id = ?1
+			AND mineSeries.recurrence.firstDate <= ?5
+			AND mineSeries.recurrence.lastDate >= ?4
+		)
+		ORDER BY area.id, res.startDateTime ASC
+		""")
+	public Stream<SimpleReservation> streamSimpleForUserAreasInTimePeriod(
+		UUID userId,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		LocalDate firstDate,
+		LocalDate lastDate
+	);
+
+	/**
+	 * Returns the first reservations sorted by start time and then by id. Used for the first page
+	 * of keyset pagination.
+	 *
+	 * @param limit the maximum amount of reservations to return
+	 * @return the first reservations in order
+	 */
+	@EntityGraph(Reservation.LIST_GRAPH)
+	public List<Reservation> findAllByOrderByStartDateTimeAscReservationUuidAsc(Limit limit);
+
+	/**
+	 * Returns the reservations that come after the given start time and id, sorted by start time
+	 * and then by id. Used for keyset pagination.
+	 *
+	 * @param startTime the start time of the last reservation of the previous page
+	 * @param id the id of the last reservation of the previous page
+	 * @param limit the maximum amount of reservations to return
+	 * @return the reservations after the given reservation in order
 	 */
+	@EntityGraph(Reservation.LIST_GRAPH)
 	@Query("""
-		SELECT reservation
-		FROM Reservation reservation
-		WHERE reservation.user.id = ?1
+		SELECT res
+		FROM Reservation res
+		WHERE res.startDateTime > ?1
+		OR (res.startDateTime = ?1 AND res.reservationUuid > ?2)
+		ORDER BY res.startDateTime, res.reservationUuid
 		""")
-	public List<Reservation> findAllByUser(UUID userId);
-}
\ No newline at end of file
+	public List<Reservation> findAfter(LocalDateTime startTime, UUID id, Limit limit);
+
+	/**
+	 * Returns the time spans of all reservations that end after the given time.
+	 * Used to load the in-memory availability index without loading full entities.
+	 *
+	 * @param time the time the reservations must end after
+	 * @return the spans of all reservations ending after the given time
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.ReservationSpan(
+			res.reservationUuid,
+			res.area.id,
+			res.startDateTime,
+			res.endDateTime
+		)
+		FROM Reservation res
+		WHERE res.endDateTime > ?1
+		""")
+	public List<ReservationSpan> findSpansEndingAfter(LocalDateTime time);
+
+	/**
+	 * Returns the time spans of all reservations for the given area that overlap the given
+	 * timespace. Reservations that only touch the start or end of the timespace are not included.
+	 *
+	 * @param areaId the area to find reservations for
+	 * @param startTime the start of the timespace
+	 * @param endTime the end of the timespace
+	 * @return the spans of all reservations for the area overlapping the timespace
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.ReservationSpan(
+			res.reservationUuid,
+			res.area.id,
+			res.startDateTime,
+			res.endDateTime
+		)
+		FROM Reservation res
+		WHERE res.area.id = ?1
+		AND res.startDateTime < ?3
+		AND res.endDateTime > ?2
+		""")
+	public List<ReservationSpan> findSpansForAreaInTimePeriod(
+		UUID areaId,
+		LocalDateTime startTime,
+		LocalDateTime endTime
+	);
+
+	/**
+	 * Returns the time spans of all reservations for any of the given areas that overlap the
+	 * given timespace. Works like {@link #findSpansForAreaInTimePeriod}, but for several areas in
+	 * a single query.
+	 *
+	 * @param areaIds the areas to find reservations for
+	 * @param startTime the start of the timespace
+	 * @param endTime the end of the timespace
+	 * @return the spans of all reservations for the areas overlapping the timespace
+	 */
+	@Query("""
+		SELECT new no.ntnu.idata2900.group3.chairspace.index.ReservationSpan(
+			res.reservationUuid,
+			res.area.id,
+			res.startDateTime,
+			res.endDateTime
+		)
+		FROM Reservation res
+		WHERE res.area.id IN ?1
+		AND res.startDateTime < ?3
+		AND res.endDateTime > ?2
+		""")
+	public List<ReservationSpan> findSpansForAreasInTimePeriod(
+		Collection<UUID> areaIds,
+		LocalDateTime startTime,
+		LocalDateTime endTime
+	);
+
+	/**
+	 * Finds all of the given areas that have a free gap of at least the given length within the
+	 * time window, in a single statement.
+	 *
+	 * <p>
+	 * The start and end of the window are added to every area as empty sentinel reservations.
+	 * Every reservation is then compared to the latest end of all reservations before it, which
+	 * unlike {@code LAG} also handles reservations contained within an earlier one. Reservations
+	 * reaching outside the window are cut off by the sentinels.
+	 *
+	 * @param areaIds the ids of the areas to check, must not be empty
+	 * @param startTime the start of the time window
+	 * @param endTime the end of the time window
+	 * @param minGapSeconds the minimum length of a gap in seconds
+	 * @return the ids of the areas that have a gap of at least the given length
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT DISTINCT gaps.area_id
+		FROM (
+			SELECT
+				events.area_id,
+				events.start_time - MAX(events.end_time) OVER (
+					PARTITION BY events.area_id
+					ORDER BY events.start_time, events.end_time
+					ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING
+				) AS gap
+			FROM (
+				SELECT
+					area.area_id,
+					CAST(:startTime AS timestamp) AS start_time,
+					CAST(:startTime AS timestamp) AS end_time
+				FROM {h-schema}areas area
+				WHERE area.area_id IN (:areaIds)
+				UNION ALL
+				SELECT
+					area.area_id,
+					CAST(:endTime AS timestamp) AS start_time,
+					CAST(:endTime AS timestamp) AS end_time
+				FROM {h-schema}areas area
+				WHERE area.area_id IN (:areaIds)
+				UNION ALL
+				SELECT
+					res.area_area_id,
+					res.start_date_time,
+					res.end_date_time
+				FROM {h-schema}reservation res
+				WHERE res.area_area_id IN (:areaIds)
+				AND res.start_date_time < :endTime
+				AND res.end_date_time > :startTime
+			) events
+		) gaps
+		WHERE EXTRACT(EPOCH FROM gaps.gap) >= :minGapSeconds
+		""")
+	public List<UUID> findAreaIdsWithFreeGapLike(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("startTime") LocalDateTime startTime,
+		@Param("endTime") LocalDateTime endTime,
+		@Param("minGapSeconds") long minGapSeconds
+	);
+
+	/**
+	 * Gets the ids of up to the given amount of reservations in any of the given areas. Used to
+	 * delete the reservations of many areas in chunks, while knowing which ones were deleted.
+	 *
+	 * @param areaIds the ids of the areas to get the reservations of
+	 * @param limit the maximum amount of ids to get
+	 * @return the ids of the reservations
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT reservation_uuid
+		FROM {h-schema}reservation
+		WHERE area_area_id IN (:areaIds)
+		LIMIT :limit
+		""")
+	public List<UUID> findIdChunkByAreaIds(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("limit") int limit
+	);
+
+	/**
+	 * Deletes up to the given amount of reservations in any of the given areas. Used to delete the
+	 * reservations of many areas in chunks, so no single transaction grows too large.
+	 *
+	 * @param areaIds the ids of the areas to delete the reservations of
+	 * @param limit the maximum amount of reservations to delete
+	 * @return the amount of deleted reservations
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}reservation
+		WHERE reservation_uuid IN (
+			SELECT reservation_uuid
+			FROM {h-schema}reservation
+			WHERE area_area_id IN (:areaIds)
+			LIMIT :limit
+		)
+		""")
+	public int deleteChunkByAreaIds(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("limit") int limit
+	);
+}
@@ -0,0 +1,172 @@
+package no.ntnu.idata2900.group3.chairspace.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the ReservationSeries entity.
+ */
+@Repository
+public interface ReservationSeriesRepository extends JpaRepository<ReservationSeries, UUID> {
+	/**
+	 * Returns all series of an area that may occur between the given dates. The occurrences of
+	 * the series still have to be checked against the exact time span.
+	 *
+	 * @param areaId the id of the area to get from
+	 * @param firstDate the first date to search from
+	 * @param lastDate the last date to search to, inclusive
+	 * @return the series of the area whose dates overlap the given dates
+	 */
+	@Query("""
+		SELECT series
+		FROM ReservationSeries series
+		WHERE series.area.id = ?1
+		AND series.recurrence.firstDate <= ?3
+		AND series.recurrence.lastDate >= ?2
+		""")
+	public List<ReservationSeries> findForAreaInTimePeriod(
+		UUID areaId,
+		LocalDate firstDate,
+		LocalDate lastDate
+	);
+
+	/**
+	 * Returns all series of any of the given areas that may occur between the given dates. Works
+	 * like {@link #findForAreaInTimePeriod}, but for several areas in a single query. The area
+	 * and user of every series are fetched in the same query.
+	 *
+	 * @param areaIds the ids of the areas to get from
+	 * @param firstDate the first date to search from
+	 * @param lastDate the last date to search to, inclusive
+	 * @return the series of the areas whose dates overlap the given dates
+	 */
+	@Query("""
+		SELECT series
+		FROM ReservationSeries series
+		JOIN FETCH series.area
+		JOIN FETCH series.user
+		WHERE series.area.id IN ?1
+		AND series.recurrence.firstDate <= ?3
+		AND series.recurrence.lastDate >= ?2
+		""")
+	public List<ReservationSeries> findForAreasInTimePeriod(
+		Collection<UUID> areaIds,
+		LocalDate firstDate,
+		LocalDate lastDate
+	);
+
+	/**
+	 * Returns all series that may occur between the given dates, in every area where the provided
+	 * user has a reservation within the given timespace, or a series between the given dates.
+	 * Works like {@link #findForAreasInTimePeriod}, but finds the areas in the same query.
+	 *
+	 * @param userId the id of the user whose areas are read
+	 * @param startTime the start of the timespace the user must have a reservation in
+	 * @param endTime the end of the timespace the user must have a reservation in
+	 * @param firstDate the first date to search from
+	 * @param lastDate the last date to search to, inclusive
+	 * @return the series of the areas of the user whose dates overlap the given dates
+	 */
+	@Query("""
+		SELECT series
+		FROM ReservationSeries series
+		JOIN FETCH series.area
+		JOIN FETCH series.user
+		WHERE series.recurrence.firstDate <= ?5
+		AND series.recurrence.lastDate >= ?4
+		AND series.area.id IN (
+			SELECT mine.area.id
+			FROM Reservation mine
+			WHERE mine.user.id = ?1
+			AND mine.startDateTime < ?3
+			AND mine.endDateTime > ?2
+			UNION
+			SELECT mineSeries.area.id
+			FROM ReservationSeries mineSeries
+			WHERE mineSeries.user.id = ?1
+			AND mineSeries.recurrence.firstDate <= ?5
+			AND mineSeries.recurrence.lastDate >= ?4
+		)
+		""")
+	public List<ReservationSeries> findForUserAreasInTimePeriod(
+		UUID userId,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		LocalDate firstDate,
+		LocalDate lastDate
+	);
+
+	/**
+	 * Returns all series that may occur on or after the given date. Used to load the in-memory
+	 * availability index.
+	 *
+	 * @param date the date the series must last until
+	 * @return the series lasting until the given date or later
+	 */
+	@Query("""
+		SELECT series
+		FROM ReservationSeries series
+		JOIN FETCH series.area
+		WHERE series.recurrence.lastDate >= ?1
+		""")
+	public List<ReservationSeries> findLastingUntil(LocalDate date);
+
+	/**
+	 * Returns the series belonging to the provided user id, sorted by their first date.
+	 *
+	 * @param userId the user whose series are being fetched
+	 * @return a list of series belonging to the user
+	 */
+	public List<ReservationSeries> findAllByUserIdOrderByRecurrenceFirstDateAsc(UUID userId);
+
+	/**
+	 * Gets the ids of up to the given amount of series in any of the given areas. Used to delete
+	 * the series of many areas in chunks, while knowing which ones were deleted.
+	 *
+	 * @param areaIds the ids of the areas to get the series of
+	 * @param limit the maximum amount of ids to get
+	 * @return the ids of the series
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT id
+		FROM {h-schema}reservation_series
+		WHERE area_area_id IN (:areaIds)
+		LIMIT :limit
+		""")
+	public List<UUID> findIdChunkByAreaIds(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("limit") int limit
+	);
+
+	/**
+	 * Deletes up to the given amount of series in any of the given areas. Used to delete the
+	 * series of many areas in chunks, so no single transaction grows too large.
+	 *
+	 * @param areaIds the ids of the areas to delete the series of
+	 * @param limit the maximum amount of series to delete
+	 * @return the amount of deleted series
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		DELETE FROM {h-schema}reservation_series
+		WHERE id IN (
+			SELECT id
+			FROM {h-schema}reservation_series
+			WHERE area_area_id IN (:areaIds)
+			LIMIT :limit
+		)
+		""")
+	public int deleteChunkByAreaIds(
+		@Param("areaIds") Collection<UUID> areaIds,
+		@Param("limit") int limit
+	);
+}
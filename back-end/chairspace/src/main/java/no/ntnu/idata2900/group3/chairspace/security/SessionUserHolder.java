@@ -0,0 +1,37 @@
+package no.ntnu.idata2900.group3.chairspace.security;
+
+import java.util.function.Supplier;
+import no.ntnu.idata2900.group3.chairspace.entity.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Holds the logged in user for the duration of a single request.
+ *
+ * <p>
+ * The user is looked up the first time it is asked for, and the same user is given for the rest
+ * of the request, so converting many reservations or areas does not look up the user for each of
+ * them. A request without a logged in user is remembered as well.
+ *
+ * @see no.ntnu.idata2900.group3.chairspace.service.UserService#getSessionUser()
+ */
+@Component
+@RequestScope
+public class SessionUserHolder {
+	private boolean resolved = false;
+	private User user = null;
+
+	/**
+	 * Gets the user of the current request, looking it up if it has not been already.
+	 *
+	 * @param resolver looks up the logged in user, giving null if no user is logged in
+	 * @return the logged in user, or null if no user is logged in
+	 */
+	public User get(Supplier<User> resolver) {
+		if (!resolved) {
+			user = resolver.get();
+			resolved = true;
+		}
+		return user;
+	}
+}
@@ -0,0 +1,351 @@
+package no.ntnu.idata2900.group3.chairspace.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import no.ntnu.idata2900.group3.chairspace.cache.BreadcrumbCache;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.dto.AreaPurgeProgress;
+import no.ntnu.idata2900.group3.chairspace.dto.AreaPurgeProgress.State;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorIndex;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAttributeIndex;
+import no.ntnu.idata2900.group3.chairspace.index.AreaTree;
+import no.ntnu.idata2900.group3.chairspace.index.AvailabilityIndex;
+import no.ntnu.idata2900.group3.chairspace.index.SlotHolds;
+import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.PlanRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationSeriesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes areas together with everything below and referencing them.
+ *
+ * <p>
+ * An area is deleted with all of its sub areas, at any depth. The reservations, series, plans,
+ * administrators, features and favorites of the areas are deleted first, then the areas from the
+ * bottom of the subtree up, so no foreign key is broken on the way. Everything is deleted with
+ * set based statements over chunks of areas and rows, each chunk in its own transaction, so a
+ * large purge never holds one huge transaction. A purge that fails halfway leaves the remaining
+ * areas intact and can be run again.
+ *
+ * <p>
+ * Large purges can be run in the background, see {@link #startPurge}. Background purges run one
+ * at a time, and their progress is kept for a while after they finish.
+ */
+@Service
+public class AreaPurgeService {
+	/** The maximum amount of areas in a single statement. */
+	private static final int AREA_CHUNK_SIZE = 500;
+	/** The maximum amount of reservations, series or plans deleted in a single transaction. */
+	private static final int ROW_CHUNK_SIZE = 5000;
+	/** How long the progress of a finished purge is kept. */
+	private static final Duration RETENTION = Duration.ofHours(1);
+	private static final Logger LOGGER = LoggerFactory.getLogger(AreaPurgeService.class);
+
+	private final AreaRepository areaRepository;
+	private final ReservationRepository reservationRepository;
+	private final ReservationSeriesRepository seriesRepository;
+	private final PlanRepository planRepository;
+	private final AreaTree areaTree;
+	private final AreaAttributeIndex attributeIndex;
+	private final AreaAdministratorIndex administratorIndex;
+	private final AvailabilityIndex availabilityIndex;
+	private final SlotHolds slotHolds;
+	private final SearchCache searchCache;
+	private final BreadcrumbCache breadcrumbCache;
+	private final TransactionTemplate transactionTemplate;
+	private final Map<UUID, AreaPurgeProgress> purges = new ConcurrentHashMap<>();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "area-purge");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a new area purge service.
+	 *
+	 * @param areaRepository autowired AreaRepository
+	 * @param reservationRepository autowired ReservationRepository
+	 * @param seriesRepository autowired ReservationSeriesRepository
+	 * @param planRepository autowired PlanRepository
+	 * @param areaTree autowired AreaTree
+	 * @param attributeIndex autowired AreaAttributeIndex
+	 * @param administratorIndex autowired AreaAdministratorIndex
+	 * @param availabilityIndex autowired AvailabilityIndex
+	 * @param slotHolds autowired SlotHolds
+	 * @param searchCache autowired SearchCache
+	 * @param breadcrumbCache autowired BreadcrumbCache
+	 * @param transactionManager autowired transactionManager
+	 */
+	public AreaPurgeService(
+		AreaRepository areaRepository,
+		ReservationRepository reservationRepository,
+		ReservationSeriesRepository seriesRepository,
+		PlanRepository planRepository,
+		AreaTree areaTree,
+		AreaAttributeIndex attributeIndex,
+		AreaAdministratorIndex administratorIndex,
+		AvailabilityIndex availabilityIndex,
+		SlotHolds slotHolds,
+		SearchCache searchCache,
+		BreadcrumbCache breadcrumbCache,
+		PlatformTransactionManager transactionManager
+	) {
+		this.areaRepository = areaRepository;
+		this.reservationRepository = reservationRepository;
+		this.seriesRepository = seriesRepository;
+		this.planRepository = planRepository;
+		this.areaTree = areaTree;
+		this.attributeIndex = attributeIndex;
+		this.administratorIndex = administratorIndex;
+		this.availabilityIndex = availabilityIndex;
+		this.slotHolds = slotHolds;
+		this.searchCache = searchCache;
+		this.breadcrumbCache = breadcrumbCache;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Deletes an area and everything below it, and waits for it to finish.
+	 *
+	 * @param areaId the id of the area to delete
+	 * @return true if the area was deleted, false if it does not exist
+	 */
+	public boolean purge(UUID areaId) {
+		if (!areaRepository.existsById(areaId)) {
+			return false;
+		}
+		List<UUID> areaIds = getSubtreeBottomUp(areaId);
+		run(AreaPurgeProgress.queued(UUID.randomUUID(), areaId, areaIds.size()), areaIds);
+		return true;
+	}
+
+	/**
+	 * Starts deleting an area and everything below it in the background.
+	 *
+	 * @param areaId the id of the area to delete
+	 * @return the progress of the purge, or null if the area does not exist
+	 * @see #getProgress(UUID)
+	 */
+	public AreaPurgeProgress startPurge(UUID areaId) {
+		if (!areaRepository.existsById(areaId)) {
+			return null;
+		}
+		Instant oldest = Instant.now().minus(RETENTION);
+		purges.values().removeIf(progress ->
+			progress.isFinished() && progress.finishedAt().isBefore(oldest)
+		);
+
+		List<UUID> areaIds = getSubtreeBottomUp(areaId);
+		AreaPurgeProgress progress =
+			AreaPurgeProgress.queued(UUID.randomUUID(), areaId, areaIds.size());
+		purges.put(progress.id(), progress);
+		executor.execute(() -> run(progress, areaIds));
+		return progress;
+	}
+
+	/**
+	 * Gets the progress of a background purge.
+	 *
+	 * @param purgeId the id of the purge
+	 * @return the progress of the purge, or null if it does not exist or finished long ago
+	 */
+	public AreaPurgeProgress getProgress(UUID purgeId) {
+		return purges.get(purgeId);
+	}
+
+	/**
+	 * Stops running background purges when the application shuts down. Purges that are stopped
+	 * can be started again.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Gets the ids of an area and all of its sub areas, with the deepest areas first. Deleting the
+	 * areas in this order never deletes an area before its sub areas.
+	 *
+	 * <p>
+	 * The subtree is read from the database rather than the area tree, as a sub area added by
+	 * another instance would otherwise be left behind, and stop its super area from being deleted.
+	 *
+	 * @param areaId the id of the area at the top of the subtree
+	 * @return the ids of the areas in the subtree, deepest first
+	 */
+	private List<UUID> getSubtreeBottomUp(UUID areaId) {
+		List<UUID> areaIds = new ArrayList<>(areaRepository.findSubAreaIds(areaId));
+		areaIds.add(areaId);
+		return areaIds;
+	}
+
+	/**
+	 * Runs a purge, publishing its progress after every chunk.
+	 *
+	 * @param queued the progress of the purge before it started
+	 * @param areaIds the ids of the areas to delete, deepest first
+	 */
+	private void run(AreaPurgeProgress queued, List<UUID> areaIds) {
+		Purge purge = new Purge(queued);
+		try {
+			purge.publish(State.RUNNING, null);
+			List<List<UUID>> chunks = new ArrayList<>();
+			for (int i = 0; i < areaIds.size(); i += AREA_CHUNK_SIZE) {
+				chunks.add(areaIds.subList(i, Math.min(i + AREA_CHUNK_SIZE, areaIds.size())));
+			}
+
+			for (List<UUID> chunk : chunks) {
+				purge.deletedReservations += deleteInChunks(chunk, purge, ids -> {
+					List<UUID> reservationIds =
+						reservationRepository.findIdChunkByAreaIds(ids, ROW_CHUNK_SIZE);
+					reservationRepository.deleteAllByIdInBatch(reservationIds);
+					return reservationIds;
+				}, availabilityIndex::remove);
+				purge.deletedSeries += deleteInChunks(chunk, purge, ids -> {
+					List<UUID> seriesIds =
+						seriesRepository.findIdChunkByAreaIds(ids, ROW_CHUNK_SIZE);
+					seriesRepository.deleteAllByIdInBatch(seriesIds);
+					return seriesIds;
+				}, availabilityIndex::removeSeries);
+				purge.deletedPlans += deleteInChunks(chunk, purge, ids ->
+					planRepository.deleteChunkByAreaIds(ids, ROW_CHUNK_SIZE)
+				);
+			}
+
+			// Chunks are deleted deepest first, so sub areas are always gone before their parent
+			for (List<UUID> chunk : chunks) {
+				purge.deletedAreas += transactionTemplate.execute(status -> {
+					// Reservations may have been made while the purge was running
+					reservationRepository.deleteChunkByAreaIds(chunk, Integer.MAX_VALUE);
+					seriesRepository.deleteChunkByAreaIds(chunk, Integer.MAX_VALUE);
+					planRepository.deleteChunkByAreaIds(chunk, Integer.MAX_VALUE);
+					areaRepository.deleteFavoritesByAreaIds(chunk);
+					areaRepository.deleteAdministratorsByAreaIds(chunk);
+					areaRepository.deleteFeaturesByAreaIds(chunk);
+					return areaRepository.deleteAllByAreaIds(chunk);
+				});
+				availabilityIndex.removeAreas(chunk);
+				slotHolds.releaseAreas(chunk);
+				purge.publish(State.RUNNING, null);
+			}
+			purge.publish(State.DONE, null);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Failed to delete area {}", queued.areaId(), e);
+			purge.publish(State.FAILED, e.getMessage());
+			throw e;
+		} finally {
+			if (areaIds.size() == 1) {
+				areaTree.remove(areaIds.get(0));
+				attributeIndex.remove(areaIds.get(0));
+				administratorIndex.remove(areaIds.get(0));
+			} else {
+				areaTree.reload();
+				attributeIndex.reload();
+				administratorIndex.reload();
+			}
+			// Once for the whole purge, as nothing above invalidates cached searches
+			searchCache.clear();
+			breadcrumbCache.clear();
+		}
+	}
+
+	/**
+	 * Repeats a chunked delete of indexed rows until nothing is left, each chunk in its own
+	 * transaction. The deleted rows are evicted from the index after each chunk is committed, so
+	 * the index never keeps rows that are gone, even if the purge fails halfway.
+	 *
+	 * @param areaIds the ids of the areas to delete from
+	 * @param purge the purge to publish progress to
+	 * @param delete deletes a chunk of rows, and returns the ids of the deleted rows
+	 * @param evict evicts a deleted row from the index
+	 * @return the total amount of rows deleted
+	 */
+	private long deleteInChunks(
+		List<UUID> areaIds,
+		Purge purge,
+		Function<List<UUID>, List<UUID>> delete,
+		Consumer<UUID> evict
+	) {
+		long total = 0;
+		int deleted;
+		do {
+			List<UUID> deletedIds = transactionTemplate.execute(status -> delete.apply(areaIds));
+			deletedIds.forEach(evict);
+			deleted = deletedIds.size();
+			total += deleted;
+			purge.publish(State.RUNNING, null);
+		} while (deleted == ROW_CHUNK_SIZE);
+		return total;
+	}
+
+	/**
+	 * Repeats a chunked delete until nothing is left, each chunk in its own transaction.
+	 *
+	 * @param areaIds the ids of the areas to delete from
+	 * @param purge the purge to publish progress to
+	 * @param delete deletes a chunk of rows, and returns the amount of rows deleted
+	 * @return the total amount of rows deleted
+	 */
+	private long deleteInChunks(
+		List<UUID> areaIds,
+		Purge purge,
+		ToIntFunction<List<UUID>> delete
+	) {
+		long total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> delete.applyAsInt(areaIds));
+			total += deleted;
+			purge.publish(State.RUNNING, null);
+		} while (deleted == ROW_CHUNK_SIZE);
+		return total;
+	}
+
+	/**
+	 * The counts of a running purge. Only used by the thread running the purge, which publishes
+	 * them as {@link AreaPurgeProgress} for others to read.
+	 */
+	private final class Purge {
+		private final AreaPurgeProgress queued;
+		private long deletedReservations;
+		private long deletedSeries;
+		private long deletedPlans;
+		private int deletedAreas;
+
+		private Purge(AreaPurgeProgress queued) {
+			this.queued = queued;
+		}
+
+		private void publish(State state, String error) {
+			boolean finished = state == State.DONE || state == State.FAILED;
+			purges.computeIfPresent(queued.id(), (id, previous) -> new AreaPurgeProgress(
+				queued.id(),
+				queued.areaId(),
+				state,
+				queued.areaCount(),
+				deletedReservations,
+				deletedSeries,
+				deletedPlans,
+				deletedAreas,
+				finished ? Instant.now() : null,
+				error
+			));
+		}
+	}
+}
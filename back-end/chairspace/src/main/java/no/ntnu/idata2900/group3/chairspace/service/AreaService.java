@@ -1,17 +1,23 @@
 package no.ntnu.idata2900.group3.chairspace.service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.BreadcrumbCache;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.dto.AreaPurgeProgress;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorIndex;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAttributeIndex;
+import no.ntnu.idata2900.group3.chairspace.index.AreaTree;
 import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,119 +32,165 @@ import org.springframework.stereotype.Service;
 @Service
 public class AreaService extends EntityService<Area, UUID> {
 	private final AreaRepository areaRepository;
-	private final ReservationService reservationService;
+	private final AreaTree areaTree;
+	private final AreaAttributeIndex attributeIndex;
+	private final AreaAdministratorIndex administratorIndex;
 	private final PlanService planService;
+	private final SearchCache searchCache;
+	private final BreadcrumbCache breadcrumbCache;
+	private final AreaPurgeService purgeService;
 
 	/**
 	 * Creates a new area service.
 	 *
 	 * @param repository autowired AreaRepository
-	 * @param reservationService autowired reservationService
-	 * @param planService autowired planService
+	 * @param areaTree autowired AreaTree
+	 * @param attributeIndex autowired AreaAttributeIndex
+	 * @param administratorIndex autowired AreaAdministratorIndex
+	 * @param planService autowired PlanService
+	 * @param searchCache autowired SearchCache
+	 * @param breadcrumbCache autowired BreadcrumbCache
+	 * @param purgeService autowired AreaPurgeService
 	 */
 	public AreaService(
 		AreaRepository repository,
-		ReservationService reservationService,
-		PlanService planService
+		AreaTree areaTree,
+		AreaAttributeIndex attributeIndex,
+		AreaAdministratorIndex administratorIndex,
+		PlanService planService,
+		SearchCache searchCache,
+		BreadcrumbCache breadcrumbCache,
+		AreaPurgeService purgeService
 	) {
 		super(repository);
 		this.areaRepository = repository;
-		this.reservationService = reservationService;
+		this.areaTree = areaTree;
+		this.attributeIndex = attributeIndex;
+		this.administratorIndex = administratorIndex;
 		this.planService = planService;
+		this.searchCache = searchCache;
+		this.breadcrumbCache = breadcrumbCache;
+		this.purgeService = purgeService;
 	}
 
 	@Override
-	// Override to ensure areas cannot be saved with themselves as their super area
+	// Override to ensure areas cannot be saved with themselves as their super area. The hierarchy
+	// is checked in the database, as the area tree may not have seen another instance's writes
 	protected UUID save(Area area) {
-		if (area.isSuperArea(area)) {
-			return null;
+		Area superArea = area.getSuperArea();
+		if (superArea != null && area.getId() != null) {
+			boolean isOwnSuperArea = area.getId().equals(superArea.getId())
+				|| areaRepository.findSuperAreaIds(superArea.getId()).contains(area.getId());
+			if (isOwnSuperArea) {
+				return null;
+			}
 		}
-		return super.save(area);
+		Area savedArea = areaRepository.save(area);
+		areaTree.put(savedArea);
+		attributeIndex.put(savedArea);
+		administratorIndex.put(savedArea);
+		searchCache.clear();
+		breadcrumbCache.invalidate(savedArea.getId());
+		return savedArea.getId();
+	}
+
+	@Override
+	// Override to delete everything below and referencing the area, and keep the area tree up
+	// to date
+	public boolean delete(UUID id) {
+		return purgeService.purge(id);
 	}
 
 	/**
-	 * Retrieves all areas that have a gap like or longer than the input duration.
+	 * Starts deleting an area and everything below it in the background. Meant for large
+	 * subtrees, such as whole buildings.
 	 *
-	 * @param searchStart the time to start the search from
-	 * @param searchEnd the time to end the search at
-	 * @param minGapSize the minimum size of a gap for it to be counted
-	 * @return a list of all areas that meet the gap requirements
+	 * @param id the id of the area to delete
+	 * @return the progress of the purge, or null if the area does not exist
+	 * @see AreaPurgeService
 	 */
-	public List<Area> getAreasWithFreeGapLike(
-		LocalDateTime searchStart,
-		LocalDateTime searchEnd,
-		Duration minGapSize
-	) {
-		List<Area> reservableAreas =
-				this.areaRepository.findAllByPlanControlledOrReservable(true, true);
-
-		Set<Area> areasWithGap = new HashSet<>();
-		reservableAreas.iterator().forEachRemaining(areasWithGap::add);
-		Iterator<Area> reservableAreasIterator = reservableAreas.iterator();
-
-		while (reservableAreasIterator.hasNext()) {
-			Area area = reservableAreasIterator.next();
-
-			boolean hasGap = reservationService.doesAreaHaveFreeGapLike(
-				area.getId(),
-				searchStart,
-				searchEnd,
-				minGapSize
-			) && (
-				!area.isPlanControlled()
-				|| planService.isFree(area.getId(), searchStart, searchEnd)
-			);
-
-			if (!hasGap) {
-				// Assume areas have gap until proven otherwise
-				areasWithGap.remove(area);
-			}
-		}
+	public AreaPurgeProgress startDelete(UUID id) {
+		return purgeService.startPurge(id);
+	}
+
+	/**
+	 * Gets the progress of a background delete.
+	 *
+	 * @param purgeId the id of the purge
+	 * @return the progress of the purge, or null if it does not exist
+	 */
+	public AreaPurgeProgress getDeleteProgress(UUID purgeId) {
+		return purgeService.getProgress(purgeId);
+	}
 
-		return List.copyOf(areasWithGap);
+	/**
+	 * Gets an area together with everything shown when it is viewed on its own, in a single
+	 * query.
+	 *
+	 * @param id the id of the area
+	 * @return the area, or null if it does not exist
+	 */
+	public Area getDetail(UUID id) {
+		return areaRepository.findDetailById(id).orElse(null);
 	}
 
 	/**
-	 * Searches for areas based on the given parameters.
-	 * If any of the parameters are null, they will be ignored in the search.
+	 * Finds the ids of all areas that match the given parameters and may be reserved in the
+	 * given period, sorted by name. If any of the parameters are null, they will be ignored.
 	 *
 	 * <p>
-	 * Note that this method does not check for the validity of the parameters.
-	 * If any of the parameters are invalid, or does otherwise not exist in the database,
-	 * the method will return nothing.
+	 * Only the attributes of the areas are checked, not their reservations. This is meant as the
+	 * first, cheap step of a search, before the availability of the candidates is checked. The
+	 * attributes are checked by the in-memory {@link AreaAttributeIndex}, and the database is
+	 * only queried for plans if any plan controlled area matches.
 	 *
-	 * @param page the page to get
 	 * @param capacity the minimum capacity of the area
 	 * @param superAreaId the id of the super area to search in
 	 * @param areaTypeId the id of the area type to search for
 	 * @param areaFeatureIds the ids of the area features to search for
-	 * @param freeAreaIds the ids of the free areas to search for
-	 * @return an iterable of areas that match the search criteria
+	 * @param start the start of the period
+	 * @param end the end of the period
+	 * @return the ids of the areas that match the search criteria, sorted by name
 	 */
-	public Page<Area> searchWithOptionalParams(
-		int page,
+	public List<UUID> getSearchCandidateIds(
 		Integer capacity,
 		UUID superAreaId,
 		String areaTypeId,
 		List<String> areaFeatureIds,
-		List<UUID> freeAreaIds
+		LocalDateTime start,
+		LocalDateTime end,
+		Cursor after
 	) {
-		Pageable paging = PageRequest.of(page, EntityService.DEFAULT_PAGE_SIZE);
 		List<UUID> subAreaIds = null;
 		if (superAreaId != null) {
 			subAreaIds = getSubAreas(superAreaId);
 		}
-		return areaRepository.searchWithOptionalParams(
-			paging,
+		return attributeIndex.findCandidateIds(
 			capacity,
 			subAreaIds,
 			areaTypeId,
 			areaFeatureIds,
-			freeAreaIds,
-			areaFeatureIds != null ? areaFeatureIds.size() : 0
+			() -> planService.getFreePlanAreas(start, end),
+			after
 		);
 	}
 
+	/**
+	 * Gets the areas with the given ids, in the same order as the ids.
+	 * Ids that do not belong to an area are skipped.
+	 *
+	 * @param ids the ids of the areas to get
+	 * @return the areas with the given ids, in the order of the ids
+	 */
+	public List<Area> getAllInOrder(List<UUID> ids) {
+		Map<UUID, Area> areasById = new HashMap<>();
+		areaRepository.findAllById(ids).forEach(area -> areasById.put(area.getId(), area));
+		return ids.stream()
+			.map(areasById::get)
+			.filter(Objects::nonNull)
+			.toList();
+	}
+
 	/**
 	 * Gets all sub areas of a given area.
 	 * Will return an empty list if the given id is null, or if the area does not exist.
@@ -150,25 +202,11 @@ public class AreaService extends EntityService<Area, UUID> {
 		if (superAreaId == null) {
 			return List.of();
 		}
-		List<UUID> subAreaIds = new ArrayList<>();
-		Deque<UUID> areaStack = new ArrayDeque<>();
-		Set<UUID> visited = new HashSet<>();
-		areaStack.add(superAreaId);
-
-		while (!areaStack.isEmpty()) {
-			UUID node = areaStack.pop();
-			if (visited.add(node)) {
-				List<UUID> children = areaRepository.findIdBySuperAreaId(node);
-				areaStack.addAll(children);
-				subAreaIds.addAll(children);
-			}
-		}
-
-		return subAreaIds;
+		return areaTree.getSubAreaIds(superAreaId);
 	}
 
 	/**
-	 * Gets all areas that have this user as an admin.
+	 * Gets all areas that have this user as an admin, including the areas below them.
 	 *
 	 * @param userId the user to find areas for
 	 * @param page the page to get
@@ -179,21 +217,84 @@ public class AreaService extends EntityService<Area, UUID> {
 		if (page == null || page < 0) {
 			page = 0;
 		}
-		if (size == null || size < 0) {
-			size = DEFAULT_PAGE_SIZE;
+		Pageable paging = PageRequest.of(page, toPageSize(size));
+		Set<UUID> areaIds = administratorIndex.getAdministratedAreaIds(userId);
+		if (areaIds.isEmpty()) {
+			return Page.empty(paging);
+		}
+		return areaRepository.findByIdIn(areaIds, paging);
+	}
+
+	/**
+	 * Gets a page of all areas, sorted by name and then by id, without counting the areas.
+	 *
+	 * @param after the cursor of the previous page, or null for the first page
+	 * @param size the amount of entries per page
+	 * @return a page of areas
+	 */
+	public CursorPage<Area> getAllAfter(Cursor after, Integer size) {
+		int pageSize = toPageSize(size);
+		Limit limit = Limit.of(pageSize + 1);
+		List<Area> areas = after == null
+			? areaRepository.findAllByOrderByNameAscIdAsc(limit)
+			: areaRepository.findAfter(after.key(), after.id(), limit);
+		return CursorPage.of(areas, pageSize, AreaService::toCursor);
+	}
+
+	/**
+	 * Gets a page of the areas that have this user as an admin, including the areas below them,
+	 * sorted by name and then by id, without counting the areas.
+	 *
+	 * @param userId the user to find areas for
+	 * @param after the cursor of the previous page, or null for the first page
+	 * @param size the amount of entries per page
+	 * @return a page of areas that have this user as an admin
+	 */
+	public CursorPage<Area> getAreasByUserAfter(UUID userId, Cursor after, Integer size) {
+		int pageSize = toPageSize(size);
+		Limit limit = Limit.of(pageSize + 1);
+		Set<UUID> areaIds = administratorIndex.getAdministratedAreaIds(userId);
+		if (areaIds.isEmpty()) {
+			return CursorPage.of(List.of(), pageSize, AreaService::toCursor);
 		}
-		Pageable paging = PageRequest.of(page, size);
-		return areaRepository.findByAdministrators_Id(userId, paging);
+		List<Area> areas = after == null
+			? areaRepository.findByIdInOrderByNameAscIdAsc(areaIds, limit)
+			: areaRepository.findByIdInAfter(areaIds, after.key(), after.id(), limit);
+		return CursorPage.of(areas, pageSize, AreaService::toCursor);
 	}
 
 	/**
-	 * Gets all areas that are administrated by a user.
+	 * Creates a cursor pointing at an area, for listings sorted by name and then by id.
+	 *
+	 * @param area the area to point at
+	 * @return a cursor pointing at the area
+	 */
+	public static Cursor toCursor(Area area) {
+		return new Cursor(area.getName(), area.getId());
+	}
+
+	/**
+	 * Gets all areas that are administrated by a user, including the areas below them.
 	 *
 	 * @param userId the user to get areas for
 	 * @return a list of all areas administrated by a user
 	 */
 	public List<Area> getAreasByUserAsList(UUID userId) {
-		return areaRepository.findByAdministrators_Id(userId);
+		Set<UUID> areaIds = administratorIndex.getAdministratedAreaIds(userId);
+		if (areaIds.isEmpty()) {
+			return List.of();
+		}
+		return areaRepository.findAllById(areaIds);
+	}
+
+	/**
+	 * Gets the ids of the administrators of an area, including those of its super areas.
+	 *
+	 * @param areaId the id of the area
+	 * @return the ids of every user administrating the area
+	 */
+	public Set<UUID> getAdministratorIds(UUID areaId) {
+		return administratorIndex.getAdministratorIds(areaId);
 	}
 
 	/**
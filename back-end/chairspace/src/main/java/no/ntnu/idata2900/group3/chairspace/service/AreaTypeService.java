@@ -1,6 +1,8 @@
 package no.ntnu.idata2900.group3.chairspace.service;
 
+import no.ntnu.idata2900.group3.chairspace.cache.BreadcrumbCache;
 import no.ntnu.idata2900.group3.chairspace.entity.AreaType;
+import no.ntnu.idata2900.group3.chairspace.index.AreaTree;
 import no.ntnu.idata2900.group3.chairspace.repository.AreaTypeRepository;
 import org.springframework.stereotype.Service;
 
@@ -12,12 +14,32 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class AreaTypeService extends EntityService<AreaType, String> {
+	private final AreaTree areaTree;
+	private final BreadcrumbCache breadcrumbCache;
+
 	/**
 	 * Creates a new area type service.
 	 *
 	 * @param repository autowired AreaTypeRepository
+	 * @param areaTree autowired AreaTree
+	 * @param breadcrumbCache autowired BreadcrumbCache
 	 */
-	public AreaTypeService(AreaTypeRepository repository) {
+	public AreaTypeService(
+		AreaTypeRepository repository,
+		AreaTree areaTree,
+		BreadcrumbCache breadcrumbCache
+	) {
 		super(repository);
+		this.areaTree = areaTree;
+		this.breadcrumbCache = breadcrumbCache;
+	}
+
+	@Override
+	// Override to refresh the area types held by the area tree and the breadcrumbs
+	protected String save(AreaType areaType) {
+		String id = super.save(areaType);
+		areaTree.reload();
+		breadcrumbCache.clear();
+		return id;
 	}
 }
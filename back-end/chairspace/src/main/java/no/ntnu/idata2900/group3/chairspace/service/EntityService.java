@@ -28,6 +28,8 @@ import org.springframework.data.repository.CrudRepository;
 public abstract class EntityService<EntityT extends EntityInterface<IdT>, IdT> {
 	/** The default amount of items per page. Must be greater than 0. */
 	public static final int DEFAULT_PAGE_SIZE = 12;
+	/** The maximum amount of items per page. Larger requested page sizes are clamped to this. */
+	public static final int MAX_PAGE_SIZE = 100;
 
 	protected final JpaRepository<EntityT, IdT> repository;
 
@@ -87,6 +89,20 @@ public abstract class EntityService<EntityT extends EntityInterface<IdT>, IdT> {
 		return repository.findAll(paging);
 	}
 
+	/**
+	 * Converts a requested page size to a valid page size.
+	 *
+	 * @param size the requested page size, may be null
+	 * @return the requested size, or the default page size if the size is missing or not positive,
+	 *     at most {@link #MAX_PAGE_SIZE}
+	 */
+	public static int toPageSize(Integer size) {
+		if (size == null || size <= 0) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		return Math.min(size, MAX_PAGE_SIZE);
+	}
+
 	/**
 	 * Attempts to update an existing entity.
 	 *
@@ -2,10 +2,16 @@ package no.ntnu.idata2900.group3.chairspace.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.entity.Plan;
 import no.ntnu.idata2900.group3.chairspace.repository.PlanRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,15 +25,53 @@ import org.springframework.stereotype.Service;
 @Service
 public class PlanService extends EntityService<Plan, UUID> {
 	private final PlanRepository planRepository;
+	private final SearchCache searchCache;
 
 	/**
 	 * Creates a new plan service.
 	 *
 	 * @param repository autowired PlanRepository
+	 * @param searchCache autowired SearchCache
 	 */
-	public PlanService(PlanRepository repository) {
+	public PlanService(PlanRepository repository, SearchCache searchCache) {
 		super(repository);
 		this.planRepository = repository;
+		this.searchCache = searchCache;
+	}
+
+	@Override
+	// Override to invalidate the searches the plan may affect, both before and after the change
+	protected UUID save(Plan plan) {
+		if (plan.getId() != null) {
+			planRepository.findById(plan.getId()).ifPresent(this::invalidateSearches);
+		}
+		Plan savedPlan = planRepository.save(plan);
+		invalidateSearches(savedPlan);
+		return savedPlan.getId();
+	}
+
+	@Override
+	// Override to invalidate the searches the plan may affect
+	public boolean delete(UUID id) {
+		Plan plan = get(id);
+		boolean deleted = super.delete(id);
+		if (deleted && plan != null) {
+			invalidateSearches(plan);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Invalidates the cached searches that overlap the days of a plan. As a plan decides whether
+	 * its area is a search candidate at all, every search overlapping the plan is invalidated.
+	 *
+	 * @param plan the plan that changed
+	 */
+	private void invalidateSearches(Plan plan) {
+		searchCache.invalidateWindow(
+			plan.getStart().atStartOfDay(),
+			plan.getEnd().plusDays(1).atStartOfDay()
+		);
 	}
 
 	/**
@@ -70,6 +114,19 @@ public class PlanService extends EntityService<Plan, UUID> {
 		return planRepository.findByAreaId(areaId);
 	}
 
+	/**
+	 * Gets all plans belonging to any of the given areas.
+	 *
+	 * @param areaIds the areas to get plans for
+	 * @return all plans belonging to the areas
+	 */
+	public List<Plan> getAllPlansByAreas(Collection<UUID> areaIds) {
+		if (areaIds.isEmpty()) {
+			return List.of();
+		}
+		return planRepository.findByAreaIdIn(areaIds);
+	}
+
 	/**
 	 * Gets all plans by a list of areas as a page.
 	 *
@@ -84,4 +141,43 @@ public class PlanService extends EntityService<Plan, UUID> {
 		Pageable paging = PageRequest.of(page, DEFAULT_PAGE_SIZE);
 		return planRepository.findByAreaIdIn(areaIds, paging);
 	}
+
+	/**
+	 * Gets a page of the plans belonging to the given areas, sorted by start date and then by id,
+	 * without counting the plans.
+	 *
+	 * @param areaIds the areas to get plans for
+	 * @param after the cursor of the previous page, or null for the first page
+	 * @param size the amount of entries per page
+	 * @return a page of plans belonging to the areas
+	 * @throws IllegalArgumentException if the cursor does not point at a plan
+	 */
+	public CursorPage<Plan> getPlansByAreasAfter(
+		Collection<UUID> areaIds,
+		Cursor after,
+		Integer size
+	) {
+		int pageSize = toPageSize(size);
+		if (areaIds.isEmpty()) {
+			return new CursorPage<>(List.of(), pageSize, null);
+		}
+		Limit limit = Limit.of(pageSize + 1);
+		List<Plan> plans;
+		if (after == null) {
+			plans = planRepository.findByAreaIdInOrderByStartDateAscIdAsc(areaIds, limit);
+		} else {
+			LocalDate startDate;
+			try {
+				startDate = LocalDate.parse(after.key());
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("Cursor does not point at a plan", e);
+			}
+			plans = planRepository.findByAreaIdInAfter(areaIds, startDate, after.id(), limit);
+		}
+		return CursorPage.of(
+			plans,
+			pageSize,
+			plan -> new Cursor(plan.getStart().toString(), plan.getId())
+		);
+	}
 }
@@ -0,0 +1,283 @@
+package no.ntnu.idata2900.group3.chairspace.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Guards reservations against overlapping other reservations in the same area, even when two
+ * reservations are made at the same time.
+ *
+ * <p>
+ * Every booking runs in a single transaction, which is started by the guard. The booking joins
+ * it, so its checks and writes are committed or rolled back together.
+ *
+ * <p>
+ * On PostgreSQL, bookings in the same area are guarded by a transaction level advisory lock on
+ * the area, which the database releases when the transaction ends. The lock is shared by every
+ * instance of the application. Overlaps are also prevented by an exclusion constraint on the
+ * reservation table, which is added by the V4 migration. The database then rejects an
+ * overlapping reservation no matter how it was written, so reservations only take the lock
+ * shared, and never wait for each other.
+ *
+ * <p>
+ * On other databases, which are only used for testing, bookings are guarded by a fixed set of
+ * locks in this application instance instead. Every area maps to one of the locks, so areas may
+ * share a lock, but the locks never grow with the amount of areas.
+ *
+ * <p>
+ * Reservation series are not covered by the constraint, so they always take the lock of their
+ * area exclusively, see {@link #bookExclusive}. Reservations without the constraint do as well.
+ */
+@Component
+public class ReservationGuard {
+	/** The name of the exclusion constraint on the reservation table. */
+	public static final String CONSTRAINT_NAME = "reservation_no_overlap";
+	/** The SQL state PostgreSQL reports when an exclusion constraint is violated. */
+	private static final String EXCLUSION_VIOLATION = "23P01";
+	/** The amount of locks areas are spread over when the database cannot lock them. */
+	private static final int LOCAL_LOCK_COUNT = 64;
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReservationGuard.class);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final String schema;
+	private final boolean constraintEnabled;
+	private final ReadWriteLock[] localLocks = new ReadWriteLock[LOCAL_LOCK_COUNT];
+	private volatile boolean lockedByDatabase;
+	private volatile boolean enforcedByDatabase;
+
+	/**
+	 * Creates a new reservation guard.
+	 *
+	 * @param dataSource autowired data source
+	 * @param transactionManager autowired transaction manager
+	 * @param schema the schema of the reservation table
+	 * @param constraintEnabled true if the exclusion constraint should be relied on when present
+	 */
+	public ReservationGuard(
+		DataSource dataSource,
+		PlatformTransactionManager transactionManager,
+		@Value("${spring.jpa.properties.hibernate.default_schema:public}") String schema,
+		@Value("${reservation.exclusion-constraint:true}") boolean constraintEnabled
+	) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.schema = schema;
+		this.constraintEnabled = constraintEnabled;
+		for (int i = 0; i < localLocks.length; i++) {
+			localLocks[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	/**
+	 * Checks if the database is PostgreSQL, and if the exclusion constraint is on the reservation
+	 * table in the application schema. The constraint is added by a migration, so the check waits
+	 * until the application is ready. Until then, bookings are guarded by local locks.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void checkConstraint() {
+		if (!isPostgres()) {
+			return;
+		}
+		lockedByDatabase = true;
+		if (!constraintEnabled) {
+			return;
+		}
+		try {
+			Boolean exists = jdbcTemplate.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM pg_constraint c"
+				+ " JOIN pg_class t ON t.oid = c.conrelid"
+				+ " JOIN pg_namespace n ON n.oid = t.relnamespace"
+				+ " WHERE c.conname = ? AND t.relname = 'reservation' AND n.nspname = ?)",
+				Boolean.class,
+				CONSTRAINT_NAME,
+				schema
+			);
+			enforcedByDatabase = Boolean.TRUE.equals(exists);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Could not look up {}", CONSTRAINT_NAME, e);
+		}
+		if (!enforcedByDatabase) {
+			LOGGER.warn("{} is missing, reservations lock their area", CONSTRAINT_NAME);
+		}
+	}
+
+	/**
+	 * Returns true if overlapping reservations are rejected by the database.
+	 *
+	 * @return true if the exclusion constraint is in place
+	 */
+	public boolean isEnforcedByDatabase() {
+		return enforcedByDatabase;
+	}
+
+	/**
+	 * Makes a reservation in an area, so that no overlapping reservation can be made in the same
+	 * area at the same time. The booking should check that the time is free, and then save the
+	 * reservation. It runs in the transaction of the guard, so writes must be flushed for an
+	 * overlap to be reported to the booking rather than when the transaction commits.
+	 *
+	 * @param areaId the area of the reservation
+	 * @param booking checks and saves the reservation
+	 * @return the result of the booking
+	 */
+	public <T> T book(UUID areaId, Supplier<T> booking) {
+		return bookAll(List.of(areaId), booking);
+	}
+
+	/**
+	 * Makes a reservation series in an area, so that no overlapping reservation or series can be
+	 * made in the same area at the same time. Unlike {@link #book}, this always waits for every
+	 * other booking in the area, as the database does not check series.
+	 *
+	 * @param areaId the area of the series
+	 * @param booking checks and saves the series
+	 * @return the result of the booking
+	 */
+	public <T> T bookExclusive(UUID areaId, Supplier<T> booking) {
+		return guard(List.of(areaId), false, booking);
+	}
+
+	/**
+	 * Makes reservations in several areas at once. Works like {@link #book}, but guards every
+	 * given area for the whole booking.
+	 *
+	 * @param areaIds the areas of the reservations
+	 * @param booking checks and saves the reservations
+	 * @return the result of the booking
+	 */
+	public <T> T bookAll(Collection<UUID> areaIds, Supplier<T> booking) {
+		return guard(areaIds, enforcedByDatabase, booking);
+	}
+
+	/**
+	 * Runs a booking in a transaction, holding the locks of the given areas until the transaction
+	 * has ended. If the booking fails without throwing, for instance because a write overlapped
+	 * another reservation, the transaction is rolled back.
+	 *
+	 * @param areaIds the areas to lock
+	 * @param shared true if the locks may be shared with other bookings
+	 * @param booking checks and saves the reservations
+	 * @return the result of the booking
+	 */
+	private <T> T guard(Collection<UUID> areaIds, boolean shared, Supplier<T> booking) {
+		if (lockedByDatabase) {
+			return inTransaction(() -> {
+				lockInDatabase(areaIds, shared);
+				return booking.get();
+			});
+		}
+		// Locks are always taken in the same order, so two batches cannot wait for each other
+		List<Lock> locks = new ArrayList<>();
+		areaIds.stream().map(this::getLocalLockIndex).distinct().sorted().forEach(index -> {
+			ReadWriteLock lock = localLocks[index];
+			locks.add(shared ? lock.readLock() : lock.writeLock());
+		});
+		int locked = 0;
+		try {
+			for (Lock lock : locks) {
+				lock.lock();
+				locked++;
+			}
+			// The transaction ends before the locks are released
+			return inTransaction(booking);
+		} finally {
+			for (int i = locked - 1; i >= 0; i--) {
+				locks.get(i).unlock();
+			}
+		}
+	}
+
+	/**
+	 * Runs a booking in a new transaction, or in the current one if there is one.
+	 *
+	 * @param booking checks and saves the reservations
+	 * @return the result of the booking
+	 */
+	private <T> T inTransaction(Supplier<T> booking) {
+		return transactionTemplate.execute(status -> {
+			T result = booking.get();
+			if (status.isRollbackOnly()) {
+				// A write in the booking failed and was handled by the booking. Rolling back here
+				// keeps the commit from failing on the write.
+				status.setRollbackOnly();
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Takes the advisory locks of the given areas in the current transaction. The database
+	 * releases them when the transaction ends.
+	 *
+	 * @param areaIds the areas to lock
+	 * @param shared true if the locks may be shared with other bookings
+	 */
+	private void lockInDatabase(Collection<UUID> areaIds, boolean shared) {
+		String query = shared
+			? "SELECT pg_advisory_xact_lock_shared(?)"
+			: "SELECT pg_advisory_xact_lock(?)";
+		// Locks are always taken in the same order, so two batches cannot wait for each other
+		areaIds.stream().map(ReservationGuard::getLockKey).distinct().sorted().forEach(key ->
+			jdbcTemplate.query(query, resultSet -> { }, key)
+		);
+	}
+
+	/**
+	 * Gets the key of the advisory lock of an area. Different areas may share a key, which only
+	 * makes their bookings wait for each other.
+	 *
+	 * @param areaId the id of the area
+	 * @return the key of the lock of the area
+	 */
+	private static long getLockKey(UUID areaId) {
+		return areaId.getMostSignificantBits() ^ areaId.getLeastSignificantBits();
+	}
+
+	private int getLocalLockIndex(UUID areaId) {
+		return Math.floorMod(areaId.hashCode(), localLocks.length);
+	}
+
+	/**
+	 * Checks if a failed write was rejected because it overlaps another reservation.
+	 *
+	 * @param exception the exception the write failed with
+	 * @return true if the write overlapped another reservation
+	 */
+	public static boolean isOverlap(DataIntegrityViolationException exception) {
+		for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sqlException
+				&& EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isPostgres() {
+		try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+			return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package no.ntnu.idata2900.group3.chairspace.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.entity.Plan;
+import no.ntnu.idata2900.group3.chairspace.entity.Recurrence;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.index.AvailabilityIndex;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationSeriesRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for interacting with and managing {@link ReservationSeries}.
+ *
+ * <p>
+ * A series is checked for conflicts once, when it is made. The reservations and series of its
+ * area are loaded with a single query each for the whole period of the series, and compared to
+ * the recurrence in memory, so no query is run per occurrence.
+ */
+@Service
+public class ReservationSeriesService extends EntityService<ReservationSeries, UUID> {
+	private final ReservationSeriesRepository seriesRepository;
+	private final ReservationRepository reservationRepository;
+	private final PlanService planService;
+	private final AvailabilityIndex availabilityIndex;
+	private final SearchCache searchCache;
+	private final ReservationGuard reservationGuard;
+
+	/**
+	 * Creates a new reservation series service.
+	 *
+	 * @param repository autowired ReservationSeriesRepository
+	 * @param reservationRepository autowired ReservationRepository
+	 * @param planService autowired planService
+	 * @param availabilityIndex autowired availabilityIndex
+	 * @param searchCache autowired searchCache
+	 * @param reservationGuard autowired reservationGuard
+	 */
+	public ReservationSeriesService(
+		ReservationSeriesRepository repository,
+		ReservationRepository reservationRepository,
+		PlanService planService,
+		AvailabilityIndex availabilityIndex,
+		SearchCache searchCache,
+		ReservationGuard reservationGuard
+	) {
+		super(repository);
+		this.seriesRepository = repository;
+		this.reservationRepository = reservationRepository;
+		this.planService = planService;
+		this.availabilityIndex = availabilityIndex;
+		this.searchCache = searchCache;
+		this.reservationGuard = reservationGuard;
+	}
+
+	@Override
+	// Override to ensure series cannot overlap reservations or other series
+	protected UUID save(ReservationSeries series) {
+		return reservationGuard.bookExclusive(series.getArea().getId(), () -> book(series));
+	}
+
+	/**
+	 * Saves a series if none of its occurrences overlap a reservation or another series, and
+	 * every occurrence is allowed by a plan if the area is plan controlled. Must be run through
+	 * the {@link ReservationGuard}.
+	 *
+	 * @param series the series to save
+	 * @return the id of the saved series, or null if it is not free
+	 */
+	private UUID book(ReservationSeries series) {
+		UUID areaId = series.getArea().getId();
+		Recurrence recurrence = series.getRecurrence();
+		LocalDateTime start = recurrence.getFirstDate().atStartOfDay();
+		LocalDateTime end = recurrence.getLastDate().plusDays(1).atStartOfDay();
+
+		boolean canAdd = reservationRepository.findSpansForAreaInTimePeriod(areaId, start, end)
+			.stream()
+			.noneMatch(span -> recurrence.overlaps(span.start(), span.end()));
+
+		canAdd = canAdd && seriesRepository.findForAreaInTimePeriod(
+			areaId,
+			recurrence.getFirstDate(),
+			recurrence.getLastDate()
+		).stream().noneMatch(other ->
+			!other.getId().equals(series.getId())
+			&& recurrence.overlaps(other.getRecurrence())
+		);
+
+		canAdd = canAdd && (!series.getArea().isPlanControlled() || isAllowedByPlans(series));
+		if (!canAdd) {
+			return null;
+		}
+
+		ReservationSeries previous = null;
+		if (series.getId() != null) {
+			previous = seriesRepository.findById(series.getId()).orElse(null);
+		}
+		ReservationSeries savedSeries = seriesRepository.save(series);
+		availabilityIndex.putSeries(savedSeries);
+		if (previous != null) {
+			invalidateSearches(previous);
+		}
+		invalidateSearches(savedSeries);
+		return savedSeries.getId();
+	}
+
+	/**
+	 * Checks that every occurrence of a series in a plan controlled area falls within a plan.
+	 *
+	 * @param series the series to check
+	 * @return true if every occurrence is allowed by a plan
+	 */
+	private boolean isAllowedByPlans(ReservationSeries series) {
+		Recurrence recurrence = series.getRecurrence();
+		List<Plan> plans = planService.getPlansByArea(series.getArea().getId());
+		return recurrence.getDatesOverlapping(
+			recurrence.getFirstDate().atStartOfDay(),
+			recurrence.getLastDate().plusDays(1).atStartOfDay()
+		).stream().allMatch(date -> plans.stream().anyMatch(plan ->
+			!plan.getStart().isAfter(date) && !plan.getEnd().isBefore(date)
+		));
+	}
+
+	@Override
+	// Override to keep the availability index and search cache up to date
+	public boolean delete(UUID id) {
+		ReservationSeries series = get(id);
+		boolean deleted = super.delete(id);
+		if (deleted) {
+			availabilityIndex.removeSeries(id);
+			if (series != null) {
+				invalidateSearches(series);
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Invalidates the cached searches of the area of a series that overlap the period of the
+	 * series.
+	 *
+	 * @param series the series that changed
+	 */
+	private void invalidateSearches(ReservationSeries series) {
+		searchCache.invalidate(
+			series.getArea().getId(),
+			series.getRecurrence().getFirstDate().atStartOfDay(),
+			series.getRecurrence().getLastDate().plusDays(1).atStartOfDay()
+		);
+	}
+
+	/**
+	 * Gets all series belonging to a given user, sorted by their first date.
+	 *
+	 * @param userId the id of the user
+	 * @return the series of the user
+	 */
+	public List<ReservationSeries> getSeriesByUser(UUID userId) {
+		return seriesRepository.findAllByUserIdOrderByRecurrenceFirstDateAsc(userId);
+	}
+}
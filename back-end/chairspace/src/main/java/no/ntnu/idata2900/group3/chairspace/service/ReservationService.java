@@ -4,13 +4,45 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.dto.BatchReservationResult;
+import no.ntnu.idata2900.group3.chairspace.dto.BatchReservationResult.Status;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.Plan;
 import no.ntnu.idata2900.group3.chairspace.entity.Reservation;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import no.ntnu.idata2900.group3.chairspace.exceptions.NotReservableException;
+import no.ntnu.idata2900.group3.chairspace.index.AvailabilityIndex;
+import no.ntnu.idata2900.group3.chairspace.index.ReservationSpan;
+import no.ntnu.idata2900.group3.chairspace.index.SlotHold;
+import no.ntnu.idata2900.group3.chairspace.index.SlotHolds;
 import no.ntnu.idata2900.group3.chairspace.repository.ReservationRepository;
+import no.ntnu.idata2900.group3.chairspace.repository.ReservationSeriesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service class for interacting with and managing {@link Reservation}s.
@@ -20,44 +52,551 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class ReservationService extends EntityService<Reservation, UUID> {
-	/** * The amount of milliseconds in a single full day. */
-	public static final int MS_IN_DAY = 24 * 60 * 60 * 1000;
 	private final ReservationRepository reservationRepository;
+	private final ReservationSeriesRepository seriesRepository;
 	private final PlanService planService;
+	private final AvailabilityIndex availabilityIndex;
+	private final SearchCache searchCache;
+	private final ReservationGuard reservationGuard;
+	private final SlotHolds slotHolds;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${availability.in-memory:true}")
+	private boolean inMemoryAvailability;
 
 	/**
 	 * Creates a new user service.
 	 *
 	 * @param repository autowired UserRepository
+	 * @param seriesRepository autowired ReservationSeriesRepository
 	 * @param planService autowired planService
+	 * @param availabilityIndex autowired availabilityIndex
+	 * @param searchCache autowired searchCache
+	 * @param reservationGuard autowired reservationGuard
+	 * @param slotHolds autowired slotHolds
+	 * @param transactionManager autowired transactionManager
 	 */
-	public ReservationService(ReservationRepository repository, PlanService planService) {
+	public ReservationService(
+		ReservationRepository repository,
+		ReservationSeriesRepository seriesRepository,
+		PlanService planService,
+		AvailabilityIndex availabilityIndex,
+		SearchCache searchCache,
+		ReservationGuard reservationGuard,
+		SlotHolds slotHolds,
+		PlatformTransactionManager transactionManager
+	) {
 		super(repository);
 		this.reservationRepository = repository;
+		this.seriesRepository = seriesRepository;
 		this.planService = planService;
+		this.availabilityIndex = availabilityIndex;
+		this.searchCache = searchCache;
+		this.reservationGuard = reservationGuard;
+		this.slotHolds = slotHolds;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Override
 	// Override to ensure reservations cannot overlap
 	protected UUID save(Reservation reservation) {
-		boolean canAdd = reservationRepository.isTimeSlotFree(
+		return reservationGuard.book(reservation.getArea().getId(), () -> book(reservation));
+	}
+
+	/**
+	 * Saves a reservation if its time is free. Must be run through the {@link ReservationGuard},
+	 * so no overlapping reservation is made between the check and the save.
+	 *
+	 * @param reservation the reservation to save
+	 * @return the id of the saved reservation, or null if the time is not free
+	 */
+	private UUID book(Reservation reservation) {
+		if (reservation.getSeries() != null) {
+			throw new IllegalArgumentException("Occurrences of a series cannot be saved");
+		}
+		boolean canAdd = !slotHolds.isHeldByOther(
 			reservation.getArea().getId(),
 			reservation.getStart(),
-			reservation.getEnd()
+			reservation.getEnd(),
+			reservation.getUser().getId()
+		) && isFree(reservation);
+		if (!canAdd) {
+			return null;
+		}
+		return store(reservation);
+	}
+
+	/**
+	 * Checks if the time of a reservation is free of other reservations and series, and allowed
+	 * by a plan if its area is plan controlled. An existing reservation does not overlap itself.
+	 * Does not check holds.
+	 *
+	 * @param reservation the reservation to check
+	 * @return true if the time of the reservation is free
+	 */
+	private boolean isFree(Reservation reservation) {
+		UUID areaId = reservation.getArea().getId();
+		boolean canAdd = reservation.getId() == null
+			? reservationRepository.isTimeSlotFree(
+				areaId,
+				reservation.getStart(),
+				reservation.getEnd()
+			)
+			: reservationRepository.isTimeSlotFreeExcept(
+				areaId,
+				reservation.getStart(),
+				reservation.getEnd(),
+				reservation.getId()
+			);
+		return canAdd
+			&& isAllowed(reservation.getArea(), reservation.getStart(), reservation.getEnd());
+	}
+
+	/**
+	 * Checks if a time in an area is free of series, and allowed by a plan if the area is plan
+	 * controlled. Does not check reservations or holds.
+	 *
+	 * @param area the area to check
+	 * @param start the start of the time
+	 * @param end the end of the time
+	 * @return true if the time is free of series and allowed by the plans of the area
+	 */
+	private boolean isAllowed(Area area, LocalDateTime start, LocalDateTime end) {
+		boolean allowed = getSeriesForAreaBetween(area.getId(), start, end).stream()
+			.noneMatch(series -> series.getRecurrence().overlaps(start, end));
+
+		return allowed && (
+			!area.isPlanControlled()
+			|| planService.isFree(area.getId(), start, end)
 		);
+	}
 
-		canAdd = canAdd && (
-			!reservation.getArea().isPlanControlled()
-			|| planService.isFree(
+	/**
+	 * Saves a reservation that has been checked to be free. Must be run through the
+	 * {@link ReservationGuard}.
+	 *
+	 * @param reservation the reservation to save
+	 * @return the id of the saved reservation, or null if another reservation took the time
+	 */
+	private UUID store(Reservation reservation) {
+		Reservation previous = null;
+		if (reservation.getId() != null) {
+			previous = reservationRepository.findById(reservation.getId()).orElse(null);
+		}
+		Reservation savedReservation;
+		try {
+			// Flushed, so an overlap is found here rather than when the guard commits
+			savedReservation = reservationRepository.saveAndFlush(reservation);
+		} catch (DataIntegrityViolationException e) {
+			if (ReservationGuard.isOverlap(e)) {
+				// Another reservation took the time after it was checked
+				return null;
+			}
+			throw e;
+		}
+		availabilityIndex.put(savedReservation);
+		if (previous != null) {
+			// The time the reservation is moved away from may become available
+			invalidateSearches(previous);
+		}
+		invalidateSearches(savedReservation);
+		return savedReservation.getId();
+	}
+
+	/**
+	 * Moves an existing reservation to a new time, for instance to extend it. Unlike
+	 * {@link #update}, the reservation is not saved as a whole. Its times are changed with a
+	 * single conditional update, which checks for overlapping reservations other than itself
+	 * and only writes the times.
+	 *
+	 * <p>
+	 * The reservation is passed in rather than looked up, so that the caller can load it once
+	 * to both authorize the move and tell a missing reservation from a taken time.
+	 *
+	 * @param reservation the saved reservation to move
+	 * @param start the new start time
+	 * @param end the new end time
+	 * @return the moved reservation, or null if the new time is not free
+	 * @throws InvalidArgumentCheckedException if the end is before the start, or if the start is
+	 *     changed to a time in the past
+	 */
+	public Reservation move(Reservation reservation, LocalDateTime start, LocalDateTime end)
+		throws InvalidArgumentCheckedException {
+		if (reservation == null || reservation.getId() == null) {
+			throw new IllegalArgumentException("Reservation is required");
+		}
+		if (start == null || end == null) {
+			throw new IllegalArgumentException("Start and end are required");
+		}
+		if (!end.isAfter(start)) {
+			throw new InvalidArgumentCheckedException("End time is not after start time");
+		}
+		UUID id = reservation.getId();
+		if (!start.equals(reservation.getStart()) && start.isBefore(LocalDateTime.now())) {
+			throw new InvalidArgumentCheckedException("Start time is before current time");
+		}
+		Area area = reservation.getArea();
+		LocalDateTime previousStart = reservation.getStart();
+		LocalDateTime previousEnd = reservation.getEnd();
+
+		return reservationGuard.book(area.getId(), () -> {
+			boolean canMove = !slotHolds.isHeldByOther(
+				area.getId(),
+				start,
+				end,
+				reservation.getUser().getId()
+			) && isAllowed(area, start, end);
+			if (!canMove) {
+				return null;
+			}
+			int moved;
+			try {
+				moved = reservationRepository.moveIfFree(id, start, end);
+			} catch (DataIntegrityViolationException e) {
+				if (ReservationGuard.isOverlap(e)) {
+					// Another reservation took the time after it was checked
+					return null;
+				}
+				throw e;
+			}
+			if (moved == 0) {
+				return null;
+			}
+			Reservation movedReservation = reservationRepository.findById(id).orElseThrow();
+			availabilityIndex.put(movedReservation);
+			searchCache.invalidate(area.getId(), previousStart, previousEnd);
+			invalidateSearches(movedReservation);
+			return movedReservation;
+		});
+	}
+
+	/**
+	 * Holds the time of a reservation for its user for a short while, without saving it. Other
+	 * users cannot reserve or hold the time until the hold is confirmed, released or expires.
+	 *
+	 * <p>
+	 * Held time counts as occupied in searches. The {@link SlotHolds} invalidate the cached
+	 * searches of the held time when a hold is placed, released or expires.
+	 *
+	 * @param reservation the reservation whose time to hold
+	 * @return the hold, or null if the time is not free or the user has too many holds
+	 * @see #confirmHold(UUID, Reservation)
+	 */
+	public SlotHold hold(Reservation reservation) {
+		if (reservation == null) {
+			return null;
+		}
+		// Exclusive, so no reservation is made between the check and the hold
+		return reservationGuard.bookExclusive(reservation.getArea().getId(), () -> {
+			if (!isFree(reservation)) {
+				return null;
+			}
+			return slotHolds.hold(
 				reservation.getArea().getId(),
+				reservation.getUser().getId(),
 				reservation.getStart(),
 				reservation.getEnd()
-			));
-		UUID reservationId = null;
-		if (canAdd) {
-			reservationId = super.save(reservation);
+			);
+		});
+	}
+
+	/**
+	 * Turns a hold into a reservation. The reservation must belong to the user of the hold, and
+	 * lie within the held time of the held area. The hold is released once the reservation is
+	 * saved.
+	 *
+	 * @param holdId the id of the hold to confirm
+	 * @param reservation the reservation to save in place of the hold
+	 * @return the id of the saved reservation, or null if the time is no longer free
+	 * @throws IllegalArgumentException if the hold does not exist, has expired, or does not cover
+	 *     the reservation
+	 */
+	public UUID confirmHold(UUID holdId, Reservation reservation) {
+		SlotHold hold = slotHolds.get(holdId);
+		if (hold == null) {
+			throw new IllegalArgumentException("Hold does not exist or has expired");
+		}
+		if (!hold.userId().equals(reservation.getUser().getId())
+			|| !hold.areaId().equals(reservation.getArea().getId())
+			|| reservation.getStart().isBefore(hold.start())
+			|| reservation.getEnd().isAfter(hold.end())
+		) {
+			throw new IllegalArgumentException("Hold does not cover the reservation");
+		}
+		UUID id = create(reservation);
+		if (id != null) {
+			slotHolds.release(holdId);
+		}
+		return id;
+	}
+
+	/**
+	 * Gets an active hold.
+	 *
+	 * @param holdId the id of the hold
+	 * @return the hold, or null if it does not exist or has expired
+	 */
+	public SlotHold getHold(UUID holdId) {
+		return slotHolds.get(holdId);
+	}
+
+	/**
+	 * Releases a hold before it expires, making its time available to other users. The cached
+	 * searches of the held time are invalidated, so the area is found as free again.
+	 *
+	 * @param holdId the id of the hold
+	 * @return true if the hold was released, false if it does not exist or has expired
+	 */
+	public boolean releaseHold(UUID holdId) {
+		return slotHolds.release(holdId) != null;
+	}
+
+	/**
+	 * Creates many reservations at once.
+	 *
+	 * <p>
+	 * Every reservation is checked against the existing reservations of its area, and against the
+	 * reservations before it in the batch. The existing reservations are found with one query per
+	 * area, and the plans of all plan controlled areas with a single query. The reservations are
+	 * then written in one transaction, which lets the database insert them in batches.
+	 *
+	 * <p>
+	 * If all or nothing is requested, no reservation is created unless every reservation can be.
+	 * Otherwise every reservation that can be created is.
+	 *
+	 * @param reservations the reservations to create. Null entries are reported as invalid
+	 * @param allOrNothing true if no reservation should be created unless all can be
+	 * @return the result of every reservation, in the same order as the reservations
+	 */
+	public List<BatchReservationResult> createAll(
+		List<Reservation> reservations,
+		boolean allOrNothing
+	) {
+		Set<UUID> areaIds = new HashSet<>();
+		reservations.stream()
+			.filter(Objects::nonNull)
+			.forEach(reservation -> areaIds.add(reservation.getArea().getId()));
+
+		List<BatchReservationResult> results = reservationGuard.bookAll(
+			areaIds,
+			() -> bookAll(reservations, allOrNothing)
+		);
+		if (results == null) {
+			// Another reservation took a checked time before the batch was written. The batch
+			// was rolled back, so it is checked again against the new reservation.
+			List<Reservation> copies = copyAll(reservations);
+			results = reservationGuard.bookAll(areaIds, () -> bookAll(copies, allOrNothing));
+		}
+		if (results == null) {
+			results = new ArrayList<>();
+			for (int i = 0; i < reservations.size(); i++) {
+				Status status = reservations.get(i) == null ? Status.INVALID : Status.CONFLICT;
+				results.add(new BatchReservationResult(i, status, null));
+			}
 		}
-		return reservationId;
+		return results;
+	}
+
+	/**
+	 * Checks and writes a batch of reservations. Must be run through the
+	 * {@link ReservationGuard}.
+	 *
+	 * @param reservations the reservations to create. Null entries are reported as invalid
+	 * @param allOrNothing true if no reservation should be created unless all can be
+	 * @return the result of every reservation, or null if another reservation took a checked
+	 *     time before the batch was written
+	 */
+	private List<BatchReservationResult> bookAll(
+		List<Reservation> reservations,
+		boolean allOrNothing
+	) {
+		Status[] statuses = checkAll(reservations);
+
+		List<Reservation> accepted = new ArrayList<>();
+		boolean allAccepted = true;
+		for (int i = 0; i < statuses.length; i++) {
+			if (statuses[i] == Status.CREATED) {
+				accepted.add(reservations.get(i));
+			} else {
+				allAccepted = false;
+			}
+		}
+
+		if (allOrNothing && !allAccepted) {
+			for (int i = 0; i < statuses.length; i++) {
+				if (statuses[i] == Status.CREATED) {
+					statuses[i] = Status.NOT_CREATED;
+				}
+			}
+			accepted.clear();
+		}
+
+		if (!accepted.isEmpty()) {
+			try {
+				// Flushed, so an overlap is found here rather than when the guard commits
+				reservationRepository.saveAllAndFlush(accepted);
+			} catch (DataIntegrityViolationException e) {
+				if (ReservationGuard.isOverlap(e)) {
+					return null;
+				}
+				throw e;
+			}
+			for (Reservation reservation : accepted) {
+				availabilityIndex.put(reservation);
+				invalidateSearches(reservation);
+			}
+		}
+
+		List<BatchReservationResult> results = new ArrayList<>();
+		for (int i = 0; i < statuses.length; i++) {
+			UUID id = statuses[i] == Status.CREATED ? reservations.get(i).getId() : null;
+			results.add(new BatchReservationResult(i, statuses[i], id));
+		}
+		return results;
+	}
+
+	/**
+	 * Checks which reservations in a batch can be created.
+	 *
+	 * @param reservations the reservations to check. Null entries are invalid
+	 * @return {@link Status#CREATED} for every reservation that can be created, and the reason
+	 *     for every reservation that can not
+	 */
+	private Status[] checkAll(List<Reservation> reservations) {
+		Status[] statuses = new Status[reservations.size()];
+		Map<UUID, List<Integer>> indexesByArea = new HashMap<>();
+		for (int i = 0; i < reservations.size(); i++) {
+			Reservation reservation = reservations.get(i);
+			if (reservation == null) {
+				statuses[i] = Status.INVALID;
+			} else {
+				indexesByArea
+					.computeIfAbsent(reservation.getArea().getId(), id -> new ArrayList<>())
+					.add(i);
+			}
+		}
+
+		List<UUID> planControlledIds = indexesByArea.values().stream()
+			.map(indexes -> reservations.get(indexes.get(0)).getArea())
+			.filter(Area::isPlanControlled)
+			.map(Area::getId)
+			.toList();
+		Map<UUID, List<Plan>> plansByArea = planService.getAllPlansByAreas(planControlledIds)
+			.stream()
+			.collect(Collectors.groupingBy(plan -> plan.getArea().getId()));
+
+		indexesByArea.forEach((areaId, indexes) -> {
+			LocalDateTime first = indexes.stream()
+				.map(i -> reservations.get(i).getStart())
+				.min(LocalDateTime::compareTo)
+				.orElseThrow();
+			LocalDateTime last = indexes.stream()
+				.map(i -> reservations.get(i).getEnd())
+				.max(LocalDateTime::compareTo)
+				.orElseThrow();
+			List<ReservationSpan> taken = new ArrayList<>(
+				reservationRepository.findSpansForAreaInTimePeriod(areaId, first, last)
+			);
+			for (ReservationSeries series : getSeriesForAreaBetween(areaId, first, last)) {
+				taken.addAll(ReservationSpan.ofOccurrences(
+					series.getId(),
+					areaId,
+					series.getRecurrence(),
+					first,
+					last
+				));
+			}
+			List<Plan> plans = plansByArea.get(areaId);
+
+			for (int i : indexes) {
+				Reservation reservation = reservations.get(i);
+				boolean free = taken.stream().noneMatch(span ->
+					span.start().isBefore(reservation.getEnd())
+					&& reservation.getStart().isBefore(span.end())
+				) && !slotHolds.isHeldByOther(
+					areaId,
+					reservation.getStart(),
+					reservation.getEnd(),
+					reservation.getUser().getId()
+				);
+				if (plans != null) {
+					free = free && plans.stream().anyMatch(plan ->
+						!plan.getStart().isAfter(reservation.getStart().toLocalDate())
+						&& !plan.getEnd().isBefore(reservation.getEnd().toLocalDate())
+					);
+				} else if (reservation.getArea().isPlanControlled()) {
+					free = false;
+				}
+
+				if (free) {
+					statuses[i] = Status.CREATED;
+					taken.add(new ReservationSpan(
+						reservation.getId(),
+						areaId,
+						reservation.getStart(),
+						reservation.getEnd()
+					));
+				} else {
+					statuses[i] = Status.CONFLICT;
+				}
+			}
+		});
+		return statuses;
+	}
+
+	/**
+	 * Copies reservations that were part of a rolled back batch, so they can be written again.
+	 *
+	 * @param reservations the reservations to copy. Null entries are kept
+	 * @return the copied reservations, where reservations that are no longer valid are null
+	 */
+	private List<Reservation> copyAll(List<Reservation> reservations) {
+		List<Reservation> copies = new ArrayList<>();
+		for (Reservation reservation : reservations) {
+			Reservation copy = null;
+			if (reservation != null) {
+				try {
+					copy = new Reservation(
+						reservation.getArea(),
+						reservation.getUser(),
+						reservation.getStart(),
+						reservation.getEnd(),
+						reservation.getComment()
+					);
+				} catch (InvalidArgumentCheckedException | NotReservableException e) {
+					// The reservation is no longer valid, such as when its start has passed
+				}
+			}
+			copies.add(copy);
+		}
+		return copies;
+	}
+
+	@Override
+	// Override to keep the availability index and search cache up to date
+	public boolean delete(UUID id) {
+		Reservation reservation = get(id);
+		boolean deleted = super.delete(id);
+		if (deleted) {
+			availabilityIndex.remove(id);
+			if (reservation != null) {
+				invalidateSearches(reservation);
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Invalidates the cached searches that may have a different result because of a reservation.
+	 *
+	 * @param reservation the reservation that changed
+	 */
+	private void invalidateSearches(Reservation reservation) {
+		searchCache.invalidate(
+			reservation.getArea().getId(),
+			reservation.getStart(),
+			reservation.getEnd()
+		);
 	}
 
 	/**
@@ -70,6 +609,44 @@ public class ReservationService extends EntityService<Reservation, UUID> {
 		return this.reservationRepository.findAllByUserIdOrderByStartDateTimeAsc(userId);
 	}
 
+	/**
+	 * Gets a page of all reservations, sorted by start time and then by id, without counting the
+	 * reservations.
+	 *
+	 * @param after the cursor of the previous page, or null for the first page
+	 * @param size the amount of entries per page
+	 * @return a page of reservations
+	 * @throws IllegalArgumentException if the cursor does not point at a reservation
+	 */
+	public CursorPage<Reservation> getAllAfter(Cursor after, Integer size) {
+		int pageSize = toPageSize(size);
+		Limit limit = Limit.of(pageSize + 1);
+		List<Reservation> reservations;
+		if (after == null) {
+			reservations = reservationRepository
+				.findAllByOrderByStartDateTimeAscReservationUuidAsc(limit);
+		} else {
+			reservations = reservationRepository.findAfter(
+				parseCursorTime(after),
+				after.id(),
+				limit
+			);
+		}
+		return CursorPage.of(
+			reservations,
+			pageSize,
+			reservation -> new Cursor(reservation.getStart().toString(), reservation.getId())
+		);
+	}
+
+	private LocalDateTime parseCursorTime(Cursor cursor) {
+		try {
+			return LocalDateTime.parse(cursor.key());
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Cursor does not point at a reservation", e);
+		}
+	}
+
 	/**
 	 * Gets all reservations belonging to a given area.
 	 *
@@ -81,60 +658,331 @@ public class ReservationService extends EntityService<Reservation, UUID> {
 	}
 
 	/**
-	 * Gets all reservations belonging to a given area within the specified time period. This
-	 * includes all reservations that occur within the time frame.
+	 * Gets the simple representation of all reservations belonging to a given area within the
+	 * specified time period. This includes all reservations that occur within the time frame, and
+	 * the occurrences of series within the time frame.
 	 *
 	 * @param areaId the id to get the reservations from
 	 * @param start the start of the time search
 	 * @param end the end of the time search
-	 * @return a list of reservations for the area that occur within the given timeframe
+	 * @param sessionUserId the id of the logged in user, or null if no user is logged in
+	 * @return the reservations for the area that occur within the given timeframe, sorted by start
+	 * @see Reservation#getSeries()
 	 */
-	public List<Reservation> getReservationsForAreaBetween(
+	public List<SimpleReservation> getSimpleReservationsForAreaBetween(
+		UUID areaId, LocalDateTime start, LocalDateTime end, UUID sessionUserId
+	) {
+		return getSimpleReservationsForAreasBetween(List.of(areaId), start, end, sessionUserId);
+	}
+
+	/**
+	 * Gets the simple representation of all reservations belonging to any of the given areas
+	 * within the specified time period. The reservations are read with a projection query, so no
+	 * reservation, area or user entities are loaded.
+	 *
+	 * @param areaIds the ids of the areas to get the reservations from
+	 * @param start the start of the time search
+	 * @param end the end of the time search
+	 * @param sessionUserId the id of the logged in user, or null if no user is logged in
+	 * @return the reservations for the areas that occur within the given timeframe, sorted by start
+	 * @see #getSimpleReservationsForAreaBetween(UUID, LocalDateTime, LocalDateTime, UUID)
+	 */
+	public List<SimpleReservation> getSimpleReservationsForAreasBetween(
+		Collection<UUID> areaIds, LocalDateTime start, LocalDateTime end, UUID sessionUserId
+	) {
+		if (areaIds.isEmpty()) {
+			return List.of();
+		}
+		return withOccurrences(
+			reservationRepository
+				.findSimpleForAreasInTimePeriod(areaIds, start, end, sessionUserId),
+			seriesRepository.findForAreasInTimePeriod(
+				areaIds,
+				start.toLocalDate(),
+				end.toLocalDate()
+			),
+			start,
+			end,
+			sessionUserId
+		);
+	}
+
+	/**
+	 * Reads the simple representation of all reservations within a time period, in every area
+	 * where the user has a reservation or an occurrence of a series within the same time period.
+	 * The areas are handed to the action one at a time as their reservations are read from the
+	 * database, so the reservations of all areas are never held at once.
+	 *
+	 * <p>
+	 * The reservations and the series are each read with a single query. Areas where the user
+	 * only has a series are handed to the action after the others, as they have no rows among
+	 * the reservations. The action is called within the transaction reading the reservations, so
+	 * it should not block for long.
+	 *
+	 * @param userId the id of the user whose areas are read, used to mark their reservations
+	 * @param start the start of the time period
+	 * @param end the end of the time period
+	 * @param action called with the id of every area and its reservations, sorted by start
+	 */
+	public void forEachAreaReservedByUser(
+		UUID userId,
+		LocalDateTime start,
+		LocalDateTime end,
+		BiConsumer<UUID, List<SimpleReservation>> action
+	) {
+		transactionTemplate.executeWithoutResult(status -> {
+			Map<UUID, List<ReservationSeries>> seriesByArea = seriesRepository
+				.findForUserAreasInTimePeriod(
+					userId,
+					start,
+					end,
+					start.toLocalDate(),
+					end.toLocalDate()
+				)
+				.stream()
+				.collect(Collectors.groupingBy(series -> series.getArea().getId()));
+
+			try (Stream<SimpleReservation> reservations = reservationRepository
+				.streamSimpleForUserAreasInTimePeriod(
+					userId,
+					start,
+					end,
+					start.toLocalDate(),
+					end.toLocalDate()
+				)) {
+				forEachArea(reservations.iterator(), seriesByArea, start, end, userId, action);
+			}
+		});
+	}
+
+	/**
+	 * Groups reservations sorted by area, adds the occurrences of the series of every area, and
+	 * hands every area where the user has a reservation or an occurrence to an action. Areas
+	 * that only have series are handed over after the others.
+	 *
+	 * @param reservations the reservations, sorted by area and then by start time
+	 * @param seriesByArea the series that may occur within the time period, by area
+	 * @param start the start of the time period
+	 * @param end the end of the time period
+	 * @param userId the id of the user whose areas are read
+	 * @param action called with the id of every area and its reservations, sorted by start
+	 */
+	static void forEachArea(
+		Iterator<SimpleReservation> reservations,
+		Map<UUID, List<ReservationSeries>> seriesByArea,
+		LocalDateTime start,
+		LocalDateTime end,
+		UUID userId,
+		BiConsumer<UUID, List<SimpleReservation>> action
+	) {
+		// Areas are removed once handed over, so only the areas without reservations remain
+		Map<UUID, List<ReservationSeries>> remainingSeries = new HashMap<>(seriesByArea);
+		// The rows are sorted by area, so an area is complete when the next one begins
+		UUID areaId = null;
+		List<SimpleReservation> areaReservations = new ArrayList<>();
+		while (reservations.hasNext()) {
+			SimpleReservation reservation = reservations.next();
+			if (areaId != null && !areaId.equals(reservation.areaId())) {
+				acceptIfReserved(areaId, withOccurrences(
+					areaReservations,
+					remainingSeries.getOrDefault(areaId, List.of()),
+					start,
+					end,
+					userId
+				), action);
+				remainingSeries.remove(areaId);
+				areaReservations = new ArrayList<>();
+			}
+			areaId = reservation.areaId();
+			areaReservations.add(reservation);
+		}
+		if (areaId != null) {
+			acceptIfReserved(areaId, withOccurrences(
+				areaReservations,
+				remainingSeries.getOrDefault(areaId, List.of()),
+				start,
+				end,
+				userId
+			), action);
+			remainingSeries.remove(areaId);
+		}
+		remainingSeries.forEach((remainingAreaId, series) -> acceptIfReserved(
+			remainingAreaId,
+			withOccurrences(List.of(), series, start, end, userId),
+			action
+		));
+	}
+
+	/**
+	 * Hands the reservations of an area to an action if the user has any of them. The areas are
+	 * found by the dates of the series of the user, so a series of the user may have no
+	 * occurrence within the time period.
+	 *
+	 * @param areaId the id of the area
+	 * @param reservations the reservations of the area, marked for the user
+	 * @param action called with the id of the area and its reservations
+	 */
+	private static void acceptIfReserved(
+		UUID areaId,
+		List<SimpleReservation> reservations,
+		BiConsumer<UUID, List<SimpleReservation>> action
+	) {
+		if (reservations.stream().anyMatch(SimpleReservation::isMine)) {
+			action.accept(areaId, reservations);
+		}
+	}
+
+	/**
+	 * Finds the series of an area that may occur within a time period.
+	 *
+	 * @param areaId the id of the area
+	 * @param start the start of the time period
+	 * @param end the end of the time period
+	 * @return the series of the area whose dates overlap the time period
+	 */
+	private List<ReservationSeries> getSeriesForAreaBetween(
 		UUID areaId, LocalDateTime start, LocalDateTime end
 	) {
-		return this.reservationRepository.findReservationsForAreaInTimePeriod(areaId, start, end);
+		return seriesRepository.findForAreaInTimePeriod(
+			areaId,
+			start.toLocalDate(),
+			end.toLocalDate()
+		);
 	}
 
 	/**
-	 * Checks if the input area has any gap that is greater than the input duration.
+	 * Adds the occurrences of series within a time period to a list of reservations.
 	 *
-	 * @param areaId the id of the area to check
+	 * @param reservations the reservations, sorted by start time
+	 * @param series the series to expand
+	 * @param start the start of the time period
+	 * @param end the end of the time period
+	 * @param sessionUserId the id of the logged in user, or null if no user is logged in
+	 * @return the reservations and occurrences, sorted by start time
+	 */
+	private static List<SimpleReservation> withOccurrences(
+		List<SimpleReservation> reservations,
+		List<ReservationSeries> series,
+		LocalDateTime start,
+		LocalDateTime end,
+		UUID sessionUserId
+	) {
+		if (series.isEmpty()) {
+			return reservations;
+		}
+		List<SimpleReservation> all = new ArrayList<>(reservations);
+		for (ReservationSeries recurring : series) {
+			boolean isMine = recurring.getUser().getId().equals(sessionUserId);
+			recurring.getOccurrences(start, end).forEach(occurrence -> all.add(
+				SimpleReservation.Builder.fromReservation(occurrence).isMine(isMine).build()
+			));
+		}
+		all.sort(Comparator.comparing(SimpleReservation::startTime));
+		return all;
+	}
+
+	/**
+	 * Filters the input areas down to the areas that have a gap that is greater than the input
+	 * duration.
+	 *
+	 * <p>
+	 * Uses the in-memory {@link AvailabilityIndex} when it is enabled and covers the search, so no
+	 * query is run. Otherwise, all areas are checked by the database in a single query.
+	 *
+	 * @param areaIds the ids of the areas to check
 	 * @param searchStart the time to start search from
 	 * @param searchEnd the time to end the search
 	 * @param minDuration the minimum length of a gap to find
-	 * @return true if the area has a gap that is at least the size of {@code minDuration}
+	 * @return the ids of the areas that have a gap that is at least the size of {@code minDuration}
 	 */
-	public boolean doesAreaHaveFreeGapLike(
-		UUID areaId,
+	public List<UUID> getAreasWithFreeGapLike(
+		Collection<UUID> areaIds,
 		LocalDateTime searchStart,
 		LocalDateTime searchEnd,
 		Duration minDuration
 	) {
-		Iterator<Reservation> reservations = reservationRepository
-			.findReservationsForAreaInTimePeriod(areaId, searchStart, searchEnd).iterator();
-
-		boolean hasGap = false;
-		LocalDateTime prevEnd = searchStart;
-
-		while (reservations.hasNext() && !hasGap) {
-			Reservation reservation = reservations.next();
+		if (areaIds.isEmpty()) {
+			return List.of();
+		}
+		if (inMemoryAvailability && availabilityIndex.covers(searchStart)) {
+			return availabilityIndex
+				.filterWithFreeGap(areaIds, searchStart, searchEnd, minDuration);
+		}
+		List<UUID> areasWithGap = reservationRepository.findAreaIdsWithFreeGapLike(
+			areaIds,
+			searchStart,
+			searchEnd,
+			minDuration.toSeconds()
+		);
+		if (areasWithGap.isEmpty()) {
+			return areasWithGap;
+		}
 
-			if (isGapGreaterThanDuration(prevEnd, reservation.getStart(), minDuration)) {
-				hasGap = true;
+		// The query does not know about series or holds, so areas with occurrences or holds in
+		// the window are checked again with them included
+		Map<UUID, List<ReservationSpan>> occurrencesByArea = new HashMap<>();
+		for (UUID areaId : areasWithGap) {
+			List<ReservationSpan> holds = slotHolds.getSpans(areaId, searchStart, searchEnd);
+			if (!holds.isEmpty()) {
+				occurrencesByArea.put(areaId, new ArrayList<>(holds));
 			}
-
-			prevEnd = reservation.getEnd().isBefore(searchEnd) ? reservation.getEnd() : searchEnd;
 		}
-
-		return hasGap;
+		for (ReservationSeries series : seriesRepository.findForAreasInTimePeriod(
+			areasWithGap,
+			searchStart.toLocalDate(),
+			searchEnd.toLocalDate()
+		)) {
+			UUID areaId = series.getArea().getId();
+			occurrencesByArea.computeIfAbsent(areaId, id -> new ArrayList<>()).addAll(
+				ReservationSpan.ofOccurrences(
+					series.getId(),
+					areaId,
+					series.getRecurrence(),
+					searchStart,
+					searchEnd
+				)
+			);
+		}
+		occurrencesByArea.values().removeIf(List::isEmpty);
+		if (occurrencesByArea.isEmpty()) {
+			return areasWithGap;
+		}
+		// The reservations of every area checked again are loaded in a single query
+		for (ReservationSpan span : reservationRepository.findSpansForAreasInTimePeriod(
+			occurrencesByArea.keySet(),
+			searchStart,
+			searchEnd
+		)) {
+			occurrencesByArea.get(span.areaId()).add(span);
+		}
+		return areasWithGap.stream().filter(areaId -> {
+			List<ReservationSpan> spans = occurrencesByArea.get(areaId);
+			return spans == null
+				|| AvailabilityIndex.hasFreeGap(spans, searchStart, searchEnd, minDuration);
+		}).toList();
 	}
 
-	private boolean isGapGreaterThanDuration(
-		LocalDateTime gapStart,
-		LocalDateTime gapEnd,
-		Duration duration
+	/**
+	 * Checks if the input area has any gap that is greater than the input duration.
+	 *
+	 * @param areaId the id of the area to check
+	 * @param searchStart the time to start search from
+	 * @param searchEnd the time to end the search
+	 * @param minDuration the minimum length of a gap to find
+	 * @return true if the area has a gap that is at least the size of {@code minDuration}
+	 */
+	public boolean doesAreaHaveFreeGapLike(
+		UUID areaId,
+		LocalDateTime searchStart,
+		LocalDateTime searchEnd,
+		Duration minDuration
 	) {
-		return Duration.between(gapStart, gapEnd).compareTo(duration) >= 0;
+		return !getAreasWithFreeGapLike(
+			List.of(areaId),
+			searchStart,
+			searchEnd,
+			minDuration
+		).isEmpty();
 	}
 
 	/**
@@ -143,25 +991,10 @@ public class ReservationService extends EntityService<Reservation, UUID> {
 	 * @param areaId the id of the area
 	 * @param day the day to check the reservation frequency of
 	 * @return the percentage of the day an area is occupied, as a decimal
-	 * @see #getReservationFrequencyForMonth(UUID, YearMonth)
+	 * @see #getReservationFrequencyForMonth(UUID, int, int)
 	 */
 	public float getReservationFrequencyForDay(UUID areaId, LocalDate day) {
-		LocalDateTime startOfDay = day.atStartOfDay();
-		LocalDateTime endOfDay = day.plusDays(1).atStartOfDay();
-
-		List<Reservation> reservationsForDay = reservationRepository
-			.findReservationsForAreaInTimePeriod(areaId, startOfDay, endOfDay);
-
-		float totalMilliseconds = 0;
-
-		for (Reservation reservation : reservationsForDay) {
-			LocalDateTime clampedStartTime = clampTime(reservation.getStart(), startOfDay, null);
-			LocalDateTime clampedEndTime = clampTime(reservation.getEnd(), null, endOfDay);
-
-			totalMilliseconds += getMillisBetween(clampedStartTime, clampedEndTime);
-		}
-
-		return totalMilliseconds / MS_IN_DAY;
+		return getReservationFrequencyForDays(areaId, day, 1).get(0);
 	}
 
 	/**
@@ -175,16 +1008,11 @@ public class ReservationService extends EntityService<Reservation, UUID> {
 	 */
 	public List<Float> getReservationFrequencyForDaysInMonth(UUID areaId, int year, int month) {
 		YearMonth yearMonth = YearMonth.of(year, month);
-
-		List<Float> frequencies = new ArrayList<>();
-
-		for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
-			LocalDate thisDate = LocalDate.of(year, month, day);
-
-			frequencies.add(getReservationFrequencyForDay(areaId, thisDate));
-		}
-
-		return frequencies;
+		return getReservationFrequencyForDays(
+			areaId,
+			yearMonth.atDay(1),
+			yearMonth.lengthOfMonth()
+		);
 	}
 
 	/**
@@ -197,59 +1025,68 @@ public class ReservationService extends EntityService<Reservation, UUID> {
 	 * @see #getReservationFrequencyForDay(UUID, LocalDate)
 	 */
 	public float getReservationFrequencyForMonth(UUID areaId, int year, int month) {
-		// Note: Month is 1-indexed (range of 1 to 12)
-		YearMonth yearMonth = YearMonth.of(year, month);
-		int lengthOfMonth = yearMonth.lengthOfMonth();
-
 		// We use a higher intermediary precision to increase accuracy
 		// as floats lose accuracy as numbers grow large.
 		double totalFrequency = 0;
 
-		for (int day = 1; day <= lengthOfMonth; day++) {
-			LocalDate thisDate = LocalDate.of(year, month, day);
-
-			totalFrequency += getReservationFrequencyForDay(areaId, thisDate);
+		List<Float> frequencies = getReservationFrequencyForDaysInMonth(areaId, year, month);
+		for (float frequency : frequencies) {
+			totalFrequency += frequency;
 		}
 
 		// Since max frequency where every day is fully occupied is the same as
 		// the length of the month, this gets the percentage for the full month
-		return (float) (totalFrequency / lengthOfMonth);
+		return (float) (totalFrequency / frequencies.size());
 	}
 
 	/**
-	 * Clamps the time to a minimum and maximum time.
+	 * Gets the percentage of each day that an area is occupied by reservations, for a number of
+	 * days in a row.
 	 *
-	 * @param time the time to be clamped
-	 * @param min the lowest permissible value for the time. If missing, does not enforce a boundary
-	 * @param max the highest permissible value for the time. If missing, does not enforce a
-	 *     boundary
-	 * @return the time clamped between min and max.
+	 * <p>
+	 * Days covered by the availability index are read from its occupancy bitmaps. Other days are
+	 * computed from a single query for the reservations of the whole period, and the occurrences
+	 * of series in the period.
+	 *
+	 * @param areaId the id of the area
+	 * @param firstDay the first day to check the reservation frequency of
+	 * @param dayCount the amount of days to check
+	 * @return the percentage of each day the area is occupied, as decimals
 	 */
-	private LocalDateTime clampTime(LocalDateTime time, LocalDateTime min, LocalDateTime max) {
-		LocalDateTime clampedTime = time;
-
-		if (min != null && time.isBefore(min)) {
-			clampedTime = min;
-		} else if (max != null && time.isAfter(max)) {
-			clampedTime = max;
+	private List<Float> getReservationFrequencyForDays(
+		UUID areaId,
+		LocalDate firstDay,
+		int dayCount
+	) {
+		if (inMemoryAvailability && availabilityIndex.covers(firstDay.atStartOfDay())) {
+			return availabilityIndex.getFrequencies(areaId, firstDay, dayCount);
 		}
-
-		return clampedTime;
-	}
-
-	private float getMillisBetween(LocalDateTime start, LocalDateTime end) {
-		Duration duration = Duration.between(start, end);
-
-		return duration.toMillis();
+		LocalDateTime start = firstDay.atStartOfDay();
+		LocalDateTime end = firstDay.plusDays(dayCount).atStartOfDay();
+		List<ReservationSpan> spans = new ArrayList<>(
+			reservationRepository.findSpansForAreaInTimePeriod(areaId, start, end)
+		);
+		for (ReservationSeries series : getSeriesForAreaBetween(areaId, start, end)) {
+			spans.addAll(ReservationSpan.ofOccurrences(
+				series.getId(),
+				areaId,
+				series.getRecurrence(),
+				start,
+				end
+			));
+		}
+		return AvailabilityIndex.getFrequencies(spans, firstDay, dayCount);
 	}
 
 	/**
-	 * Gets all reservations belonging to a given user.
+	 * Gets the simple representation of all reservations belonging to a given user, sorted by
+	 * start time.
 	 *
 	 * @param userId the user to get the reservations of
+	 * @param sessionUserId the id of the logged in user, or null if no user is logged in
 	 * @return a list of reservation DTOs belonging to the given user id.
 	 */
-	public List<Reservation> getReservationsByUser(UUID userId) {
-		return this.reservationRepository.findAllByUser(userId);
+	public List<SimpleReservation> getSimpleReservationsByUser(UUID userId, UUID sessionUserId) {
+		return this.reservationRepository.findSimpleByUserId(userId, sessionUserId);
 	}
 }
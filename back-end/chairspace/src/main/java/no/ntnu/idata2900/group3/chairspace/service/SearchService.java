@@ -2,26 +2,56 @@ package no.ntnu.idata2900.group3.chairspace.service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import no.ntnu.idata2900.group3.chairspace.dto.Cursor;
+import no.ntnu.idata2900.group3.chairspace.dto.CursorPage;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
 /**
  * Service to handle search requests.
+ *
+ * <p>
+ * Searches run as a pipeline. The cheap attribute filters run first in the database, and the
+ * expensive availability check only runs on the areas that pass them. The availability check
+ * runs in chunks, and stops as soon as the requested page can be filled.
+ *
+ * <p>
+ * Offset paged searches are cached in a {@link SearchCache}, so repeated searches and later pages
+ * of the same search continue where the previous search stopped.
  */
 @Service
 public class SearchService {
+	/** The smallest amount of candidate areas checked for availability at a time. */
+	private static final int MIN_CHUNK_SIZE = 64;
 	private final AreaService areaService;
+	private final ReservationService reservationService;
+	private final SearchCache searchCache;
 
 	/**
 	 * Creates a new search service.
 	 *
 	 * @param areaService autowired area service
+	 * @param reservationService autowired reservation service
+	 * @param searchCache autowired search cache
 	 */
-	public SearchService(AreaService areaService) {
+	public SearchService(
+		AreaService areaService,
+		ReservationService reservationService,
+		SearchCache searchCache
+	) {
 		this.areaService = areaService;
+		this.reservationService = reservationService;
+		this.searchCache = searchCache;
 	}
 
 	/**
@@ -31,6 +61,16 @@ public class SearchService {
 	 * and can be null.
 	 * If they are null, they will be ignored in the search.
 	 *
+	 * <p>
+	 * As the search stops once the page is filled, the total amount of results is not known, so
+	 * a slice is returned instead of a page. It only tells if there is a next page, which is found
+	 * by searching for one more area than the end of the page.
+	 *
+	 * <p>
+	 * The time window is shrunk to whole minutes: the start is rounded up and the end rounded
+	 * down. An area is only reported as free if it is free within the shrunk window, so a booking
+	 * in the seconds outside it can not make a busy area look free.
+	 *
 	 * @param page the page of the pagination to get
 	 * @param capacity the minimum capacity of the area
 	 * @param superAreaId the super area to search in
@@ -39,9 +79,9 @@ public class SearchService {
 	 * @param startDateTime the start date and time of the reservation
 	 * @param endDateTime the end date and time of the reservation
 	 * @param duration the duration of the reservation
-	 * @return a list of areas that fit the given criteria
+	 * @return a slice of areas that fit the given criteria
 	 */
-	public Page<Area> doSearch(
+	public Slice<Area> doSearch(
 		int page,
 		Integer capacity,
 		UUID superAreaId,
@@ -51,22 +91,148 @@ public class SearchService {
 		LocalDateTime endDateTime,
 		Duration duration
 	) {
-		// Might be useful to make a method that returns Area objects instead of AreaDto objects
-		// This would let save us processing time for searching the database
-		List<Area> rawAreaList = areaService.getAreasWithFreeGapLike(
+		Pageable paging = PageRequest.of(page, EntityService.DEFAULT_PAGE_SIZE);
+		// The window is shrunk to the slots of the cache, so equal searches share an entry. The
+		// search is answered for the shrunk window, which never reports a busy area as free
+		SearchCache.Key key = SearchCache.Key.of(
+			capacity,
+			superAreaId,
+			areaTypeId,
+			areaFeatureIds,
 			startDateTime,
 			endDateTime,
 			duration
 		);
-		List<UUID> freeAreas = rawAreaList.stream().map(Area::getId).toList();
+		SearchCache.Entry entry = searchCache.get(key, () -> areaService.getSearchCandidateIds(
+			capacity,
+			superAreaId,
+			areaTypeId,
+			areaFeatureIds,
+			key.start(),
+			key.end(),
+			null
+		));
+
+		// One more than the end of the page, to know if there is a next page
+		int wanted = (int) paging.getOffset() + paging.getPageSize() + 1;
+		List<UUID> matches;
+		synchronized (entry) {
+			int missing = wanted - entry.getMatches().size();
+			if (missing > 0) {
+				List<UUID> found = new ArrayList<>();
+				int checked = findAvailable(
+					entry.getCandidates(),
+					entry.getChecked(),
+					missing,
+					found,
+					key.start(),
+					key.end(),
+					duration
+				);
+				entry.addChecked(checked, found);
+			}
+			List<UUID> allMatches = entry.getMatches();
+			matches = List.copyOf(allMatches.subList(0, Math.min(wanted, allMatches.size())));
+		}
 
-		return areaService.searchWithOptionalParams(
-			page,
+		int from = (int) Math.min(paging.getOffset(), matches.size());
+		int to = Math.min(from + paging.getPageSize(), matches.size());
+		List<Area> content = areaService.getAllInOrder(matches.subList(from, to));
+
+		return new SliceImpl<>(content, paging, matches.size() > to);
+	}
+
+	/**
+	 * Searches for areas that fit the given criteria, and returns the page of results after the
+	 * given cursor. Works like {@link #doSearch}, but the search starts right after the last area
+	 * of the previous page, instead of finding and skipping every area on the previous pages.
+	 *
+	 * @param after the cursor of the previous page, or null for the first page
+	 * @param size the amount of entries per page
+	 * @param capacity the minimum capacity of the area
+	 * @param superAreaId the super area to search in
+	 * @param areaTypeId the type of area to search for
+	 * @param areaFeatureIds the features of the area to search for
+	 * @param startDateTime the start date and time of the reservation
+	 * @param endDateTime the end date and time of the reservation
+	 * @param duration the duration of the reservation
+	 * @return a page of areas that fit the given criteria
+	 */
+	public CursorPage<Area> doSearchAfter(
+		Cursor after,
+		Integer size,
+		Integer capacity,
+		UUID superAreaId,
+		String areaTypeId,
+		List<String> areaFeatureIds,
+		LocalDateTime startDateTime,
+		LocalDateTime endDateTime,
+		Duration duration
+	) {
+		int pageSize = EntityService.toPageSize(size);
+		List<UUID> candidates = areaService.getSearchCandidateIds(
 			capacity,
 			superAreaId,
 			areaTypeId,
 			areaFeatureIds,
-			freeAreas
+			startDateTime,
+			endDateTime,
+			after
 		);
+
+		// One more than the page, to know if there is a next page
+		List<UUID> matches = new ArrayList<>();
+		findAvailable(candidates, 0, pageSize + 1, matches, startDateTime, endDateTime, duration);
+		matches = matches.subList(0, Math.min(pageSize + 1, matches.size()));
+
+		return CursorPage.of(areaService.getAllInOrder(matches), pageSize, AreaService::toCursor);
+	}
+
+	/**
+	 * Checks the availability of the candidate areas in order, starting at the given candidate,
+	 * until the wanted amount of available areas is found or all candidates are checked.
+	 *
+	 * <p>
+	 * Candidates are checked a whole chunk at a time, so more than the wanted amount of available
+	 * areas may be found.
+	 *
+	 * @param candidates the ids of the areas to check, in the order they should be returned
+	 * @param from the index of the first candidate to check
+	 * @param wanted the amount of available areas to find
+	 * @param available the list to add the ids of the available areas to, in order
+	 * @param start the start of the time window
+	 * @param end the end of the time window
+	 * @param duration the minimum length of a free gap
+	 * @return the index after the last checked candidate
+	 */
+	private int findAvailable(
+		List<UUID> candidates,
+		int from,
+		int wanted,
+		List<UUID> available,
+		LocalDateTime start,
+		LocalDateTime end,
+		Duration duration
+	) {
+		int chunkSize = Math.max(wanted, MIN_CHUNK_SIZE);
+		int found = 0;
+
+		while (from < candidates.size() && found < wanted) {
+			int to = Math.min(from + chunkSize, candidates.size());
+			List<UUID> chunk = candidates.subList(from, to);
+			Set<UUID> free = new HashSet<>(
+				reservationService.getAreasWithFreeGapLike(chunk, start, end, duration)
+			);
+			// Keep the order of the candidates
+			for (UUID candidate : chunk) {
+				if (free.contains(candidate)) {
+					available.add(candidate);
+					found++;
+				}
+			}
+			from = to;
+		}
+
+		return from;
 	}
 }
@@ -2,15 +2,21 @@ package no.ntnu.idata2900.group3.chairspace.service;
 
 import java.util.Set;
 import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.UserCache;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleUser;
 import no.ntnu.idata2900.group3.chairspace.entity.Area;
 import no.ntnu.idata2900.group3.chairspace.entity.User;
 import no.ntnu.idata2900.group3.chairspace.exceptions.ElementNotFoundException;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import no.ntnu.idata2900.group3.chairspace.index.AreaAdministratorIndex;
 import no.ntnu.idata2900.group3.chairspace.repository.UserRepository;
+import no.ntnu.idata2900.group3.chairspace.security.SessionUserHolder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * Service class for interacting with and managing {@link User}s.
@@ -21,15 +27,48 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserService extends EntityService<User, UUID> {
 	private UserRepository userRepository;
+	private ObjectProvider<SessionUserHolder> sessionUserHolder;
+	private UserCache userCache;
+	private AreaAdministratorIndex administratorIndex;
 
 	/**
 	 * Creates a new user service.
 	 *
 	 * @param repository autowired UserRepository
+	 * @param sessionUserHolder provides the request scoped SessionUserHolder
+	 * @param userCache autowired UserCache
+	 * @param administratorIndex autowired AreaAdministratorIndex
 	 */
-	public UserService(UserRepository repository) {
+	public UserService(
+		UserRepository repository,
+		ObjectProvider<SessionUserHolder> sessionUserHolder,
+		UserCache userCache,
+		AreaAdministratorIndex administratorIndex
+	) {
 		super(repository);
 		this.userRepository = repository;
+		this.sessionUserHolder = sessionUserHolder;
+		this.userCache = userCache;
+		this.administratorIndex = administratorIndex;
+	}
+
+	@Override
+	public boolean update(User user) {
+		boolean updated = super.update(user);
+		if (updated) {
+			userCache.invalidate(user.getId());
+		}
+		return updated;
+	}
+
+	@Override
+	public boolean delete(UUID id) {
+		boolean deleted = super.delete(id);
+		if (deleted) {
+			userCache.invalidate(id);
+			administratorIndex.removeUser(id);
+		}
+		return deleted;
 	}
 
 	/**
@@ -49,6 +88,7 @@ public class UserService extends EntityService<User, UUID> {
 		}
 		user.setAdmin(isAdmin);
 		userRepository.save(user);
+		userCache.invalidate(userId);
 	}
 
 	/**
@@ -75,22 +115,97 @@ public class UserService extends EntityService<User, UUID> {
 			databaseUser.setName(user.getFullName());
 		}
 		userRepository.save(databaseUser);
+		userCache.put(databaseUser);
 		return databaseUser;
 
 	}
 
 	/**
-	 * Gets the currently logged in user.
+	 * Gets the currently logged in user. Within a request the user is only looked up once, see
+	 * {@link SessionUserHolder}.
 	 *
 	 * @return the currently logged in user, or null if no user is logged in
 	 */
 	public User getSessionUser() {
-		User user = null;
+		if (RequestContextHolder.getRequestAttributes() == null) {
+			// Outside of a request there is nothing to hold the user for
+			return findSessionUser();
+		}
+		return sessionUserHolder.getObject().get(this::findSessionUser);
+	}
+
+	/**
+	 * Gets the id of the currently logged in user.
+	 *
+	 * @return the id of the currently logged in user, or null if no user is logged in
+	 */
+	public UUID getSessionUserId() {
+		User user = getSessionUser();
+		return user == null ? null : user.getId();
+	}
+
+	/**
+	 * Gets a snapshot of the currently logged in user. Unlike {@link #getSessionUser()}, this
+	 * does not touch the database when the user is cached.
+	 *
+	 * @return a snapshot of the currently logged in user, or null if no user is logged in
+	 */
+	public SimpleUser getSessionUserSnapshot() {
+		String externalId = getSessionExternalId();
+		if (externalId == null) {
+			return null;
+		}
+		SimpleUser snapshot = userCache.get(externalId);
+		if (snapshot == null) {
+			User user = getSessionUser();
+			snapshot = user == null ? null : userCache.put(user);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Gets the statistics of the user cache.
+	 *
+	 * @return the statistics of the user cache
+	 */
+	public UserCache.Stats getCacheStats() {
+		return userCache.getStats();
+	}
+
+	/**
+	 * Finds the currently logged in user. A cached user is given as a reference, which is only
+	 * loaded from the database if more than its id is used.
+	 *
+	 * @return the currently logged in user, or null if no user is logged in
+	 */
+	private User findSessionUser() {
+		String externalId = getSessionExternalId();
+		if (externalId == null) {
+			return null;
+		}
+		SimpleUser cached = userCache.get(externalId);
+		if (cached != null) {
+			return userRepository.getReferenceById(cached.userId());
+		}
+		User user = userRepository.findByExternalId(externalId);
+		if (user != null) {
+			userCache.put(user);
+		}
+		return user;
+	}
+
+	/**
+	 * Gets the external id of the currently logged in user.
+	 *
+	 * @return the external id of the logged in user, or null if no user is logged in
+	 */
+	private String getSessionExternalId() {
+		String externalId = null;
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		if (authentication != null && authentication.getPrincipal() instanceof OidcUser oidcUser) {
-			user = userRepository.findByExternalId(oidcUser.getSubject());
+			externalId = oidcUser.getSubject();
 		}
-		return user;
+		return externalId;
 	}
 
 	/**
@@ -110,6 +225,7 @@ public class UserService extends EntityService<User, UUID> {
 		}
 		user.addFavoriteArea(area);
 		userRepository.save(user);
+		userCache.invalidate(user.getId());
 	}
 
 	/**
@@ -126,6 +242,7 @@ public class UserService extends EntityService<User, UUID> {
 		}
 		user.removeFavoriteArea(area);
 		userRepository.save(user);
+		userCache.invalidate(user.getId());
 	}
 
 	/**
@@ -0,0 +1,115 @@
+-- The schema as it was made by ddl-auto=update before migrations were added. Existing databases
+-- are baselined at this version, so this only runs on new databases.
+
+CREATE TABLE accounts (
+	id uuid NOT NULL,
+	name varchar(255) NOT NULL,
+	email varchar(255) NOT NULL,
+	is_admin boolean NOT NULL,
+	external_id varchar(255),
+	PRIMARY KEY (id)
+);
+
+CREATE TABLE area_type (
+	name varchar(255) NOT NULL,
+	description varchar(255),
+	PRIMARY KEY (name)
+);
+
+CREATE TABLE area_feature (
+	name varchar(255) NOT NULL,
+	description varchar(255),
+	PRIMARY KEY (name)
+);
+
+CREATE TABLE areas (
+	area_id uuid NOT NULL,
+	name varchar(255),
+	description varchar(255),
+	capacity integer NOT NULL,
+	calendar_controlled boolean NOT NULL,
+	calendar_link varchar(255),
+	plan_controlled boolean NOT NULL,
+	reservable boolean NOT NULL,
+	super_area_area_id uuid,
+	area_type_name varchar(255),
+	PRIMARY KEY (area_id)
+);
+
+CREATE TABLE area_administrators (
+	area_id uuid NOT NULL,
+	user_id uuid NOT NULL,
+	PRIMARY KEY (area_id, user_id)
+);
+
+CREATE TABLE area_features (
+	area_id uuid NOT NULL,
+	feature_id varchar(255) NOT NULL,
+	PRIMARY KEY (area_id, feature_id)
+);
+
+-- The columns are named the other way around of what they hold, as mapped by User: area_id holds
+-- the id of the user, and user_id the id of the area
+CREATE TABLE user_favorites (
+	area_id uuid NOT NULL,
+	user_id uuid NOT NULL,
+	PRIMARY KEY (area_id, user_id)
+);
+
+CREATE TABLE plan (
+	id uuid NOT NULL,
+	name varchar(255),
+	start_date date,
+	end_date date,
+	area_area_id uuid,
+	PRIMARY KEY (id)
+);
+
+CREATE TABLE reservation (
+	reservation_uuid uuid NOT NULL,
+	area_area_id uuid,
+	user_id uuid,
+	start_date_time timestamp(6),
+	end_date_time timestamp(6),
+	comment varchar(255),
+	PRIMARY KEY (reservation_uuid)
+);
+
+ALTER TABLE areas
+	ADD CONSTRAINT FK5oopl8ollof52yeq8l0m6y83b
+	FOREIGN KEY (area_type_name) REFERENCES area_type;
+ALTER TABLE areas
+	ADD CONSTRAINT FKgv56ukpogw0fcwohc6r0ew4jv
+	FOREIGN KEY (super_area_area_id) REFERENCES areas;
+
+ALTER TABLE area_administrators
+	ADD CONSTRAINT FKd2oupdw3x2bbdmpkbikn195vx
+	FOREIGN KEY (area_id) REFERENCES areas;
+ALTER TABLE area_administrators
+	ADD CONSTRAINT FKl83ddts5ppjk0yylb69ed6ei5
+	FOREIGN KEY (user_id) REFERENCES accounts;
+
+ALTER TABLE area_features
+	ADD CONSTRAINT FKdlmnbh0hj98oj33qd04fongbf
+	FOREIGN KEY (area_id) REFERENCES areas;
+ALTER TABLE area_features
+	ADD CONSTRAINT FK5mwmpq2fhc1dxlamvjx84bw31
+	FOREIGN KEY (feature_id) REFERENCES area_feature;
+
+ALTER TABLE user_favorites
+	ADD CONSTRAINT FKt7cbdr8ftbyon7tuvlytaxnwo
+	FOREIGN KEY (area_id) REFERENCES accounts;
+ALTER TABLE user_favorites
+	ADD CONSTRAINT FKhu68s6ccbptpy4097vbl3mejn
+	FOREIGN KEY (user_id) REFERENCES areas;
+
+ALTER TABLE plan
+	ADD CONSTRAINT FKk31bw9rg5jh8utak3cq40ygbt
+	FOREIGN KEY (area_area_id) REFERENCES areas;
+
+ALTER TABLE reservation
+	ADD CONSTRAINT FKog13bjp2fji9xjojci7462dvd
+	FOREIGN KEY (area_area_id) REFERENCES areas;
+ALTER TABLE reservation
+	ADD CONSTRAINT FK4a8ulxmicgb4yfffcnh0st9i0
+	FOREIGN KEY (user_id) REFERENCES accounts;
@@ -0,0 +1,20 @@
+-- Reservation series were added after the baseline, so databases baselined at V1 do not have them
+CREATE TABLE reservation_series (
+	id uuid NOT NULL,
+	area_area_id uuid,
+	user_id uuid,
+	first_date date,
+	last_date date,
+	start_time time(6),
+	end_time time(6),
+	weekdays integer,
+	comment varchar(255),
+	PRIMARY KEY (id)
+);
+
+ALTER TABLE reservation_series
+	ADD CONSTRAINT FKj2atn8nw0412d3ypnoppvc4ob
+	FOREIGN KEY (area_area_id) REFERENCES areas;
+ALTER TABLE reservation_series
+	ADD CONSTRAINT FKcjhlykvs33tsilh35oaoa0j6b
+	FOREIGN KEY (user_id) REFERENCES accounts;
@@ -0,0 +1,23 @@
+-- Indexes for the lookups the application makes, beyond the primary keys. The primary keys of the
+-- join tables already cover lookups by their first column, so only the second is indexed.
+
+-- Read on every request to find the logged in user. Also keeps two accounts from sharing a login
+ALTER TABLE accounts ADD CONSTRAINT accounts_external_id_key UNIQUE (external_id);
+
+-- Children of an area, used when walking the area tree
+CREATE INDEX areas_super_area_idx ON areas (super_area_area_id);
+
+-- Areas administered by a user, areas with a feature, and users who favorited an area
+CREATE INDEX area_administrators_user_idx ON area_administrators (user_id);
+CREATE INDEX area_features_feature_idx ON area_features (feature_id);
+CREATE INDEX user_favorites_user_idx ON user_favorites (user_id);
+
+CREATE INDEX plan_area_idx ON plan (area_area_id, start_date, end_date);
+
+-- Overlap checks within an area. Made by ddl-auto=update on databases that predate migrations
+CREATE INDEX IF NOT EXISTS reservation_area_time_idx
+	ON reservation (area_area_id, start_date_time, end_date_time);
+CREATE INDEX reservation_user_idx ON reservation (user_id, start_date_time);
+
+CREATE INDEX reservation_series_area_idx ON reservation_series (area_area_id, first_date, last_date);
+CREATE INDEX reservation_series_user_idx ON reservation_series (user_id, first_date);
@@ -0,0 +1,65 @@
+-- Rejects overlapping reservations in the same area, no matter how they are written. Needs
+-- btree_gist to compare the area id in a gist index.
+--
+-- Reservations used to be checked for overlaps without any lock, so an existing database may
+-- already hold overlapping reservations. The constraint cannot be added until they are resolved,
+-- and the migration, and with it the application, stops with a message saying how many there
+-- are. See "Upgrading an existing database" in the README for how to find and resolve them. The
+-- conflicting pairs are listed by:
+--
+--	SELECT a.area_area_id, a.reservation_uuid, a.start_date_time, a.end_date_time,
+--		b.reservation_uuid, b.start_date_time, b.end_date_time
+--	FROM app_data.reservation a
+--	JOIN app_data.reservation b
+--		ON a.area_area_id = b.area_area_id
+--		AND a.reservation_uuid < b.reservation_uuid
+--		AND tsrange(a.start_date_time, a.end_date_time)
+--			&& tsrange(b.start_date_time, b.end_date_time)
+--	ORDER BY a.area_area_id, a.start_date_time;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+DECLARE
+	reversed bigint;
+	overlapping bigint;
+BEGIN
+	SELECT count(*) INTO reversed
+	FROM reservation
+	WHERE end_date_time < start_date_time;
+	IF reversed > 0 THEN
+		RAISE EXCEPTION '% reservations end before they start', reversed
+			USING HINT = 'Fix or delete them before upgrading, see the README';
+	END IF;
+
+	SELECT count(*) INTO overlapping
+	FROM reservation a
+	JOIN reservation b
+		ON a.area_area_id = b.area_area_id
+		AND a.reservation_uuid < b.reservation_uuid
+		AND tsrange(a.start_date_time, a.end_date_time)
+			&& tsrange(b.start_date_time, b.end_date_time);
+	IF overlapping > 0 THEN
+		RAISE EXCEPTION '% pairs of reservations overlap in the same area', overlapping
+			USING HINT = 'List them with the query in V4__reservation_no_overlap.sql and resolve'
+				' them before upgrading, see the README';
+	END IF;
+END
+$$;
+
+-- Databases that ran the application before this migration may already have the constraint, as
+-- it used to be added at startup
+DO $$
+BEGIN
+	IF NOT EXISTS (
+		SELECT 1
+		FROM pg_constraint c
+		JOIN pg_class t ON t.oid = c.conrelid
+		WHERE c.conname = 'reservation_no_overlap'
+			AND t.relname = 'reservation'
+			AND t.relnamespace = current_schema()::regnamespace
+	) THEN
+		ALTER TABLE reservation ADD CONSTRAINT reservation_no_overlap
+			EXCLUDE USING gist (area_area_id WITH =, tsrange(start_date_time, end_date_time) WITH &&);
+	END IF;
+END
+$$;
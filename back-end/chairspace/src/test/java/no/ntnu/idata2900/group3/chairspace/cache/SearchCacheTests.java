@@ -0,0 +1,69 @@
+package no.ntnu.idata2900.group3.chairspace.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.index.AvailabilityIndex;
+import no.ntnu.idata2900.group3.chairspace.index.ReservationSpan;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the keys of the search cache.
+ * Windows are shrunk inward to whole minutes so searches that differ only in seconds share an
+ * entry. A shrunk window must still catch a booking that lies only in the cut seconds, which is
+ * what the last test guards against.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see SearchCache.Key
+ */
+class SearchCacheTests {
+	private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+	@Test
+	void testWholeMinutesAreKept() {
+		SearchCache.Key key = key(TEN, TEN.plusHours(1));
+		assertEquals(TEN, key.start());
+		assertEquals(TEN.plusHours(1), key.end());
+	}
+
+	@Test
+	void testWindowIsShrunkToWholeMinutes() {
+		SearchCache.Key key = key(TEN.plusSeconds(30), TEN.plusHours(1).plusSeconds(30));
+		assertEquals(TEN.plusMinutes(1), key.start());
+		assertEquals(TEN.plusHours(1), key.end());
+
+		// A window within a single minute is shrunk to nothing, not turned around
+		SearchCache.Key within = key(TEN.plusSeconds(10), TEN.plusSeconds(50));
+		assertEquals(within.start(), within.end());
+	}
+
+	@Test
+	void testBookingInTheSecondsIsNotReportedFree() {
+		UUID areaId = UUID.randomUUID();
+		List<ReservationSpan> spans = List.of(new ReservationSpan(
+			UUID.randomUUID(),
+			areaId,
+			TEN.plusHours(1),
+			TEN.plusHours(1).plusSeconds(30)
+		));
+		LocalDateTime start = TEN.plusSeconds(30);
+		LocalDateTime end = TEN.plusHours(1).plusSeconds(30);
+		Duration hour = Duration.ofHours(1);
+		assertFalse(AvailabilityIndex.hasFreeGap(spans, start, end, hour));
+
+		SearchCache.Key key = key(start, end);
+		assertFalse(AvailabilityIndex.hasFreeGap(spans, key.start(), key.end(), hour));
+		// Truncating both ends would have reported the area as free
+		assertTrue(AvailabilityIndex.hasFreeGap(spans, TEN, TEN.plusHours(1), hour));
+	}
+
+	private static SearchCache.Key key(LocalDateTime start, LocalDateTime end) {
+		return SearchCache.Key.of(null, null, null, null, start, end, Duration.ofMinutes(30));
+	}
+}
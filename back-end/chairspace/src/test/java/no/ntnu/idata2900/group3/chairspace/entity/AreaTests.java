@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 import no.ntnu.idata2900.group3.chairspace.exceptions.AdminCountException;
 import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
 import org.junit.jupiter.api.BeforeAll;
@@ -148,7 +149,10 @@ class AreaTests {
 		assertEquals(name, area.getName(), "Name was not assigned correctly");
 		assertEquals(capacity, area.getCapacity(), "Capacity was not assigned correctly");
 		assertEquals(areaType, area.getAreaType(), "Area type was not assigned correctly");
-		assertTrue(area.getAdministrators().contains(adminUser), "Admin was not added to area");
+		assertTrue(
+			area.getAreaSpecificAdministrators().contains(adminUser),
+			"Admin was not added to area"
+		);
 		assertEquals(description, area.getDescription(), "Description was not assigned correctly");
 		assertEquals(link, area.getCalendarLink(), "Calendar link was not assigned correctly");
 		assertTrue(area.isCalendarControlled(), "isCalendar controlled was not set to true");
@@ -254,9 +258,10 @@ class AreaTests {
 			return;
 		}
 
-		assertTrue(area.getAdministrators().contains(adminUser), "User was not added to admins");
-		assertTrue(area.getAdministrators().contains(nonAdminUser), "User was not added to admins");
-		assertEquals(2, area.getAdminCount());
+		Set<User> admins = area.getAreaSpecificAdministrators();
+		assertTrue(admins.contains(adminUser), "User was not added to admins");
+		assertTrue(admins.contains(nonAdminUser), "User was not added to admins");
+		assertEquals(2, admins.size());
 	}
 
 	@Test
@@ -278,62 +283,21 @@ class AreaTests {
 	/* ---- Method tests ---- */
 
 	@Test
-	void testGetAdminCountWithSuperArea() {
-		Area superArea;
-		Area areaWithSuper;
-		try {
-			superArea = new Area.Builder("Test", 1234, areaType)
-				.administrator(adminUser)
-				.build();
-
-			areaWithSuper = new Area.Builder("Test", 1234, areaType)
-				.administrator(adminUser)
-				.administrator(nonAdminUser)
-				.superArea(superArea)
-				.build();
-		} catch (Exception e) {
-			fail("Failed to create areas", e);
-			return;
-		}
-
-		assertEquals(2, areaWithSuper.getAdminCount());
-
-	}
-
-	@Test
-	void testIsAdminWithNullUser() {
-		Area area;
-		try {
-			area = new Area.Builder("Name", 12, areaType)
-				.administrator(adminUser)
-				.build();
-		} catch (Exception e) {
-			fail("Failed to create area", e);
-			return;
-		}
-		assertThrows(
-			IllegalArgumentException.class,
-			() -> area.isAdmin(null),
-			"Did not throw when provided with null user"
-		);
-	}
-
-	@Test
-	void testAdminFromSuperArea() {
-		Area area;
+	void testThatBuilderDoesNotThrowWithoutAdminIfSuperArea() {
 		Area superArea;
 		try {
 			superArea = new Area.Builder("Name", 12, areaType)
 				.administrator(adminUser)
 				.build();
-			area = new Area.Builder("Test", 123, areaType)
-				.superArea(superArea)
-				.build();
 		} catch (Exception e) {
-			fail("Failed to create areas" + e.getMessage(), e);
+			fail("Failed to create super area" + e.getMessage(), e);
 			return;
 		}
 
-		assertTrue(area.isAdmin(adminUser));
+		Area area = assertDoesNotThrow(() -> new Area.Builder("Test", 123, areaType)
+			.superArea(superArea)
+			.build()
+		);
+		assertTrue(area.getAreaSpecificAdministrators().isEmpty());
 	}
 }
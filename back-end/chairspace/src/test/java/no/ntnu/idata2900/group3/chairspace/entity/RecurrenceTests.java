@@ -0,0 +1,136 @@
+package no.ntnu.idata2900.group3.chairspace.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import no.ntnu.idata2900.group3.chairspace.exceptions.InvalidArgumentCheckedException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the recurrence of a reservation series.
+ * All dates are from a fixed Monday in 2030, with a series on Tuesdays and Thursdays from nine to
+ * eleven, so the expected occurrences can be counted by hand.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see Recurrence
+ */
+class RecurrenceTests {
+	// A Monday
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime ELEVEN = LocalTime.of(11, 0);
+
+	private static Recurrence tuesdaysAndThursdays(LocalDate first, LocalDate last)
+		throws InvalidArgumentCheckedException {
+		return new Recurrence(
+			first,
+			last,
+			NINE,
+			ELEVEN,
+			List.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY)
+		);
+	}
+
+	@Test
+	void testInvalidRecurrences() {
+		assertThrows(
+			InvalidArgumentCheckedException.class,
+			() -> tuesdaysAndThursdays(MONDAY, MONDAY.minusDays(1))
+		);
+		assertThrows(
+			InvalidArgumentCheckedException.class,
+			() -> new Recurrence(MONDAY, MONDAY, ELEVEN, NINE, List.of(DayOfWeek.MONDAY))
+		);
+		assertThrows(
+			InvalidArgumentCheckedException.class,
+			() -> new Recurrence(MONDAY, MONDAY, NINE, ELEVEN, List.of())
+		);
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> new Recurrence(null, MONDAY, NINE, ELEVEN, List.of(DayOfWeek.MONDAY))
+		);
+	}
+
+	@Test
+	void testOccurrencesWithinWindow() throws InvalidArgumentCheckedException {
+		Recurrence recurrence = tuesdaysAndThursdays(MONDAY, MONDAY.plusYears(1));
+
+		assertTrue(recurrence.occursOn(MONDAY.plusDays(1)));
+		assertFalse(recurrence.occursOn(MONDAY.plusDays(2)));
+		assertEquals(
+			List.of(MONDAY.plusDays(1), MONDAY.plusDays(3)),
+			recurrence.getDatesOverlapping(MONDAY.atStartOfDay(), MONDAY.plusDays(7).atStartOfDay())
+		);
+		// Only the Tuesday occurrence overlaps, the Thursday one starts when the window ends
+		assertEquals(
+			List.of(MONDAY.plusDays(1)),
+			recurrence.getDatesOverlapping(
+				MONDAY.plusDays(1).atTime(10, 0),
+				MONDAY.plusDays(3).atTime(9, 0)
+			)
+		);
+		assertEquals(104, recurrence.getDatesOverlapping(
+			MONDAY.atStartOfDay(),
+			MONDAY.plusYears(1).atStartOfDay()
+		).size());
+	}
+
+	@Test
+	void testOverlapsTimeSpan() throws InvalidArgumentCheckedException {
+		Recurrence recurrence = tuesdaysAndThursdays(MONDAY, MONDAY.plusWeeks(4));
+		LocalDate tuesday = MONDAY.plusDays(1);
+
+		assertTrue(recurrence.overlaps(tuesday.atTime(10, 0), tuesday.atTime(12, 0)));
+		assertFalse(recurrence.overlaps(tuesday.atTime(11, 0), tuesday.atTime(12, 0)));
+		assertFalse(recurrence.overlaps(MONDAY.atTime(9, 0), MONDAY.atTime(11, 0)));
+		assertFalse(recurrence.overlaps(
+			tuesday.plusWeeks(5).atTime(9, 0),
+			tuesday.plusWeeks(5).atTime(11, 0)
+		));
+	}
+
+	@Test
+	void testOverlapsRecurrence() throws InvalidArgumentCheckedException {
+		Recurrence recurrence = tuesdaysAndThursdays(MONDAY, MONDAY.plusWeeks(4));
+
+		Recurrence thursdays = new Recurrence(
+			MONDAY.plusWeeks(2),
+			MONDAY.plusWeeks(8),
+			LocalTime.of(10, 0),
+			LocalTime.of(12, 0),
+			List.of(DayOfWeek.THURSDAY)
+		);
+		Recurrence mondays = new Recurrence(
+			MONDAY,
+			MONDAY.plusWeeks(4),
+			NINE,
+			ELEVEN,
+			List.of(DayOfWeek.MONDAY)
+		);
+		Recurrence afternoons = new Recurrence(
+			MONDAY,
+			MONDAY.plusWeeks(4),
+			ELEVEN,
+			LocalTime.of(13, 0),
+			List.of(DayOfWeek.TUESDAY)
+		);
+		// Only shares a Wednesday with the recurrence, which neither occurs on
+		Recurrence afterwards = tuesdaysAndThursdays(
+			MONDAY.plusWeeks(4).plusDays(2),
+			MONDAY.plusWeeks(4).plusDays(2)
+		);
+
+		assertTrue(recurrence.overlaps(thursdays));
+		assertTrue(thursdays.overlaps(recurrence));
+		assertFalse(recurrence.overlaps(mondays));
+		assertFalse(recurrence.overlaps(afternoons));
+		assertFalse(recurrence.overlaps(afterwards));
+	}
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.LocalDateTime;
@@ -244,4 +245,21 @@ class ReservationTest {
 		}
 		assertFalse(reservation.doesCollide(start2, end2));
 	}
+
+	@Test
+	void testDoesCollideWithSameAndContainedTimespan() {
+		Reservation reservation;
+		LocalDateTime start = LocalDateTime.now().plusDays(28);
+		LocalDateTime end = start.plusHours(2);
+		try {
+			reservation = new Reservation(area, admin, start, end);
+		} catch (InvalidArgumentCheckedException | NotReservableException e) {
+			fail(e.getMessage(), e);
+			return;
+		}
+		assertTrue(reservation.doesCollide(start, end));
+		assertTrue(reservation.doesCollide(start.plusMinutes(30), end.minusMinutes(30)));
+		assertTrue(reservation.doesCollide(start.minusHours(1), end.plusHours(1)));
+		assertFalse(reservation.doesCollide(start.minusHours(1), start));
+	}
 }
@@ -0,0 +1,78 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.entity.AreaType;
+import no.ntnu.idata2900.group3.chairspace.repository.AreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the administrators inherited from super areas.
+ * The index is loaded from a small building, floor and room hierarchy, given by a mocked
+ * repository instead of the database, with a different administrator at each level.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see AreaAdministratorIndex
+ */
+class AreaAdministratorIndexTests {
+	private final UUID buildingId = UUID.randomUUID();
+	private final UUID floorId = UUID.randomUUID();
+	private final UUID roomId = UUID.randomUUID();
+	private final UUID buildingAdminId = UUID.randomUUID();
+	private final UUID roomAdminId = UUID.randomUUID();
+	private AreaAdministratorIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		AreaType type = new AreaType("Room", "A room");
+		AreaRepository areaRepository = mock(AreaRepository.class);
+		when(areaRepository.findAllNodes()).thenReturn(List.of(
+			new AreaNode(buildingId, null, "Building", type),
+			new AreaNode(floorId, buildingId, "Floor", type),
+			new AreaNode(roomId, floorId, "Room", type)
+		));
+		when(areaRepository.findAllAdministratorLinks()).thenReturn(List.of(
+			new AreaAdministratorLink(buildingId, buildingAdminId),
+			new AreaAdministratorLink(roomId, roomAdminId)
+		));
+		index = new AreaAdministratorIndex(areaRepository, new AreaTree(areaRepository));
+	}
+
+	@Test
+	void testThatAdministratorsAreInheritedFromEverySuperArea() {
+		assertEquals(Set.of(buildingAdminId), index.getAdministratorIds(floorId));
+		assertEquals(Set.of(buildingAdminId, roomAdminId), index.getAdministratorIds(roomId));
+	}
+
+	@Test
+	void testThatAdministratorsAreNotInheritedFromSubAreas() {
+		assertEquals(Set.of(buildingAdminId), index.getAdministratorIds(buildingId));
+	}
+
+	@Test
+	void testThatAdministratedAreasIncludeSubAreas() {
+		assertEquals(
+			Set.of(buildingId, floorId, roomId),
+			index.getAdministratedAreaIds(buildingAdminId)
+		);
+		assertEquals(Set.of(roomId), index.getAdministratedAreaIds(roomAdminId));
+	}
+
+	@Test
+	void testThatRemovedUserIsNoLongerInherited() {
+		// Loaded first, as an index that is not loaded yet reads the remaining users on load
+		index.warmUp();
+		index.removeUser(buildingAdminId);
+
+		assertTrue(index.getAdministratorIds(floorId).isEmpty());
+		assertEquals(Set.of(roomAdminId), index.getAdministratorIds(roomId));
+	}
+}
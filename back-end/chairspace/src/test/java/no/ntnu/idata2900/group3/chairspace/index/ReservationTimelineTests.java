@@ -0,0 +1,204 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the reservation timeline behind the availability index.
+ * Times are given in seconds from an arbitrary epoch, so the tests only exercise the sorted
+ * arrays and never depend on dates or time zones.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see ReservationTimeline
+ */
+class ReservationTimelineTests {
+	private static final long HOUR = 60 * 60;
+
+	@Test
+	void testEmptyTimelineHasGap() {
+		assertTrue(ReservationTimeline.EMPTY.hasFreeGap(0, 8 * HOUR, 8 * HOUR));
+		assertFalse(ReservationTimeline.EMPTY.hasFreeGap(0, 8 * HOUR, 9 * HOUR));
+	}
+
+	@Test
+	void testGapBeforeBetweenAndAfter() {
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), 2 * HOUR, 3 * HOUR)
+			.with(UUID.randomUUID(), 5 * HOUR, 6 * HOUR);
+
+		// Before the first reservation
+		assertTrue(timeline.hasFreeGap(0, 8 * HOUR, 2 * HOUR));
+		// Between the reservations
+		assertTrue(timeline.hasFreeGap(2 * HOUR, 6 * HOUR, 2 * HOUR));
+		// After the last reservation
+		assertTrue(timeline.hasFreeGap(5 * HOUR, 8 * HOUR, 2 * HOUR));
+		assertFalse(timeline.hasFreeGap(0, 8 * HOUR, 3 * HOUR));
+	}
+
+	@Test
+	void testContainedReservationDoesNotOpenGap() {
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), 0, 6 * HOUR)
+			.with(UUID.randomUUID(), 1 * HOUR, 2 * HOUR);
+
+		assertFalse(timeline.hasFreeGap(0, 6 * HOUR, 1 * HOUR));
+		assertFalse(timeline.hasFreeGap(3 * HOUR, 6 * HOUR, 1 * HOUR));
+		assertTrue(timeline.hasFreeGap(3 * HOUR, 8 * HOUR, 2 * HOUR));
+	}
+
+	@Test
+	void testTouchingReservationsLeaveNoGap() {
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), 0, 2 * HOUR)
+			.with(UUID.randomUUID(), 2 * HOUR, 4 * HOUR);
+
+		assertFalse(timeline.hasFreeGap(0, 4 * HOUR, 1));
+	}
+
+	@Test
+	void testWithReplacesExistingReservation() {
+		UUID id = UUID.randomUUID();
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(id, 0, 4 * HOUR)
+			.with(id, 6 * HOUR, 8 * HOUR);
+
+		assertEquals(1, timeline.size());
+		assertTrue(timeline.hasFreeGap(0, 6 * HOUR, 6 * HOUR));
+	}
+
+	@Test
+	void testWithout() {
+		UUID id = UUID.randomUUID();
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(id, 0, 4 * HOUR)
+			.with(UUID.randomUUID(), 6 * HOUR, 8 * HOUR);
+
+		ReservationTimeline removed = timeline.without(id);
+		assertEquals(1, removed.size());
+		assertEquals(2, timeline.size());
+		assertTrue(removed.hasFreeGap(0, 6 * HOUR, 6 * HOUR));
+		assertSame(removed, removed.without(UUID.randomUUID()));
+	}
+
+	@Test
+	void testOfSortsSpans() {
+		LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+		UUID areaId = UUID.randomUUID();
+		ReservationTimeline timeline = ReservationTimeline.of(List.of(
+			new ReservationSpan(UUID.randomUUID(), areaId, day.plusHours(5), day.plusHours(6)),
+			new ReservationSpan(UUID.randomUUID(), areaId, day.plusHours(1), day.plusHours(2))
+		));
+		long start = AvailabilityIndex.toSeconds(day);
+
+		assertEquals(2, timeline.size());
+		assertTrue(timeline.hasFreeGap(start, start + 8 * HOUR, 3 * HOUR));
+		assertFalse(timeline.hasFreeGap(start, start + 6 * HOUR, 3 * HOUR + 1));
+	}
+
+	@Test
+	void testDayOccupancyCountsOverlapsOnce() {
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), 6 * HOUR, 12 * HOUR)
+			.with(UUID.randomUUID(), 10 * HOUR, 18 * HOUR + 10 * 60);
+
+		assertEquals((12 * HOUR + 10 * 60) / (24f * HOUR), timeline.getDay(0).getFrequency());
+		assertEquals(0f, timeline.getDay(1).getFrequency());
+	}
+
+	@Test
+	void testDayOccupancySpansDays() {
+		UUID id = UUID.randomUUID();
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(id, 18 * HOUR, 30 * HOUR);
+
+		assertEquals(0.25f, timeline.getDay(0).getFrequency());
+		assertEquals(0.25f, timeline.getDay(1).getFrequency());
+		assertTrue(timeline.without(id).getDay(1).isFree());
+	}
+
+	@Test
+	void testGapWithinPartiallyReservedSlots() {
+		// Leaves a ten minute gap between two reservations that touch the same slot
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), 0, HOUR + 2 * 60)
+			.with(UUID.randomUUID(), HOUR + 12 * 60, 2 * HOUR);
+
+		assertTrue(timeline.hasFreeGap(0, 2 * HOUR, 10 * 60));
+		assertFalse(timeline.hasFreeGap(0, 2 * HOUR, 10 * 60 + 1));
+		assertFalse(timeline.hasFreeGap(0, HOUR, 1));
+	}
+
+	@Test
+	void testOverlayKeepsSharedIds() {
+		LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+		UUID areaId = UUID.randomUUID();
+		UUID seriesId = UUID.randomUUID();
+		long start = AvailabilityIndex.toSeconds(day);
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), start + 4 * HOUR, start + 5 * HOUR);
+
+		ReservationTimeline overlay = ReservationTimeline.overlayOf(List.of(
+			new ReservationSpan(seriesId, areaId, day.plusHours(30), day.plusHours(32)),
+			new ReservationSpan(seriesId, areaId, day.plusHours(6), day.plusHours(8))
+		));
+
+		assertEquals(2, overlay.size());
+		assertEquals(1, timeline.size());
+		// The bitmap of the day sees a gap, which the overlay fills
+		assertTrue(timeline.hasFreeGap(start + 5 * HOUR, start + 9 * HOUR, 2 * HOUR));
+		assertFalse(timeline.hasFreeGap(start + 5 * HOUR, start + 9 * HOUR, 2 * HOUR, overlay));
+		assertTrue(timeline.hasFreeGap(start + 8 * HOUR, start + 10 * HOUR, 2 * HOUR, overlay));
+		long nextDay = ReservationTimeline.dayOf(start) + 1;
+		assertEquals(2 / 24f, timeline.getDay(nextDay, overlay).getFrequency());
+		assertEquals(0f, timeline.getDay(nextDay).getFrequency());
+		assertSame(ReservationTimeline.EMPTY, ReservationTimeline.overlayOf(List.of()));
+	}
+
+	@Test
+	void testOverlayReachingIntoWindow() {
+		LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+		long start = AvailabilityIndex.toSeconds(day);
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(UUID.randomUUID(), start + 6 * HOUR, start + 7 * HOUR);
+		ReservationTimeline overlay = ReservationTimeline.overlayOf(List.of(
+			new ReservationSpan(UUID.randomUUID(), UUID.randomUUID(), day, day.plusHours(5))
+		));
+
+		assertFalse(timeline.hasFreeGap(start + 4 * HOUR, start + 8 * HOUR, 2 * HOUR, overlay));
+		assertTrue(timeline.hasFreeGap(start + 4 * HOUR, start + 8 * HOUR, HOUR, overlay));
+		assertEquals(
+			6 / 24f,
+			timeline.getDay(ReservationTimeline.dayOf(start), overlay).getFrequency()
+		);
+	}
+
+	@Test
+	void testEndingAfterDropsEndedReservations() {
+		long day = 10 * DayOccupancy.DAY_SECONDS;
+		UUID ended = UUID.randomUUID();
+		UUID ongoing = UUID.randomUUID();
+		UUID later = UUID.randomUUID();
+		ReservationTimeline timeline = ReservationTimeline.EMPTY
+			.with(ended, day + 2 * HOUR, day + 3 * HOUR)
+			.with(ongoing, day + 23 * HOUR, day + 25 * HOUR)
+			.with(later, day + 30 * HOUR, day + 31 * HOUR);
+		long nextDay = day + DayOccupancy.DAY_SECONDS;
+
+		ReservationTimeline pruned = timeline.endingAfter(nextDay);
+
+		assertEquals(List.of(ended), timeline.getIdsEndingBy(nextDay));
+		assertEquals(2, pruned.size());
+		assertEquals(0f, pruned.getDay(ReservationTimeline.dayOf(day)).getFrequency());
+		assertEquals(2 / 24f, pruned.getDay(ReservationTimeline.dayOf(nextDay)).getFrequency());
+		assertFalse(pruned.hasFreeGap(nextDay, nextDay + HOUR, 1));
+		assertSame(pruned, pruned.endingAfter(nextDay));
+	}
+}
@@ -0,0 +1,89 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.cache.SearchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the slot holds.
+ * Each test gets a fresh search cache next to the holds, so it can check which cached searches a
+ * hold throws away. A hold must drop every cached search it could change, and nothing else.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see SlotHolds
+ */
+class SlotHoldsTests {
+	private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+	private final UUID areaId = UUID.randomUUID();
+	private final UUID userId = UUID.randomUUID();
+	private SearchCache searchCache;
+	private SlotHolds slotHolds;
+	private SearchCache.Key key;
+
+	@BeforeEach
+	void setUp() {
+		searchCache = new SearchCache(10, Duration.ofMinutes(5));
+		slotHolds = new SlotHolds(Duration.ofMinutes(5), 5, searchCache);
+		key = SearchCache.Key.of(
+			null,
+			null,
+			null,
+			null,
+			TEN,
+			TEN.plusHours(2),
+			Duration.ofMinutes(30)
+		);
+	}
+
+	@Test
+	void testHoldBlocksOtherUsers() {
+		UUID otherUserId = UUID.randomUUID();
+		assertNotNull(slotHolds.hold(areaId, userId, TEN, TEN.plusHours(1)));
+		assertNull(slotHolds.hold(areaId, otherUserId, TEN.plusMinutes(30), TEN.plusHours(2)));
+		// Holds that only touch do not overlap
+		assertNotNull(slotHolds.hold(areaId, otherUserId, TEN.plusHours(1), TEN.plusHours(2)));
+	}
+
+	@Test
+	void testHoldAndReleaseInvalidateSearches() {
+		SearchCache.Entry cached = searchCache.get(key, () -> List.of(areaId));
+
+		SlotHold hold = slotHolds.hold(areaId, userId, TEN.plusMinutes(30), TEN.plusHours(1));
+		SearchCache.Entry afterHold = searchCache.get(key, () -> List.of(areaId));
+		assertNotSame(cached, afterHold);
+
+		assertNotNull(slotHolds.release(hold.id()));
+		assertNotSame(afterHold, searchCache.get(key, () -> List.of(areaId)));
+	}
+
+	@Test
+	void testHoldOutsideSearchKeepsIt() {
+		SearchCache.Entry cached = searchCache.get(key, () -> List.of(areaId));
+		slotHolds.hold(areaId, userId, TEN.plusHours(3), TEN.plusHours(4));
+		slotHolds.hold(UUID.randomUUID(), userId, TEN, TEN.plusHours(1));
+		assertSame(cached, searchCache.get(key, () -> List.of(areaId)));
+	}
+
+	@Test
+	void testReleaseAreas() {
+		UUID otherAreaId = UUID.randomUUID();
+		SlotHold hold = slotHolds.hold(areaId, userId, TEN, TEN.plusHours(1));
+		SlotHold otherHold = slotHolds.hold(otherAreaId, userId, TEN, TEN.plusHours(1));
+
+		slotHolds.releaseAreas(List.of(areaId));
+		assertNull(slotHolds.get(hold.id()));
+		assertNotNull(slotHolds.get(otherHold.id()));
+		assertNotNull(slotHolds.hold(areaId, UUID.randomUUID(), TEN, TEN.plusHours(1)));
+	}
+}
@@ -0,0 +1,79 @@
+package no.ntnu.idata2900.group3.chairspace.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the timing wheel that expires slot holds.
+ * The clock is passed in by hand, so every test advances the wheel tick by tick without waiting,
+ * including past a full revolution.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see TimingWheel
+ */
+class TimingWheelTests {
+	private static final long TICK = 1000;
+
+	@Test
+	void testInvalidWheel() {
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, 8, 0));
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(TICK, 6, 0));
+	}
+
+	@Test
+	void testItemsExpireAtDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+		wheel.schedule("a", 2 * TICK);
+		wheel.schedule("b", 3 * TICK + 1);
+		assertEquals(2, wheel.size());
+
+		assertTrue(wheel.advance(TICK).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(2 * TICK));
+		// Rounded up to the next tick
+		assertTrue(wheel.advance(3 * TICK + 500).isEmpty());
+		assertEquals(List.of("b"), wheel.advance(4 * TICK));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void testPastDeadlineExpiresOnNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 5 * TICK);
+		wheel.schedule("a", TICK);
+
+		assertTrue(wheel.advance(5 * TICK + 999).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(6 * TICK));
+	}
+
+	@Test
+	void testItemsLaterThanOneRevolution() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+		// Shares a bucket with tick 1, but belongs to a later revolution
+		wheel.schedule("late", 9 * TICK);
+		wheel.schedule("early", TICK);
+
+		assertEquals(List.of("early"), wheel.advance(TICK));
+		for (long tick = 2; tick < 9; tick++) {
+			assertTrue(wheel.advance(tick * TICK).isEmpty());
+		}
+		assertEquals(List.of("late"), wheel.advance(9 * TICK));
+	}
+
+	@Test
+	void testAdvanceCatchesUpAfterManyTicks() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+		wheel.schedule("a", 2 * TICK);
+		wheel.schedule("b", 7 * TICK);
+		wheel.schedule("c", 30 * TICK);
+
+		List<String> expired = wheel.advance(20 * TICK);
+		assertEquals(2, expired.size());
+		assertTrue(expired.containsAll(List.of("a", "b")));
+		assertEquals(1, wheel.size());
+		assertEquals(List.of("c"), wheel.advance(30 * TICK));
+	}
+}
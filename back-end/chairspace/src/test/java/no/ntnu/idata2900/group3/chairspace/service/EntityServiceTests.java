@@ -0,0 +1,39 @@
+package no.ntnu.idata2900.group3.chairspace.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the page size every listing endpoint passes through.
+ * A missing or invalid size falls back to the default, and a requested size is never allowed
+ * past the maximum, so a client cannot ask for a whole table at once.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see EntityService#toPageSize(Integer)
+ */
+class EntityServiceTests {
+	@Test
+	void testMissingOrInvalidSizeGivesDefault() {
+		assertEquals(EntityService.DEFAULT_PAGE_SIZE, EntityService.toPageSize(null));
+		assertEquals(EntityService.DEFAULT_PAGE_SIZE, EntityService.toPageSize(0));
+		assertEquals(EntityService.DEFAULT_PAGE_SIZE, EntityService.toPageSize(-1));
+		assertEquals(EntityService.DEFAULT_PAGE_SIZE, EntityService.toPageSize(Integer.MIN_VALUE));
+	}
+
+	@Test
+	void testSizeIsClampedToMaximum() {
+		assertEquals(1, EntityService.toPageSize(1));
+		assertEquals(
+			EntityService.MAX_PAGE_SIZE,
+			EntityService.toPageSize(EntityService.MAX_PAGE_SIZE)
+		);
+		assertEquals(
+			EntityService.MAX_PAGE_SIZE,
+			EntityService.toPageSize(EntityService.MAX_PAGE_SIZE + 1)
+		);
+		// One more than the page is fetched to find the next page, which must not overflow
+		assertEquals(EntityService.MAX_PAGE_SIZE, EntityService.toPageSize(Integer.MAX_VALUE));
+	}
+}
@@ -0,0 +1,159 @@
+package no.ntnu.idata2900.group3.chairspace.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import no.ntnu.idata2900.group3.chairspace.dto.SimpleReservation;
+import no.ntnu.idata2900.group3.chairspace.entity.Area;
+import no.ntnu.idata2900.group3.chairspace.entity.AreaType;
+import no.ntnu.idata2900.group3.chairspace.entity.Recurrence;
+import no.ntnu.idata2900.group3.chairspace.entity.ReservationSeries;
+import no.ntnu.idata2900.group3.chairspace.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for how the reservations of the areas a user has booked are grouped by area.
+ * The grouping is fed by hand instead of by the database, with series that occur in the window,
+ * series that only overlap it by date, and areas where the user has nothing but a series.
+ *
+ * @version 0.1
+ * @since 0.1
+ * @see ReservationService#forEachAreaReservedByUser
+ */
+class ReservationServiceTests {
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+	private static final LocalDateTime START = MONDAY.atStartOfDay();
+	private static final LocalDateTime END = START.plusDays(7);
+
+	private final UUID userId = UUID.randomUUID();
+	private final UUID otherUserId = UUID.randomUUID();
+	private User user;
+	private User otherUser;
+	private Area area;
+	private Area otherArea;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		user = new User("Some User", "some@user.no", "some-user");
+		ReflectionTestUtils.setField(user, "id", userId);
+		otherUser = new User("Other User", "other@user.no", "other-user");
+		ReflectionTestUtils.setField(otherUser, "id", otherUserId);
+		AreaType type = new AreaType("Room", "A room");
+		area = new Area.Builder("Area", 1, type)
+			.administrator(otherUser)
+			.reservable(true)
+			.id(UUID.randomUUID())
+			.build();
+		otherArea = new Area.Builder("Other area", 1, type)
+			.administrator(otherUser)
+			.reservable(true)
+			.id(UUID.randomUUID())
+			.build();
+	}
+
+	@Test
+	void testAreaWithOnlySeries() throws Exception {
+		ReservationSeries series = series(area, user, MONDAY.plusDays(1), MONDAY.plusDays(2));
+
+		Map<UUID, List<SimpleReservation>> areas = read(
+			List.of(),
+			Map.of(area.getId(), List.of(series))
+		);
+		assertEquals(List.of(area.getId()), List.copyOf(areas.keySet()));
+		assertEquals(2, areas.get(area.getId()).size());
+		assertTrue(areas.get(area.getId()).stream().allMatch(SimpleReservation::isMine));
+	}
+
+	@Test
+	void testSeriesOnlyAreaAfterReservedAreas() throws Exception {
+		SimpleReservation mine = reservation(otherArea, true, 9);
+		SimpleReservation theirs = reservation(otherArea, false, 7);
+		ReservationSeries series = series(area, user, MONDAY, MONDAY);
+		LocalDate tuesday = MONDAY.plusDays(1);
+		ReservationSeries otherSeries = series(area, otherUser, tuesday, tuesday);
+
+		Map<UUID, List<SimpleReservation>> areas = read(
+			List.of(theirs, mine),
+			Map.of(area.getId(), List.of(series, otherSeries))
+		);
+		assertEquals(List.of(otherArea.getId(), area.getId()), List.copyOf(areas.keySet()));
+		assertEquals(List.of(theirs, mine), areas.get(otherArea.getId()));
+		assertEquals(
+			List.of(true, false),
+			areas.get(area.getId()).stream().map(SimpleReservation::isMine).toList()
+		);
+	}
+
+	@Test
+	void testSeriesWithoutOccurrenceIsSkipped() throws Exception {
+		// The series overlaps the time period by date, but starts after it ends
+		ReservationSeries series = series(area, user, MONDAY.plusDays(7), MONDAY.plusDays(8));
+		SimpleReservation theirs = reservation(otherArea, false, 9);
+		LocalDate nextMonday = MONDAY.plusDays(7);
+		ReservationSeries otherSeries = series(otherArea, user, nextMonday, nextMonday);
+
+		Map<UUID, List<SimpleReservation>> areas = read(
+			List.of(theirs),
+			Map.of(area.getId(), List.of(series), otherArea.getId(), List.of(otherSeries))
+		);
+		assertTrue(areas.isEmpty());
+	}
+
+	private Map<UUID, List<SimpleReservation>> read(
+		List<SimpleReservation> reservations,
+		Map<UUID, List<ReservationSeries>> seriesByArea
+	) {
+		Map<UUID, List<SimpleReservation>> areas = new LinkedHashMap<>();
+		ReservationService.forEachArea(
+			reservations.iterator(),
+			seriesByArea,
+			START,
+			END,
+			userId,
+			areas::put
+		);
+		return areas;
+	}
+
+	private ReservationSeries series(
+		Area seriesArea,
+		User seriesUser,
+		LocalDate first,
+		LocalDate last
+	) throws Exception {
+		Recurrence recurrence = new Recurrence(
+			first,
+			last,
+			LocalTime.of(8, 0),
+			LocalTime.of(9, 0),
+			List.of(DayOfWeek.values())
+		);
+		return new ReservationSeries(seriesArea, seriesUser, recurrence, "");
+	}
+
+	private SimpleReservation reservation(Area reservationArea, boolean isMine, int hour) {
+		User reservationUser = isMine ? user : otherUser;
+		return new SimpleReservation(
+			UUID.randomUUID(),
+			reservationArea.getId(),
+			reservationArea.getName(),
+			reservationUser.getId(),
+			reservationUser.getName(),
+			START.plusHours(hour),
+			START.plusHours(hour + 1),
+			"",
+			isMine,
+			null
+		);
+	}
+}